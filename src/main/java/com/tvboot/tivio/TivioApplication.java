@@ -21,7 +21,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
 @EntityScan(basePackages = "com.tvboot.tivio")             // Scan for entities
 @EnableJpaAuditing                                          // Enable auditing for @CreatedBy, @LastModifiedBy
 @EnableTransactionManagement
-//@EnableScheduling  // ✅ AJOUTER CETTE ANNOTATION
+@EnableScheduling  // ✅ EPG boundary wheel, terminal status checks
 //@EnableAsync       // ✅ POUR LES TÂCHES ASYNCHRONES// Enable transaction management
 public class TivioApplication {
 
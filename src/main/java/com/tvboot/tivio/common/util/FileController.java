@@ -1,12 +1,20 @@
 package com.tvboot.tivio.common.util;
 
+import com.tvboot.tivio.media.epg.EpgFileRenderer;
+import com.tvboot.tivio.terminal.distribution.PackageDistributionService;
+import com.tvboot.tivio.terminal.distribution.PackageDistributionService.PackageFile;
+import com.tvboot.tivio.terminal.distribution.SubnetBandwidthLimiter;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
@@ -20,14 +28,22 @@ import org.springframework.web.servlet.HandlerMapping;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
 @Slf4j
 @RestController
+@RequiredArgsConstructor
 @RequestMapping("/files")
 @CrossOrigin(origins = {"http://localhost:4200", "${app.cors.allowed-origins:*}"})
 @Tag(name = "📁 File Server", description = "Serveur de fichiers pour plateforme IPTV")
@@ -38,6 +54,20 @@ public class FileController {
 
     private final AntPathMatcher pathMatcher = new AntPathMatcher();
 
+    private final EpgFileRenderer epgFileRenderer;
+    private final PackageDistributionService distributionService;
+    private final SubnetBandwidthLimiter bandwidthLimiter;
+
+    // Package downloads are written by chunks of this size, each one paid for in bandwidth tokens
+    private static final int PACKAGE_CHUNK_SIZE = 64 * 1024;
+    private static final long[] UNSATISFIABLE_RANGE = new long[0];
+
+    // Tomcat request attributes used by its DefaultServlet for zero-copy transfers
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
     // Types de fichiers autorisés pour la sécurité
     private static final List<String> ALLOWED_IMAGE_EXTENSIONS = Arrays.asList(
             "jpg", "jpeg", "png", "gif", "bmp", "webp", "svg", "ico"
@@ -107,6 +137,259 @@ public class FileController {
         return serveFile(path, ALLOWED_DOCUMENT_EXTENSIONS, "document");
     }
 
+    @Operation(
+            summary = "📅 Guide EPG pré-calculé d'une chaîne pour un jour",
+            description = """
+                    Fichier JSON compressé (gzip) généré à chaque modification du guide.
+                                        
+                    **Exemple :** `/api/v1/files/epg/12/2025-06-01`
+                                        
+                    Servi tel quel depuis le disque (sendfile si disponible) aux clients qui acceptent gzip,
+                    décompressé à la volée pour les autres, avec ETag basé sur le contenu.
+                    """
+    )
+    @GetMapping(value = "/epg/{channelId}/{date}")
+    public ResponseEntity<Resource> getEpgDay(@PathVariable Long channelId,
+                                              @PathVariable String date,
+                                              HttpServletRequest request) {
+        try {
+            LocalDate day = LocalDate.parse(date);
+            Path filePath = epgFileRenderer.resolveDayFile(channelId, day);
+
+            if (!Files.isReadable(filePath)) {
+                return ResponseEntity.notFound()
+                        .header("X-Error", "No guide for channel " + channelId + " on " + day)
+                        .build();
+            }
+
+            Path etagPath = filePath.resolveSibling(day + EpgFileRenderer.ETAG_SUFFIX);
+            boolean gzip = acceptsGzip(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            // Each encoding is its own representation, with its own ETag
+            String etag = Files.exists(etagPath)
+                    ? "\"" + Files.readString(etagPath).trim() + (gzip ? "" : "-identity") + "\""
+                    : null;
+
+            if (etag != null && etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(etag)
+                        .build();
+            }
+
+            ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    // The guide of a day can still change: cache for a day, then revalidate with the ETag
+                    .header(HttpHeaders.CACHE_CONTROL, "public, max-age=86400, stale-while-revalidate=3600")
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            if (etag != null) {
+                responseBuilder.eTag(etag);
+            }
+
+            if (!gzip) {
+                // Rare (TVs all accept gzip): inflated while streaming, length unknown
+                return responseBuilder.body(new InputStreamResource(
+                        new GZIPInputStream(Files.newInputStream(filePath))));
+            }
+
+            long fileSize = Files.size(filePath);
+            responseBuilder.header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .header(HttpHeaders.CONTENT_LENGTH, String.valueOf(fileSize));
+
+            // Zero-copy: hand the file over to Tomcat, the body is sent with sendfile() after the headers
+            if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+                request.setAttribute(SENDFILE_FILENAME, filePath.toString());
+                request.setAttribute(SENDFILE_START, 0L);
+                request.setAttribute(SENDFILE_END, fileSize);
+                return responseBuilder.build();
+            }
+
+            return responseBuilder.body(new UrlResource(filePath.toUri()));
+
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest()
+                    .header("X-Error", "Invalid date, expected yyyy-MM-dd")
+                    .build();
+        } catch (IOException e) {
+            log.error("Erreur IO EPG: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .header("X-Error", "IO Error")
+                    .build();
+        }
+    }
+
+    /**
+     * True when Accept-Encoding accepts gzip: its own entry decides, "*" only applies
+     * when gzip is not listed ("gzip;q=0, *" refuses gzip)
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = true;
+            for (int i = 1; i < parts.length; i++) {
+                if (parts[i].trim().replace(" ", "").matches("[qQ]=0(\\.0{0,3})?")) {
+                    accepted = false;
+                }
+            }
+            if (name.equalsIgnoreCase("gzip")) {
+                return accepted;
+            }
+            if (name.equals("*")) {
+                wildcard = accepted;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    @Operation(
+            summary = "📦 Télécharger un paquet applicatif (APK, firmware)",
+            description = """
+                    Paquet enregistré via `/api/v1/terminals/packages`, proposé aux terminaux par les vagues de déploiement.
+                                        
+                    **Exemple :** `/api/v1/files/packages/android-tv/2.4.0`
+                                        
+                    Requêtes `Range` (reprise d'un téléchargement interrompu, `If-Range` sur l'ETag), ETag = SHA-256 du fichier.
+                    Le débit est limité par sous-réseau (token bucket partagé par tous les téléchargements du segment).
+                    """
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "✅ Paquet complet"),
+            @ApiResponse(responseCode = "206", description = "✂️ Plage demandée"),
+            @ApiResponse(responseCode = "404", description = "❌ Paquet non trouvé"),
+            @ApiResponse(responseCode = "416", description = "📏 Plage invalide")
+    })
+    @GetMapping(value = "/packages/{platform}/{appVersion}")
+    public void getPackage(@PathVariable String platform,
+                           @PathVariable String appVersion,
+                           HttpServletRequest request,
+                           HttpServletResponse response) {
+        Optional<PackageFile> found = distributionService.findPackageFile(platform, appVersion);
+        if (found.isEmpty()) {
+            rejectPackage(response, HttpStatus.NOT_FOUND, "Package not found");
+            return;
+        }
+        PackageFile file = found.get();
+        long size = file.getSize();
+        String etag = "\"" + file.getSha256() + "\"";
+
+        if (etag.equals(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            response.setHeader(HttpHeaders.ETAG, etag);
+            return;
+        }
+
+        // Single byte range only; a multi-range or a stale If-Range gets the whole file
+        long start = 0;
+        long end = size - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        long[] bounds = range != null && range.startsWith("bytes=") && !range.contains(",")
+                && (ifRange == null || ifRange.equals(etag))
+                ? parseByteRange(range.substring("bytes=".length()).trim(), size)
+                : null;
+        if (bounds == UNSATISFIABLE_RANGE) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            rejectPackage(response, HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, "Range not satisfiable");
+            return;
+        }
+        // An invalid Range header is ignored (RFC 9110): the whole file is served
+        boolean partial = bounds != null;
+        if (partial) {
+            start = bounds[0];
+            end = bounds[1];
+        }
+
+        response.setStatus(partial ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        response.setContentType(determineContentType(file.getPath()));
+        response.setContentLengthLong(end - start + 1);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        // A registered version is never replaced
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=86400");
+        if (partial) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+        }
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        // Streamed by hand rather than with sendfile so that every chunk goes through the
+        // bandwidth limiter of the client's subnet; the request runs on a virtual thread
+        String segment = bandwidthLimiter.segmentOf(request.getRemoteAddr());
+        log.info("📦 Serving package {} {} bytes {}-{}/{} to {} (segment {})",
+                platform, appVersion, start, end, size, request.getRemoteAddr(), segment);
+        try (FileChannel channel = FileChannel.open(file.getPath(), StandardOpenOption.READ)) {
+            ServletOutputStream out = response.getOutputStream();
+            byte[] chunk = new byte[PACKAGE_CHUNK_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            long position = start;
+            while (position <= end) {
+                buffer.clear().limit((int) Math.min(chunk.length, end - position + 1));
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                bandwidthLimiter.acquire(segment, read);
+                out.write(chunk, 0, read);
+                position += read;
+            }
+            out.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // Mostly the terminal going away; it resumes with a Range request
+            log.debug("Package download {} {} interrupted: {}", platform, appVersion, e.getMessage());
+        }
+    }
+
+    /**
+     * Bounds of a single range spec ("0-499", "500-", "-500")
+     *
+     * @return inclusive [start, end], {@link #UNSATISFIABLE_RANGE} if it starts past the
+     * end of the file, or null if malformed
+     */
+    private long[] parseByteRange(String spec, long size) {
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            if (first.isEmpty()) {
+                // Suffix range: the last N bytes
+                long length = parseDigits(last);
+                return length > 0 && size > 0
+                        ? new long[]{Math.max(0, size - length), size - 1}
+                        : UNSATISFIABLE_RANGE;
+            }
+            long start = parseDigits(first);
+            long requestedEnd = last.isEmpty() ? Long.MAX_VALUE : parseDigits(last);
+            if (requestedEnd < start) {
+                return null;
+            }
+            return start < size ? new long[]{start, Math.min(requestedEnd, size - 1)} : UNSATISFIABLE_RANGE;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long parseDigits(String value) {
+        if (value.isEmpty() || !value.chars().allMatch(c -> c >= '0' && c <= '9')) {
+            throw new NumberFormatException("Not a byte position: " + value);
+        }
+        return Long.parseLong(value);
+    }
+
+    private void rejectPackage(HttpServletResponse response, HttpStatus status, String error) {
+        response.setStatus(status.value());
+        response.setHeader("X-Error", error);
+    }
+
     /**
      * Extrait le chemin relatif après le pattern de mapping
      * Utilise HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE pour obtenir le bon chemin
@@ -304,6 +587,9 @@ public class FileController {
             case "doc" -> "application/msword";
             case "docx" -> "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
 
+            // Paquets applicatifs
+            case "apk" -> "application/vnd.android.package-archive";
+
             default -> "application/octet-stream";
         };
     }
@@ -0,0 +1,205 @@
+package com.tvboot.tivio.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Admission control for the endpoints every terminal calls when it boots (auth, channel
+ * lineup, translations, logos), registered in {@link WebConfig}.
+ * <p>
+ * After a power cut the whole fleet boots within seconds. At most {@code max-concurrent}
+ * requests run at once; the next ones wait in a short queue, and beyond its capacity or
+ * its timeout they get a 503 with a Retry-After. The retry delay is drawn at random over
+ * a window sized from the recent rejections and the observed throughput, so thousands of
+ * refused terminals come back spread over the time the server needs to serve them,
+ * rather than together.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BootAdmissionFilter extends OncePerRequestFilter {
+
+    // Sliding window over which rejections and throughput are measured
+    private static final int WINDOW_SECONDS = 10;
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.admission.max-concurrent:64}")
+    private int maxConcurrent;
+
+    @Value("${app.admission.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${app.admission.queue-timeout-ms:2000}")
+    private long queueTimeoutMs;
+
+    @Value("${app.admission.retry-after-min-seconds:1}")
+    private int retryAfterMinSeconds;
+
+    @Value("${app.admission.retry-after-max-seconds:30}")
+    private int retryAfterMaxSeconds;
+
+    private Semaphore permits;
+    private final AtomicInteger queued = new AtomicInteger();
+    private final WindowCounter completions = new WindowCounter();
+    private final WindowCounter rejections = new WindowCounter();
+
+    private Counter queueFullCounter;
+    private Counter timeoutCounter;
+    private Timer queueWaitTimer;
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(Math.max(1, maxConcurrent), true);
+        Gauge.builder("tvboot.admission.queue.depth", queued, AtomicInteger::get)
+                .description("Boot requests waiting for a slot")
+                .register(meterRegistry);
+        Gauge.builder("tvboot.admission.in.flight", this, filter -> maxConcurrent - filter.permits.availablePermits())
+                .description("Boot requests being served")
+                .register(meterRegistry);
+        queueFullCounter = Counter.builder("tvboot.admission.rejected.total")
+                .tag("reason", "queue_full")
+                .description("Boot requests refused with 503")
+                .register(meterRegistry);
+        timeoutCounter = Counter.builder("tvboot.admission.rejected.total")
+                .tag("reason", "timeout")
+                .description("Boot requests refused with 503")
+                .register(meterRegistry);
+        queueWaitTimer = Timer.builder("tvboot.admission.queue.wait")
+                .description("Time spent by admitted boot requests in the queue")
+                .register(meterRegistry);
+        log.info("Boot admission control {}: {} concurrent requests, queue of {} for {} ms",
+                enabled ? "enabled" : "disabled", maxConcurrent, queueCapacity, queueTimeoutMs);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!enabled) {
+            return true;
+        }
+        // Terminal authentication and refresh are POSTs
+        String path = request.getServletPath();
+        if (path.startsWith("/auth/terminal/")) {
+            return "OPTIONS".equals(request.getMethod());
+        }
+        // Elsewhere TVs only read at boot: admin writes, uploads and the audience
+        // dashboards under the same paths must not hold boot permits
+        return !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))
+                || path.startsWith("/tvchannels/audience");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        // The barging tryAcquire() would overtake the queue, so only when nobody waits
+        if (queued.get() > 0 || !permits.tryAcquire()) {
+            if (queued.incrementAndGet() > queueCapacity) {
+                queued.decrementAndGet();
+                queueFullCounter.increment();
+                reject(response);
+                return;
+            }
+            long waitStart = System.nanoTime();
+            boolean admitted;
+            try {
+                admitted = permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                admitted = false;
+            } finally {
+                queued.decrementAndGet();
+            }
+            if (!admitted) {
+                timeoutCounter.increment();
+                reject(response);
+                return;
+            }
+            queueWaitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            permits.release();
+            completions.increment();
+        }
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        rejections.increment();
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds()));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                TvBootHttpResponse.error(HttpStatus.SERVICE_UNAVAILABLE, "Server busy, retry later").build());
+    }
+
+    /**
+     * Uniform over [min, min + window], the window being the time needed to serve the
+     * terminals refused recently at the current throughput
+     */
+    private long retryAfterSeconds() {
+        double throughput = Math.max(1.0, completions.sum() / (double) WINDOW_SECONDS);
+        long window = (long) Math.ceil(rejections.sum() / throughput);
+        long spread = Math.min(Math.max(window, 1), Math.max(retryAfterMaxSeconds - retryAfterMinSeconds, 0));
+        return retryAfterMinSeconds + ThreadLocalRandom.current().nextLong(spread + 1);
+    }
+
+    /**
+     * Events over the last {@link #WINDOW_SECONDS} seconds, one slot per second
+     */
+    private static final class WindowCounter {
+        private final AtomicLongArray counts = new AtomicLongArray(WINDOW_SECONDS);
+        private final AtomicLongArray seconds = new AtomicLongArray(WINDOW_SECONDS);
+
+        void increment() {
+            long now = System.currentTimeMillis() / 1000;
+            int slot = (int) (now % WINDOW_SECONDS);
+            long stamp = seconds.get(slot);
+            // First event of a new second recycles the slot; a lost race only miscounts one event
+            if (stamp != now && seconds.compareAndSet(slot, stamp, now)) {
+                counts.set(slot, 0);
+            }
+            counts.incrementAndGet(slot);
+        }
+
+        long sum() {
+            long now = System.currentTimeMillis() / 1000;
+            long total = 0;
+            for (int slot = 0; slot < WINDOW_SECONDS; slot++) {
+                if (now - seconds.get(slot) < WINDOW_SECONDS) {
+                    total += counts.get(slot);
+                }
+            }
+            return total;
+        }
+    }
+}
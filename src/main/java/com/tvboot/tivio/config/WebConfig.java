@@ -1,7 +1,11 @@
 package com.tvboot.tivio.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
@@ -11,10 +15,25 @@ public class WebConfig implements WebMvcConfigurer {
 
     private final LoggingInterceptor loggingInterceptor;
 
+    @Value("${app.admission.url-patterns:/auth/terminal/*,/tvchannels/*,/translations/*,/files/image/*}")
+    private String[] admissionUrlPatterns;
+
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(loggingInterceptor)
                 .addPathPatterns("/api/v1/**")
                 .excludePathPatterns("/api/v1/public/**", "/swagger-ui/**", "/v3/api-docs/**");
     }
-}
\ No newline at end of file
+
+    /**
+     * Boot endpoints only, and ahead of the security chain so that a refused request
+     * costs no token parsing
+     */
+    @Bean
+    public FilterRegistrationBean<BootAdmissionFilter> bootAdmissionFilterRegistration(BootAdmissionFilter filter) {
+        FilterRegistrationBean<BootAdmissionFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(admissionUrlPatterns);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,44 @@
+package com.tvboot.tivio.config;
+
+import com.tvboot.tivio.media.epg.EpgNowNextWebSocketHandler;
+import com.tvboot.tivio.terminal.presence.TerminalHandshakeInterceptor;
+import com.tvboot.tivio.terminal.presence.TerminalPresenceWebSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final EpgNowNextWebSocketHandler epgNowNextWebSocketHandler;
+    private final TerminalPresenceWebSocketHandler terminalPresenceWebSocketHandler;
+    private final TerminalHandshakeInterceptor terminalHandshakeInterceptor;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(epgNowNextWebSocketHandler, "/ws/epg")
+                .setAllowedOriginPatterns("*");
+        registry.addHandler(terminalPresenceWebSocketHandler, "/ws/terminals")
+                .addInterceptors(terminalHandshakeInterceptor)
+                .setAllowedOriginPatterns("*");
+    }
+
+    /**
+     * Terminals only exchange small JSON messages: small per-connection buffers let one
+     * node keep thousands of idle sockets open
+     */
+    @Bean
+    public ServletServerContainerFactoryBean createWebSocketContainer() {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxTextMessageBufferSize(8 * 1024);
+        container.setMaxBinaryMessageBufferSize(1024);
+        container.setMaxSessionIdleTimeout(180000L); // > keepalive interval
+        return container;
+    }
+}
@@ -1,5 +1,7 @@
 package com.tvboot.tivio.config.security;
 
+import com.tvboot.tivio.common.enumeration.Role;
+import com.tvboot.tivio.terminal.auth.JwtTokenProvider;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +9,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -25,6 +28,7 @@ import java.util.List;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtils jwtUtils;
+    private final JwtTokenProvider jwtTokenProvider;
     private final UserDetailsService userDetailsService;
 
     // Define public endpoints that should skip JWT processing
@@ -70,7 +74,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             if (jwt != null) {
                 log.debug("JWT token found in request to: {}", path);
 
-                if (jwtUtils.validateJwtToken(jwt)) {
+                Long terminalId = jwtTokenProvider.resolveTerminalId(jwt);
+                if (terminalId != null) {
+                    // Terminal access token: no user account behind it, only the TERMINAL role
+                    UsernamePasswordAuthenticationToken authentication =
+                            new UsernamePasswordAuthenticationToken(
+                                    "terminal:" + terminalId,
+                                    null,
+                                    List.of(new SimpleGrantedAuthority("ROLE_" + Role.TERMINAL.name())));
+                    authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                    SecurityContextHolder.getContext().setAuthentication(authentication);
+                    log.debug("Authentication set for terminal {} accessing: {}", terminalId, path);
+                } else if (jwtUtils.validateJwtToken(jwt)) {
                     String username = jwtUtils.getUserNameFromJwtToken(jwt);
                     log.debug("Valid JWT found for user: {} accessing: {}", username, path);
 
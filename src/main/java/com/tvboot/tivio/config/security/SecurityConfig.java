@@ -71,6 +71,8 @@ public class SecurityConfig {
             "/api/v1/hotel/**",
             "/api/v1/languages/**",
             "/api/v1/translations/**",
+            // WebSocket handshakes (push channels for TVs)
+            "/api/v1/ws/**",
 
     };
 
@@ -210,7 +212,8 @@ public class SecurityConfig {
                             // Terminal-specific endpoints
                             .requestMatchers("/api/v1/terminal/**").hasRole("TERMINAL")
                             .requestMatchers("/api/v1/stream/**").hasRole("TERMINAL")
-                            .requestMatchers("/api/v1/epg/**").hasRole("TERMINAL")
+                            // Matched inside the /api/v1 context path, unlike the rules above
+                            .requestMatchers("/epg/**").hasRole(Role.TERMINAL.name())
 
                             // Channel management - Manager and above can create/modify, others can view
                             .requestMatchers("GET", "/api/v1/tvchannels/**").hasAnyRole("ADMIN", "MANAGER", "TECHNICIAN", "RECEPTIONIST")
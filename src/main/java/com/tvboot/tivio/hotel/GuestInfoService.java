@@ -0,0 +1,290 @@
+package com.tvboot.tivio.hotel;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tvboot.tivio.common.enumeration.WifiSecurityProtocol;
+import com.tvboot.tivio.hotel.dto.GuestConfigDto;
+import com.tvboot.tivio.hotel.dto.GuestInfoDto;
+import com.tvboot.tivio.hotel.dto.WifiConfigDto;
+import com.tvboot.tivio.language.Language;
+import com.tvboot.tivio.language.LanguageRepository;
+import com.tvboot.tivio.room.Room;
+import com.tvboot.tivio.room.RoomChangedEvent;
+import com.tvboot.tivio.room.RoomGuest;
+import com.tvboot.tivio.room.RoomRepository;
+import com.tvboot.tivio.terminal.TerminalChangedEvent;
+import com.tvboot.tivio.terminal.TerminalRegistry;
+import com.tvboot.tivio.terminal.TerminalRegistryRow;
+import com.tvboot.tivio.terminal.TerminalRepository;
+import com.tvboot.tivio.terminal.TerminalView;
+import com.tvboot.tivio.wifi.AccessPoint;
+import com.tvboot.tivio.wifi.AccessPointChangedEvent;
+import com.tvboot.tivio.wifi.AccessPointRepository;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.DigestUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Guest-info payload of every room (guest, guest language, Wi-Fi credentials and QR
+ * code), served to the TVs when they wake up.
+ * <p>
+ * Payloads are built ahead of time and kept serialized, so a request is a map lookup.
+ * A room's entry is rebuilt after check-in, check-out and room edits, after a change to
+ * an access point, and after a terminal change (a TV and its access point moving
+ * rooms). A periodic full rebuild picks up everything else (language edits, rows
+ * written outside the application).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class GuestInfoService {
+
+    private final RoomRepository roomRepository;
+    private final AccessPointRepository accessPointRepository;
+    private final LanguageRepository languageRepository;
+    private final TerminalRegistry terminalRegistry;
+    private final TerminalRepository terminalRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.base-url}")
+    private String baseUrl;
+
+    // room number -> payload
+    private final Map<String, CachedGuestInfo> byRoomNumber = new ConcurrentHashMap<>();
+    private final Map<Long, String> roomNumberById = new ConcurrentHashMap<>();
+    // room id -> System.nanoTime() of its last targeted refresh, newer than any full rebuild started before
+    private final Map<Long, Long> refreshedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Serialized payload with its ETag
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class CachedGuestInfo {
+        private final Long roomId;
+        private final Long accessPointTerminalId;   // terminal whose access point is used, null if none
+        private final byte[] body;
+        private final String etag;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.hotel.guest-info.refresh-interval-ms:600000}",
+            initialDelayString = "${app.hotel.guest-info.refresh-interval-ms:600000}")
+    public void rebuildAll() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Rooms are then built on their first request
+            log.error("Unable to precompute guest info: {}", e.getMessage());
+        }
+    }
+
+    private void rebuild() {
+        long started = System.nanoTime();
+        List<Room> rooms = roomRepository.findAll();
+        Map<String, Language> languages = languagesByCode();
+        Map<Long, AccessPoint> accessPoints = new HashMap<>();
+        for (AccessPoint accessPoint : accessPointRepository.findUsableInRooms()) {
+            terminalRegistry.findById(accessPoint.getTerminal().getId())
+                    .map(TerminalView::getRoomId)
+                    .ifPresent(roomId -> accessPoints.putIfAbsent(roomId, accessPoint));
+        }
+
+        Set<String> numbers = new HashSet<>();
+        for (Room room : rooms) {
+            // A room refreshed since the snapshot was read already holds newer data
+            if (refreshedSince(room.getId(), started)) {
+                continue;
+            }
+            CachedGuestInfo info = build(room, languages, accessPoints.get(room.getId()));
+            byRoomNumber.put(room.getRoomNumber(), info);
+            roomNumberById.put(room.getId(), room.getRoomNumber());
+            numbers.add(room.getRoomNumber());
+        }
+        roomNumberById.forEach((roomId, number) -> {
+            if (refreshedSince(roomId, started)) {
+                numbers.add(number);
+            }
+        });
+        byRoomNumber.keySet().retainAll(numbers);
+        roomNumberById.values().retainAll(numbers);
+        log.info("Guest info precomputed for {} rooms", rooms.size());
+    }
+
+    private boolean refreshedSince(Long roomId, long nanoTime) {
+        Long refreshed = refreshedAt.get(roomId);
+        return refreshed != null && refreshed - nanoTime >= 0;
+    }
+
+    /**
+     * Payload of a room, built on the spot for a room created since the last rebuild
+     */
+    public Optional<CachedGuestInfo> getGuestInfo(String roomNumber) {
+        CachedGuestInfo cached = byRoomNumber.get(roomNumber);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return roomRepository.findByRoomNumber(roomNumber).map(room -> {
+            CachedGuestInfo info = buildRoom(room);
+            roomNumberById.put(room.getId(), room.getRoomNumber());
+            // An invalidation that raced with this build has already stored a fresher entry
+            CachedGuestInfo existing = byRoomNumber.putIfAbsent(room.getRoomNumber(), info);
+            return existing != null ? existing : info;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoomChanged(RoomChangedEvent event) {
+        refreshRoom(event.getRoomId(), event.isDeleted());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAccessPointChanged(AccessPointChangedEvent event) {
+        refreshTerminalRooms(event.getTerminalId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalChanged(TerminalChangedEvent event) {
+        refreshTerminalRooms(event.getTerminalId());
+    }
+
+    /**
+     * Rooms of a terminal: the one it is in now, and any whose payload uses its access point.
+     * The current room is read from the database: the registry refreshes on the same event
+     * and may not have seen the move yet.
+     */
+    private void refreshTerminalRooms(Long terminalId) {
+        Set<Long> roomIds = byRoomNumber.values().stream()
+                .filter(info -> terminalId.equals(info.getAccessPointTerminalId()))
+                .map(CachedGuestInfo::getRoomId)
+                .collect(Collectors.toCollection(HashSet::new));
+        terminalRepository.findRegistryRow(terminalId)
+                .map(TerminalRegistryRow::getRoomId)
+                .ifPresent(roomIds::add);
+        roomIds.forEach(roomId -> refreshRoom(roomId, false));
+    }
+
+    private void refreshRoom(Long roomId, boolean deleted) {
+        refreshedAt.put(roomId, System.nanoTime());
+        String previousNumber = roomNumberById.remove(roomId);
+        if (previousNumber != null) {
+            byRoomNumber.remove(previousNumber);
+        }
+        if (deleted) {
+            return;
+        }
+        try {
+            roomRepository.findById(roomId).ifPresent(room -> {
+                byRoomNumber.put(room.getRoomNumber(), buildRoom(room));
+                roomNumberById.put(room.getId(), room.getRoomNumber());
+            });
+        } catch (Exception e) {
+            // Left out of the cache: the next request builds it
+            log.error("Unable to rebuild guest info of room {}: {}", roomId, e.getMessage());
+        }
+    }
+
+    private CachedGuestInfo buildRoom(Room room) {
+        RoomGuest guest = room.getCurrentGuest();
+        Map<String, Language> languages = guest != null && guest.getLanguageCode() != null
+                ? languageRepository.findByIso6391(guest.getLanguageCode().toLowerCase(Locale.ROOT))
+                .map(language -> Map.of(language.getIso6391().toLowerCase(Locale.ROOT), language))
+                .orElse(Map.of())
+                : Map.of();
+        AccessPoint accessPoint = accessPointRepository.findUsableByRoomId(room.getId()).stream()
+                .findFirst()
+                .orElse(null);
+        return build(room, languages, accessPoint);
+    }
+
+    private CachedGuestInfo build(Room room, Map<String, Language> languages, AccessPoint accessPoint) {
+        GuestInfoDto payload = GuestInfoDto.builder()
+                .guestConfig(toGuestConfig(room, languages))
+                .wifiConfig(accessPoint != null ? toWifiConfig(accessPoint) : null)
+                .build();
+        try {
+            // The ETag covers the content only, so a rebuild that changes nothing keeps it
+            String etag = "\"" + DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(payload)) + "\"";
+            payload.setGeneratedAt(LocalDateTime.now());
+            byte[] body = objectMapper.writeValueAsBytes(payload);
+            return new CachedGuestInfo(room.getId(),
+                    accessPoint != null ? accessPoint.getTerminal().getId() : null,
+                    body,
+                    etag);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize guest info of room " + room.getRoomNumber(), e);
+        }
+    }
+
+    private GuestConfigDto toGuestConfig(Room room, Map<String, Language> languages) {
+        GuestConfigDto.GuestConfigDtoBuilder config = GuestConfigDto.builder()
+                .roomNumber(room.getRoomNumber())
+                .occupied(Boolean.TRUE.equals(room.getOccupied()));
+
+        RoomGuest guest = room.getCurrentGuest();
+        if (guest == null) {
+            return config.build();
+        }
+        config.name(Stream.of(guest.getTitle(), guest.getFirstName(), guest.getLastName())
+                        .filter(part -> part != null && !part.isBlank())
+                        .collect(Collectors.joining(" ")))
+                .title(guest.getTitle())
+                .firstName(guest.getFirstName())
+                .lastName(guest.getLastName())
+                .type(guest.getType())
+                .languageCode(guest.getLanguageCode());
+
+        Language language = guest.getLanguageCode() != null
+                ? languages.get(guest.getLanguageCode().toLowerCase(Locale.ROOT))
+                : null;
+        if (language != null) {
+            config.languageName(language.getName())
+                    .nativeLanguageName(language.getNativeName())
+                    .localeCode(language.getLocaleCode())
+                    .rtl(language.getIsRtl());
+        }
+        return config.build();
+    }
+
+    private WifiConfigDto toWifiConfig(AccessPoint accessPoint) {
+        boolean open = accessPoint.getSecurityProtocol() == WifiSecurityProtocol.OPEN;
+        return WifiConfigDto.builder()
+                .ssid(accessPoint.getSsid())
+                .password(open ? null : accessPoint.getPassword())
+                .encryption(open ? "nopass" : "WPA")
+                .securityProtocol(accessPoint.getSecurityProtocol())
+                .qrPayload(accessPoint.getSecurityProtocol() != null ? accessPoint.toWifiQrString() : null)
+                .qrCodeUrl(baseUrl + "/wifi/" + accessPoint.getTerminal().getId() + "/qr-code")
+                .build();
+    }
+
+    private Map<String, Language> languagesByCode() {
+        Map<String, Language> languages = new HashMap<>();
+        for (Language language : languageRepository.findAll()) {
+            if (language.getIso6391() != null) {
+                languages.put(language.getIso6391().toLowerCase(Locale.ROOT), language);
+            }
+        }
+        return languages;
+    }
+}
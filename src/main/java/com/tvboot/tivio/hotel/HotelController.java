@@ -1,32 +1,104 @@
 package com.tvboot.tivio.hotel;
 
-
-
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import com.tvboot.tivio.common.enumeration.Role;
+import com.tvboot.tivio.terminal.TerminalRegistry;
+import com.tvboot.tivio.terminal.TerminalView;
+import com.tvboot.tivio.terminal.auth.JwtTokenProvider;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/hotel")
+@RequiredArgsConstructor
+@Slf4j
 public class HotelController {
 
+    private static final Set<String> STAFF_AUTHORITIES = Set.of(
+            "ROLE_" + Role.ADMIN.name(), "ROLE_" + Role.MANAGER.name(), "ROLE_" + Role.RECEPTIONIST.name());
+
+    private final GuestInfoService guestInfoService;
+    private final TerminalRegistry terminalRegistry;
+    private final JwtTokenProvider tokenProvider;
+
+    /**
+     * Guest and Wi-Fi configuration of a room, fetched by the TV when it wakes up.
+     * The payload is precomputed: the response is the cached bytes, or a 304 when the
+     * TV already holds the current version.
+     * <p>
+     * A TV gets the room it is installed in, resolved from its token. Any other room is
+     * reserved to reception staff, who must name it with {@code room}.
+     */
     @GetMapping("/guest-info")
-    public Map<String, Object> getGuestInfo(@RequestParam String room) {
-        // 🔹 In a real app, fetch from DB instead of hardcoding
-        Map<String, Object> guestConfig = new HashMap<>();
-        guestConfig.put("name", "Moussa kheyar " + room);
-        guestConfig.put("roomNumber", room);
-
-        Map<String, Object> wifiConfig = new HashMap<>();
-        wifiConfig.put("ssid", "Samsung_Hospitality_Guest");
-        wifiConfig.put("password", "Welcome" + room); // Example: unique password per room
-        wifiConfig.put("encryption", "WPA");
-
-        Map<String, Object> response = new HashMap<>();
-        response.put("guestConfig", guestConfig);
-        response.put("wifiConfig", wifiConfig);
-
-        return response;
+    public ResponseEntity<?> getGuestInfo(@RequestParam(required = false) String room,
+                                          HttpServletRequest request,
+                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Long terminalId = tokenProvider.resolveTerminalId(request);
+
+        String roomNumber;
+        if (terminalId != null) {
+            roomNumber = terminalRegistry.findById(terminalId)
+                    .map(TerminalView::getRoomNumber)
+                    .orElse(null);
+            if (roomNumber == null) {
+                return TvBootHttpResponse.notFoundResponse("Terminal is not assigned to a room");
+            }
+            if (room != null && !room.equals(roomNumber)) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                        .body(TvBootHttpResponse.forbidden("Terminal may only read its own room").build());
+            }
+        } else if (isStaff()) {
+            if (room == null || room.isBlank()) {
+                return TvBootHttpResponse.badRequestResponse("Room number is required");
+            }
+            roomNumber = room;
+        } else {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(TvBootHttpResponse.unauthorized("Terminal token required").build());
+        }
+
+        try {
+            Optional<GuestInfoService.CachedGuestInfo> info = guestInfoService.getGuestInfo(roomNumber);
+            if (info.isEmpty()) {
+                return TvBootHttpResponse.notFoundResponse("Room not found: " + roomNumber);
+            }
+
+            GuestInfoService.CachedGuestInfo cached = info.get();
+            if (cached.getEtag().equals(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(cached.getEtag()).build();
+            }
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .eTag(cached.getEtag())
+                    .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                    .body(cached.getBody());
+        } catch (Exception e) {
+            log.error("Error retrieving guest info of room {}", roomNumber, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve guest info",
+                    e.getMessage()
+            );
+        }
+    }
+
+    private boolean isStaff() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.isAuthenticated()
+                && authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .anyMatch(STAFF_AUTHORITIES::contains);
     }
 }
@@ -0,0 +1,26 @@
+package com.tvboot.tivio.hotel.dto;
+
+import com.tvboot.tivio.common.enumeration.GuestType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestConfigDto {
+    private String roomNumber;
+    private Boolean occupied;
+    private String name;            // welcome name: title, first and last name
+    private String title;
+    private String firstName;
+    private String lastName;
+    private GuestType type;
+    private String languageCode;
+    private String languageName;
+    private String nativeLanguageName;
+    private String localeCode;
+    private Boolean rtl;
+}
@@ -0,0 +1,18 @@
+package com.tvboot.tivio.hotel.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class GuestInfoDto {
+    private GuestConfigDto guestConfig;
+    private WifiConfigDto wifiConfig;     // null when the room has no usable access point
+    private LocalDateTime generatedAt;
+}
@@ -0,0 +1,20 @@
+package com.tvboot.tivio.hotel.dto;
+
+import com.tvboot.tivio.common.enumeration.WifiSecurityProtocol;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WifiConfigDto {
+    private String ssid;
+    private String password;
+    private String encryption;      // WPA or nopass, as in the WIFI: QR payload
+    private WifiSecurityProtocol securityProtocol;
+    private String qrPayload;       // WIFI:T:...;S:...;P:...;; for rendering on the TV
+    private String qrCodeUrl;
+}
@@ -0,0 +1,168 @@
+package com.tvboot.tivio.media.epg;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tvboot.tivio.media.epg.dto.EpgProgrammeDto;
+import com.tvboot.tivio.media.epg.dto.NowNextDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the programme boundaries of the next hours in a {@link ProgrammeBoundaryWheel}
+ * and pushes a NOW_NEXT event on the EPG socket whenever a channel changes programme,
+ * so terminals no longer poll for their "now playing" banner.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EpgBoundaryService {
+
+    private static final long TICK_MS = 1000;
+    private static final int WHEEL_SIZE = 512;          // ~8.5 min per rotation
+    private static final long HORIZON_HOURS = 6;        // boundaries kept in memory
+    private static final long REFILL_INTERVAL_MS = 900000; // 15 minutes
+
+    private final EpgEntryRepository epgEntryRepository;
+    private final EpgNowNextWebSocketHandler socketHandler;
+    private final ObjectMapper objectMapper;
+
+    private final ProgrammeBoundaryWheel wheel =
+            new ProgrammeBoundaryWheel(TICK_MS, WHEEL_SIZE, System.currentTimeMillis());
+
+    // channelId -> programmes of the horizon keyed by start time
+    private volatile Map<Long, NavigableMap<LocalDateTime, EpgProgrammeDto>> schedules = Map.of();
+
+    // Last state pushed per channel, to only emit real changes
+    private final Map<Long, NowNextDto> lastPublished = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refill();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEpgChanged(EpgChangedEvent event) {
+        log.debug("EPG changed for channels {}, refilling boundary wheel", event.getChannelIds());
+        refill();
+    }
+
+    /**
+     * Reload the programmes of the horizon and schedule their boundaries
+     */
+    @Scheduled(fixedRate = REFILL_INTERVAL_MS, initialDelay = REFILL_INTERVAL_MS)
+    @Transactional(readOnly = true)
+    public void refill() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime horizon = now.plusHours(HORIZON_HOURS);
+
+        Map<Long, NavigableMap<LocalDateTime, EpgProgrammeDto>> loaded = new HashMap<>();
+        for (EpgEntry entry : epgEntryRepository.findAiringBetween(now, horizon)) {
+            EpgProgrammeDto programme = toProgramme(entry);
+            loaded.computeIfAbsent(programme.getChannelId(), id -> new TreeMap<>())
+                    .put(programme.getStartTime(), programme);
+        }
+        schedules = loaded;
+
+        int added = 0;
+        synchronized (wheel) {
+            for (NavigableMap<LocalDateTime, EpgProgrammeDto> schedule : loaded.values()) {
+                for (EpgProgrammeDto programme : schedule.values()) {
+                    if (wheel.schedule(programme.getChannelId(), toMillis(programme.getStartTime()))) added++;
+                    if (wheel.schedule(programme.getChannelId(), toMillis(programme.getEndTime()))) added++;
+                }
+            }
+        }
+        log.debug("Boundary wheel refilled: {} channels, {} new boundaries, {} pending",
+                loaded.size(), added, wheel.size());
+
+        // A changed guide may alter what is on air right now
+        loaded.keySet().forEach(this::publishIfChanged);
+    }
+
+    @Scheduled(fixedRate = TICK_MS)
+    public void tick() {
+        Set<Long> due;
+        synchronized (wheel) {
+            due = wheel.advance(System.currentTimeMillis());
+        }
+        due.forEach(this::publishIfChanged);
+    }
+
+    /**
+     * Current and next programme for every channel of the horizon, for terminals
+     * that just connected and need an initial state
+     */
+    public List<NowNextDto> getNowNext() {
+        LocalDateTime now = LocalDateTime.now();
+        List<NowNextDto> result = new ArrayList<>();
+        schedules.forEach((channelId, schedule) -> result.add(computeNowNext(channelId, schedule, now)));
+        return result;
+    }
+
+    private void publishIfChanged(Long channelId) {
+        NowNextDto nowNext = computeNowNext(channelId,
+                schedules.getOrDefault(channelId, new TreeMap<>()), LocalDateTime.now());
+
+        NowNextDto previous = lastPublished.put(channelId, nowNext);
+        if (previous != null && Objects.equals(previous, nowNext)) {
+            return;
+        }
+
+        try {
+            socketHandler.broadcast(objectMapper.writeValueAsString(nowNext));
+        } catch (JsonProcessingException e) {
+            log.error("Unable to serialize now/next for channel {}: {}", channelId, e.getMessage());
+        }
+    }
+
+    private NowNextDto computeNowNext(Long channelId, NavigableMap<LocalDateTime, EpgProgrammeDto> schedule,
+                                      LocalDateTime now) {
+        EpgProgrammeDto current = null;
+        Entry<LocalDateTime, EpgProgrammeDto> floor = schedule.floorEntry(now);
+        if (floor != null && floor.getValue().getEndTime().isAfter(now)) {
+            current = floor.getValue();
+        }
+        Entry<LocalDateTime, EpgProgrammeDto> next = schedule.higherEntry(now);
+
+        return NowNextDto.builder()
+                .type("NOW_NEXT")
+                .channelId(channelId)
+                .now(current)
+                .next(next != null ? next.getValue() : null)
+                .build();
+    }
+
+    private EpgProgrammeDto toProgramme(EpgEntry entry) {
+        return EpgProgrammeDto.builder()
+                .id(entry.getId())
+                .channelId(entry.getChannel().getId())
+                .title(entry.getTitle())
+                .genre(entry.getGenre())
+                .startTime(entry.getStartTime())
+                .endTime(entry.getEndTime())
+                .build();
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,31 @@
+package com.tvboot.tivio.media.epg;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Published after EPG rows have been written so that in-memory views of the guide
+ * (boundary wheel, pre-rendered files...) can refresh themselves.
+ */
+@Getter
+@AllArgsConstructor
+public class EpgChangedEvent {
+
+    /**
+     * Channels whose programme data changed
+     */
+    private final Set<Long> channelIds;
+
+    /**
+     * Time range affected by the change, null when unknown (whole guide)
+     */
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public EpgChangedEvent(Set<Long> channelIds) {
+        this(channelIds, null, null);
+    }
+}
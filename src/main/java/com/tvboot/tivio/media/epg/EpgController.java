@@ -0,0 +1,128 @@
+package com.tvboot.tivio.media.epg;
+
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import com.tvboot.tivio.media.epg.dto.EpgSearchResultDto;
+import com.tvboot.tivio.media.epg.dto.NowNextDto;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/epg")
+@CrossOrigin(origins = "*")
+@RequiredArgsConstructor
+@Validated
+@Tag(name = "📅 EPG", description = "Guide des programmes pour les terminaux")
+public class EpgController {
+
+    private final EpgBoundaryService boundaryService;
+    private final EpgSearchService searchService;
+    private final XmltvExportService xmltvExportService;
+
+    @GetMapping("/now-next")
+    @Operation(summary = "Programme en cours et suivant",
+            description = "État initial des bandeaux \"now playing\" ; les changements sont ensuite poussés sur /ws/epg")
+    public ResponseEntity<TvBootHttpResponse> getNowNext() {
+        List<NowNextDto> nowNext = boundaryService.getNowNext();
+
+        TvBootHttpResponse response = TvBootHttpResponse.success()
+                .message("Now/next retrieved successfully")
+                .build()
+                .addData("nowNext", nowNext)
+                .addCount(nowNext.size());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/search")
+    @Operation(summary = "Rechercher dans le guide",
+            description = "Recherche plein texte (titre, genre, description) sur les diffusions à venir, groupées par chaîne")
+    public ResponseEntity<TvBootHttpResponse> search(
+            @RequestParam("q") @NotBlank String query,
+            @RequestParam(defaultValue = "100") @Min(1) @Max(500) int limit) {
+
+        log.info("EPG search: '{}'", query);
+
+        try {
+            List<EpgSearchResultDto> results = searchService.search(query, limit);
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("EPG search completed")
+                    .build()
+                    .addData("results", results)
+                    .addCount(results.size());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error searching EPG for '{}'", query, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "EPG search failed",
+                    e.getMessage()
+            );
+        }
+    }
+
+    @GetMapping("/xmltv")
+    @Operation(summary = "Export XMLTV",
+            description = "Guide complet au format XMLTV, compressé si le client accepte gzip ou si gzip=true")
+    public ResponseEntity<StreamingResponseBody> exportXmltv(
+            @RequestParam(defaultValue = "7") @Min(1) @Max(31) int days,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        int coveredDays = xmltvExportService.clampDays(days);
+        String etag = xmltvExportService.getETag(coveredDays);
+        CacheControl cacheControl = CacheControl.noCache().cachePublic();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+
+        // gzip=true: a .xml.gz download; Accept-Encoding: transparent transfer compression
+        boolean transferGzip = !gzip && acceptEncoding != null && acceptEncoding.contains("gzip");
+        boolean compressed = gzip || transferGzip;
+
+        StreamingResponseBody body = out -> {
+            try {
+                xmltvExportService.export(out, coveredDays, compressed);
+            } catch (Exception e) {
+                log.error("XMLTV export failed: {}", e.getMessage());
+                throw new IllegalStateException("XMLTV export failed", e);
+            }
+        };
+
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(cacheControl)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.contentType(MediaType.parseMediaType("application/gzip"))
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"xmltv.xml.gz\"");
+        } else {
+            builder.contentType(MediaType.APPLICATION_XML);
+            if (transferGzip) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+        }
+        return builder.body(body);
+    }
+}
@@ -1,11 +1,18 @@
 package com.tvboot.tivio.media.epg;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.QueryHint;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface EpgEntryRepository extends JpaRepository<EpgEntry, Long> {
@@ -16,4 +23,43 @@ public interface EpgEntryRepository extends JpaRepository<EpgEntry, Long> {
 
     @Query("SELECT e FROM EpgEntry e WHERE e.channel.id = :channelId AND e.startTime >= :startTime AND e.endTime <= :endTime ORDER BY e.startTime")
     List<EpgEntry> findByChannelAndTimeRange(@Param("channelId") Long channelId, @Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
-}
\ No newline at end of file
+
+    // Every programme on air at some point of [from, to[, all channels
+    @Query("SELECT e FROM EpgEntry e WHERE e.endTime > :from AND e.startTime < :to ORDER BY e.startTime")
+    List<EpgEntry> findAiringBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Forward-only cursor for exports: must be consumed inside a read-only transaction and closed
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT e FROM EpgEntry e WHERE e.endTime > :from AND e.startTime < :to ORDER BY e.channel.id, e.startTime")
+    Stream<EpgEntry> streamAiringBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Query("SELECT e FROM EpgEntry e WHERE e.channel.id = :channelId AND e.endTime > :from AND e.startTime < :to ORDER BY e.startTime")
+    List<EpgEntry> findChannelAiringBetween(@Param("channelId") Long channelId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Full-text search (GIN index on search_vector, see V7 migration).
+     * The tsquery must already be sanitized, see EpgSearchService#toTsQuery.
+     */
+    @Query(value = """
+            SELECT e.id AS "id", e.channel_id AS "channelId", c.name AS "channelName",
+                   c.channel_number AS "channelNumber", e.title AS "title", e.genre AS "genre",
+                   e.start_time AS "startTime", e.end_time AS "endTime"
+            FROM epg_entries e
+            JOIN tv_channels c ON c.id = e.channel_id
+            WHERE e.search_vector @@ to_tsquery('simple', :query)
+              AND e.end_time > :from
+              AND e.start_time < :to
+              AND c.is_active = true
+            ORDER BY ts_rank(e.search_vector, to_tsquery('simple', :query)) DESC, e.start_time
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<EpgSearchHit> search(@Param("query") String query, @Param("from") LocalDateTime from,
+                              @Param("to") LocalDateTime to, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM EpgEntry e WHERE e.channel.id = :channelId AND e.startTime >= :from AND e.startTime < :to")
+    int deleteByChannelAndStartBetween(@Param("channelId") Long channelId, @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,224 @@
+package com.tvboot.tivio.media.epg;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tvboot.tivio.media.epg.dto.EpgDayDto;
+import com.tvboot.tivio.media.epg.dto.EpgProgrammeDto;
+import com.tvboot.tivio.tvchannel.TvChannel;
+import com.tvboot.tivio.tvchannel.TvChannelRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-renders the guide as one gzip-compressed JSON file per channel per day:
+ * {@code <app.iptv.epg.directory>/<channelId>/<yyyy-MM-dd>.json.gz} plus a
+ * {@code .etag} sidecar holding the content hash. The files are served as-is by
+ * {@link com.tvboot.tivio.common.util.FileController}, so browsing the guide on a
+ * TV costs no query and no serialization.
+ */
+@Slf4j
+@Service
+public class EpgFileRenderer {
+
+    public static final String FILE_SUFFIX = ".json.gz";
+    public static final String ETAG_SUFFIX = ".etag";
+
+    private final EpgEntryRepository epgEntryRepository;
+    private final TvChannelRepository channelRepository;
+    private final ObjectWriter writer;
+
+    @Value("${app.iptv.epg.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.iptv.epg.directory:uploads/document/epg}")
+    private String epgDirectory;
+
+    @Value("${app.iptv.epg.retention-days:7}")
+    private int retentionDays;
+
+    public EpgFileRenderer(EpgEntryRepository epgEntryRepository,
+                           TvChannelRepository channelRepository,
+                           ObjectMapper objectMapper) {
+        this.epgEntryRepository = epgEntryRepository;
+        this.channelRepository = channelRepository;
+        // Compact output whatever the global indent-output setting
+        this.writer = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        renderAll();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEpgChanged(EpgChangedEvent event) {
+        if (!enabled) {
+            return;
+        }
+        LocalDate firstDay = LocalDate.now();
+        LocalDate lastDay = firstDay.plusDays(retentionDays - 1L);
+        if (event.getFrom() != null && event.getFrom().toLocalDate().isAfter(firstDay)) {
+            firstDay = event.getFrom().toLocalDate();
+        }
+        if (event.getTo() != null && event.getTo().toLocalDate().isBefore(lastDay)) {
+            lastDay = event.getTo().toLocalDate();
+        }
+        for (Long channelId : event.getChannelIds()) {
+            renderChannel(channelId, firstDay, lastDay);
+        }
+    }
+
+    /**
+     * Nightly pass: render the day entering the retention window and drop past days
+     */
+    @Scheduled(cron = "0 5 0 * * *")
+    public void renderAll() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        LocalDate lastDay = today.plusDays(retentionDays - 1L);
+
+        int channels = 0;
+        for (TvChannel channel : channelRepository.findByActiveTrue()) {
+            renderChannel(channel.getId(), today, lastDay);
+            channels++;
+        }
+        purgeBefore(today.minusDays(1));
+        log.info("EPG files rendered for {} channels ({} to {})", channels, today, lastDay);
+    }
+
+    /**
+     * Render every day of [firstDay, lastDay] for a channel; days whose content did not
+     * change keep their file (and ETag) untouched.
+     */
+    public void renderChannel(Long channelId, LocalDate firstDay, LocalDate lastDay) {
+        if (lastDay.isBefore(firstDay)) {
+            return;
+        }
+        List<EpgEntry> entries = epgEntryRepository.findChannelAiringBetween(
+                channelId, firstDay.atStartOfDay(), lastDay.plusDays(1).atStartOfDay());
+
+        for (LocalDate day = firstDay; !day.isAfter(lastDay); day = day.plusDays(1)) {
+            LocalDateTime dayStart = day.atStartOfDay();
+            LocalDateTime dayEnd = dayStart.plusDays(1);
+
+            List<EpgProgrammeDto> programmes = new ArrayList<>();
+            for (EpgEntry entry : entries) {
+                if (entry.getEndTime().isAfter(dayStart) && entry.getStartTime().isBefore(dayEnd)) {
+                    programmes.add(EpgProgrammeDto.builder()
+                            .id(entry.getId())
+                            .channelId(channelId)
+                            .title(entry.getTitle())
+                            .genre(entry.getGenre())
+                            .description(entry.getDescription())
+                            .startTime(entry.getStartTime())
+                            .endTime(entry.getEndTime())
+                            .build());
+                }
+            }
+
+            try {
+                writeDay(channelId, day, EpgDayDto.builder()
+                        .channelId(channelId)
+                        .date(day)
+                        .programmes(programmes)
+                        .build());
+            } catch (IOException e) {
+                log.error("Unable to write EPG file for channel {} on {}: {}", channelId, day, e.getMessage());
+            }
+        }
+    }
+
+    public Path resolveDayFile(Long channelId, LocalDate day) {
+        return Paths.get(epgDirectory).toAbsolutePath().normalize()
+                .resolve(String.valueOf(channelId))
+                .resolve(day + FILE_SUFFIX);
+    }
+
+    private void writeDay(Long channelId, LocalDate day, EpgDayDto content) throws IOException {
+        byte[] json = writer.writeValueAsBytes(content);
+        String etag = sha256(json);
+
+        Path file = resolveDayFile(channelId, day);
+        Path etagFile = file.resolveSibling(day + ETAG_SUFFIX);
+        if (Files.exists(file) && Files.exists(etagFile)
+                && etag.equals(Files.readString(etagFile, StandardCharsets.US_ASCII).trim())) {
+            return;
+        }
+
+        Files.createDirectories(file.getParent());
+
+        // GZIPOutputStream leaves the header mtime at 0, so identical content gives identical bytes
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (OutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(json);
+        }
+
+        // Write next to the target then rename, so a TV never reads a half-written file
+        Path tmp = Files.createTempFile(file.getParent(), day.toString(), ".tmp");
+        Files.write(tmp, compressed.toByteArray());
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.writeString(etagFile, etag, StandardCharsets.US_ASCII);
+
+        log.debug("EPG file written: {} ({} bytes, {} programmes)",
+                file, compressed.size(), content.getProgrammes().size());
+    }
+
+    private void purgeBefore(LocalDate firstKeptDay) {
+        Path root = Paths.get(epgDirectory).toAbsolutePath().normalize();
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(root, 2)) {
+            files.filter(Files::isRegularFile).forEach(path -> {
+                String name = path.getFileName().toString();
+                if (name.length() < 10) {
+                    return;
+                }
+                try {
+                    if (LocalDate.parse(name.substring(0, 10)).isBefore(firstKeptDay)) {
+                        Files.deleteIfExists(path);
+                    }
+                } catch (Exception e) {
+                    // not a day file
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Unable to purge old EPG files: {}", e.getMessage());
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
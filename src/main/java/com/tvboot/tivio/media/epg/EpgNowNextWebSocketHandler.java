@@ -0,0 +1,72 @@
+package com.tvboot.tivio.media.epg;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Push channel for "now playing" banners: terminals connect once and receive a
+ * NOW_NEXT message each time a programme boundary passes on a channel.
+ */
+@Slf4j
+@Component
+public class EpgNowNextWebSocketHandler extends TextWebSocketHandler {
+
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+    private static final int BUFFER_SIZE_LIMIT = 64 * 1024;
+
+    private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        // The decorator serializes concurrent sends and drops slow consumers instead of blocking the broadcaster
+        sessions.put(session.getId(),
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, BUFFER_SIZE_LIMIT));
+        log.debug("EPG socket opened: {} ({} connected)", session.getId(), sessions.size());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sessions.remove(session.getId());
+        log.debug("EPG socket closed: {} ({})", session.getId(), status);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        sessions.remove(session.getId());
+        log.debug("EPG socket transport error on {}: {}", session.getId(), exception.getMessage());
+    }
+
+    /**
+     * Send an already serialized payload to every connected terminal
+     */
+    public void broadcast(String payload) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        TextMessage message = new TextMessage(payload);
+        sessions.values().forEach(session -> {
+            try {
+                if (session.isOpen()) {
+                    session.sendMessage(message);
+                } else {
+                    sessions.remove(session.getId());
+                }
+            } catch (Exception e) {
+                log.debug("Dropping EPG socket {}: {}", session.getId(), e.getMessage());
+                sessions.remove(session.getId());
+            }
+        });
+    }
+
+    public int getConnectedCount() {
+        return sessions.size();
+    }
+}
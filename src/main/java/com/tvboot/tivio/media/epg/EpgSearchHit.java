@@ -0,0 +1,17 @@
+package com.tvboot.tivio.media.epg;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row returned by the full-text search query
+ */
+public interface EpgSearchHit {
+    Long getId();
+    Long getChannelId();
+    String getChannelName();
+    Integer getChannelNumber();
+    String getTitle();
+    String getGenre();
+    LocalDateTime getStartTime();
+    LocalDateTime getEndTime();
+}
@@ -0,0 +1,94 @@
+package com.tvboot.tivio.media.epg;
+
+import com.tvboot.tivio.media.epg.dto.EpgProgrammeDto;
+import com.tvboot.tivio.media.epg.dto.EpgSearchResultDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Guest-facing search across the programme guide ("football", "news"...).
+ * Relies on the tsvector column and its GIN index, so it stays in the milliseconds
+ * range whatever the size of the retention window.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EpgSearchService {
+
+    private static final int MAX_TERMS = 5;
+    private static final int MAX_RESULTS = 500;
+
+    private final EpgEntryRepository epgEntryRepository;
+
+    @Value("${app.iptv.epg.retention-days:7}")
+    private int retentionDays;
+
+    /**
+     * Upcoming airings matching every word of the query (prefix match on the last
+     * characters typed), grouped by channel, best matching channel first.
+     */
+    @Transactional(readOnly = true)
+    public List<EpgSearchResultDto> search(String text, int limit) {
+        String tsQuery = toTsQuery(text);
+        if (tsQuery.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<EpgSearchHit> hits = epgEntryRepository.search(
+                tsQuery, now, now.plusDays(retentionDays), Math.min(Math.max(limit, 1), MAX_RESULTS));
+
+        // Hits come ranked: the first hit of a channel decides the channel position
+        Map<Long, EpgSearchResultDto> byChannel = new LinkedHashMap<>();
+        for (EpgSearchHit hit : hits) {
+            byChannel.computeIfAbsent(hit.getChannelId(), id -> EpgSearchResultDto.builder()
+                            .channelId(id)
+                            .channelName(hit.getChannelName())
+                            .channelNumber(hit.getChannelNumber())
+                            .airings(new ArrayList<>())
+                            .build())
+                    .getAirings()
+                    .add(EpgProgrammeDto.builder()
+                            .id(hit.getId())
+                            .channelId(hit.getChannelId())
+                            .title(hit.getTitle())
+                            .genre(hit.getGenre())
+                            .startTime(hit.getStartTime())
+                            .endTime(hit.getEndTime())
+                            .build());
+        }
+        byChannel.values().forEach(result ->
+                result.getAirings().sort(Comparator.comparing(EpgProgrammeDto::getStartTime)));
+
+        log.debug("EPG search '{}' -> {} airings on {} channels", text, hits.size(), byChannel.size());
+        return new ArrayList<>(byChannel.values());
+    }
+
+    /**
+     * Build a safe to_tsquery expression: letters and digits only, AND between words,
+     * prefix matching on each word ("foot" finds "football").
+     */
+    static String toTsQuery(String text) {
+        if (text == null) {
+            return "";
+        }
+        return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_TERMS)
+                .map(term -> term + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
@@ -0,0 +1,95 @@
+package com.tvboot.tivio.media.epg;
+
+import com.tvboot.tivio.common.exception.ResourceNotFoundException;
+import com.tvboot.tivio.tvchannel.TvChannel;
+import com.tvboot.tivio.tvchannel.TvChannelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Write path for the programme guide. Every change goes through here so that an
+ * {@link EpgChangedEvent} is published for the in-memory views of the guide.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EpgService {
+
+    private final EpgEntryRepository epgEntryRepository;
+    private final TvChannelRepository channelRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Replace the programmes of a channel starting in [from, to[ with the given entries
+     */
+    @Transactional
+    public List<EpgEntry> replaceSchedule(Long channelId, LocalDateTime from, LocalDateTime to,
+                                          List<EpgEntry> entries) {
+        TvChannel channel = channelRepository.findById(channelId)
+                .orElseThrow(() -> new ResourceNotFoundException("TvChannel", "id", channelId));
+
+        int deleted = epgEntryRepository.deleteByChannelAndStartBetween(channelId, from, to);
+        entries.forEach(entry -> entry.setChannel(channel));
+        List<EpgEntry> saved = epgEntryRepository.saveAll(entries);
+
+        log.info("EPG for channel {} replaced between {} and {}: {} removed, {} added",
+                channel.getName(), from, to, deleted, saved.size());
+
+        eventPublisher.publishEvent(new EpgChangedEvent(Set.of(channelId), from, to));
+        return saved;
+    }
+
+    /**
+     * Replace the programmes covered by {@code entries} only if they differ from what is
+     * stored, for sources that resend the same guide over and over (EIT harvest).
+     *
+     * @return true if the guide was changed
+     */
+    @Transactional
+    public boolean mergeSchedule(Long channelId, List<EpgEntry> entries) {
+        if (entries.isEmpty()) {
+            return false;
+        }
+        List<EpgEntry> incoming = entries.stream()
+                .sorted(Comparator.comparing(EpgEntry::getStartTime))
+                .toList();
+        LocalDateTime from = incoming.get(0).getStartTime();
+        LocalDateTime to = incoming.get(incoming.size() - 1).getStartTime().plusSeconds(1);
+
+        List<EpgEntry> stored = epgEntryRepository.findChannelAiringBetween(channelId, from, to).stream()
+                .filter(entry -> !entry.getStartTime().isBefore(from))
+                .toList();
+        if (sameSchedule(stored, incoming)) {
+            return false;
+        }
+        replaceSchedule(channelId, from, to, incoming);
+        return true;
+    }
+
+    private boolean sameSchedule(List<EpgEntry> stored, List<EpgEntry> incoming) {
+        if (stored.size() != incoming.size()) {
+            return false;
+        }
+        for (int i = 0; i < stored.size(); i++) {
+            EpgEntry a = stored.get(i);
+            EpgEntry b = incoming.get(i);
+            if (!a.getStartTime().equals(b.getStartTime())
+                    || !a.getEndTime().equals(b.getEndTime())
+                    || !Objects.equals(a.getTitle(), b.getTitle())
+                    || !Objects.equals(a.getDescription(), b.getDescription())
+                    || !Objects.equals(a.getGenre(), b.getGenre())) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
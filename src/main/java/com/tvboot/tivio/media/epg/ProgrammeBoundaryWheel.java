@@ -0,0 +1,111 @@
+package com.tvboot.tivio.media.epg;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hashed timer wheel of programme boundaries (start / end of an EPG entry).
+ * <p>
+ * Each slot holds the boundaries whose deadline tick hashes to it; advancing the wheel
+ * only visits the slots that elapsed since the last call, so a tick costs O(1) whatever
+ * the number of channels. Boundaries further away than one rotation simply stay in
+ * their slot until their tick comes round.
+ * <p>
+ * Not thread-safe on its own: callers synchronize on the instance.
+ */
+public class ProgrammeBoundaryWheel {
+
+    private final long tickMillis;
+    private final int mask;
+    private final List<Boundary>[] slots;
+    private final Set<Boundary> scheduled = new HashSet<>();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public ProgrammeBoundaryWheel(long tickMillis, int wheelSize, long nowMillis) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.mask = wheelSize - 1;
+        this.slots = new List[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            slots[i] = new ArrayList<>();
+        }
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /**
+     * Schedule a boundary for a channel. Duplicates (same channel, same tick) are ignored,
+     * which is the common case since the end of a programme is the start of the next one.
+     *
+     * @return false if the boundary was already scheduled or is in the past
+     */
+    public boolean schedule(long channelId, long deadlineMillis) {
+        long deadlineTick = deadlineMillis / tickMillis;
+        if (deadlineTick <= currentTick) {
+            return false;
+        }
+        Boundary boundary = new Boundary(channelId, deadlineTick);
+        if (!scheduled.add(boundary)) {
+            return false;
+        }
+        slots[(int) (deadlineTick & mask)].add(boundary);
+        return true;
+    }
+
+    /**
+     * Advance the wheel up to {@code nowMillis} and return the channels that crossed
+     * at least one boundary, without duplicates.
+     */
+    public Set<Long> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        Set<Long> due = new LinkedHashSet<>();
+
+        // After a long pause (GC, suspended VM) one full rotation is enough to visit every slot
+        long firstTick = Math.max(currentTick + 1, targetTick - mask);
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            Iterator<Boundary> it = slots[(int) (tick & mask)].iterator();
+            while (it.hasNext()) {
+                Boundary boundary = it.next();
+                if (boundary.deadlineTick <= targetTick) {
+                    it.remove();
+                    scheduled.remove(boundary);
+                    due.add(boundary.channelId);
+                }
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return due;
+    }
+
+    public int size() {
+        return scheduled.size();
+    }
+
+    private static final class Boundary {
+        final long channelId;
+        final long deadlineTick;
+
+        Boundary(long channelId, long deadlineTick) {
+            this.channelId = channelId;
+            this.deadlineTick = deadlineTick;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Boundary other)) return false;
+            return channelId == other.channelId && deadlineTick == other.deadlineTick;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(channelId) * 31 + Long.hashCode(deadlineTick);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.tvboot.tivio.media.epg;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * XMLTV export for third-party players and middleware.
+ * <p>
+ * The first request after a guide change streams the document from the database
+ * (see {@link XmltvWriter}) to the client and, at the same time, into a gzip file
+ * under the EPG directory. Following requests are served from that file until the
+ * next {@link EpgChangedEvent} or the next day; the file is named after its first
+ * day so the nightly EPG purge removes it.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class XmltvExportService {
+
+    private final XmltvWriter xmltvWriter;
+
+    @Value("${app.iptv.epg.directory:uploads/document/epg}")
+    private String epgDirectory;
+
+    @Value("${app.iptv.epg.retention-days:7}")
+    private int retentionDays;
+
+    // Bumped on every guide change; part of the ETag
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    // cache file name -> guide version it holds
+    private final Map<String, Long> cachedVersions = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEpgChanged(EpgChangedEvent event) {
+        version.incrementAndGet();
+    }
+
+    public int clampDays(int days) {
+        return Math.max(1, Math.min(days, retentionDays));
+    }
+
+    public String getETag(int days) {
+        return "\"xmltv-" + LocalDate.now() + "-" + version.get() + "-" + days + "\"";
+    }
+
+    /**
+     * Write the XMLTV document covering {@code days} days from today
+     *
+     * @param gzip whether {@code out} must receive gzip-compressed bytes
+     */
+    public void export(OutputStream out, int days, boolean gzip) throws Exception {
+        long current = version.get();
+        LocalDate today = LocalDate.now();
+        Path cacheFile = resolveCacheFile(today, days);
+        String cacheKey = cacheFile.getFileName().toString();
+
+        if (Long.valueOf(current).equals(cachedVersions.get(cacheKey)) && Files.exists(cacheFile)) {
+            if (gzip) {
+                Files.copy(cacheFile, out);
+            } else {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(cacheFile), 64 * 1024)) {
+                    in.transferTo(out);
+                }
+            }
+            return;
+        }
+
+        Files.createDirectories(cacheFile.getParent());
+        Path tmp = Files.createTempFile(cacheFile.getParent(), "xmltv-", ".tmp");
+        boolean complete = false;
+        try {
+            long programmes;
+            try (GZIPOutputStream cacheOut = new GZIPOutputStream(Files.newOutputStream(tmp), 64 * 1024)) {
+                OutputStream clientOut = gzip ? new GZIPOutputStream(out, 64 * 1024) : out;
+                programmes = xmltvWriter.write(new TeeOutputStream(clientOut, cacheOut),
+                        today.atStartOfDay(), today.plusDays(days).atStartOfDay());
+                if (clientOut instanceof GZIPOutputStream clientGzip) {
+                    clientGzip.finish();
+                }
+            }
+            // Only publish the file if the guide did not change while it was written
+            if (version.get() == current) {
+                Files.move(tmp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                cachedVersions.keySet().removeIf(name -> !name.startsWith(today.toString()));
+                cachedVersions.put(cacheKey, current);
+                complete = true;
+            }
+            log.info("XMLTV export generated: {} days, {} programmes", days, programmes);
+        } finally {
+            if (!complete) {
+                Files.deleteIfExists(tmp);
+            }
+        }
+    }
+
+    private Path resolveCacheFile(LocalDate firstDay, int days) {
+        return Paths.get(epgDirectory).toAbsolutePath().normalize()
+                .resolve(firstDay + "-xmltv-" + days + "d.xml.gz");
+    }
+
+    /**
+     * Duplicates every write to the client and to the cache file
+     */
+    private static final class TeeOutputStream extends FilterOutputStream {
+        private final OutputStream branch;
+
+        TeeOutputStream(OutputStream out, OutputStream branch) {
+            super(out);
+            this.branch = branch;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            branch.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            branch.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+            branch.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // Client stream is owned by the servlet container, the branch by the caller
+            flush();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.tvboot.tivio.media.epg;
+
+import com.tvboot.tivio.tvchannel.TvChannel;
+import com.tvboot.tivio.tvchannel.TvChannelRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+/**
+ * Writes the guide in XMLTV format straight from a database cursor: each entry is
+ * written then detached, so the export runs in constant memory whatever the number
+ * of programmes.
+ */
+@Component
+@RequiredArgsConstructor
+public class XmltvWriter {
+
+    private static final DateTimeFormatter XMLTV_TIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss Z");
+    private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newFactory();
+
+    private final EpgEntryRepository epgEntryRepository;
+    private final TvChannelRepository channelRepository;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @return the number of programmes written
+     */
+    @Transactional(readOnly = true)
+    public long write(OutputStream out, LocalDateTime from, LocalDateTime to) throws XMLStreamException {
+        XMLStreamWriter xml = OUTPUT_FACTORY.createXMLStreamWriter(out, "UTF-8");
+        xml.writeStartDocument("UTF-8", "1.0");
+        xml.writeDTD("\n<!DOCTYPE tv SYSTEM \"xmltv.dtd\">\n");
+        xml.writeStartElement("tv");
+        xml.writeAttribute("generator-info-name", "TVBOOT Tivio");
+
+        // XMLTV wants every <channel> before the first <programme>
+        for (TvChannel channel : channelRepository.findByActiveTrue()) {
+            xml.writeStartElement("channel");
+            xml.writeAttribute("id", String.valueOf(channel.getId()));
+            writeText(xml, "display-name", channel.getName());
+            writeText(xml, "display-name", String.valueOf(channel.getChannelNumber()));
+            if (channel.getLogoPath() != null) {
+                xml.writeEmptyElement("icon");
+                xml.writeAttribute("src", channel.getLogoPath());
+            }
+            xml.writeEndElement();
+        }
+
+        long written = 0;
+        try (Stream<EpgEntry> entries = epgEntryRepository.streamAiringBetween(from, to)) {
+            for (EpgEntry entry : (Iterable<EpgEntry>) entries::iterator) {
+                xml.writeStartElement("programme");
+                xml.writeAttribute("start", format(entry.getStartTime()));
+                xml.writeAttribute("stop", format(entry.getEndTime()));
+                xml.writeAttribute("channel", String.valueOf(entry.getChannel().getId()));
+                writeText(xml, "title", entry.getTitle());
+                writeText(xml, "desc", entry.getDescription());
+                writeText(xml, "category", entry.getGenre());
+                xml.writeEndElement();
+
+                // Keep the persistence context empty while the cursor moves on
+                entityManager.detach(entry);
+                written++;
+            }
+        }
+
+        xml.writeEndElement();
+        xml.writeEndDocument();
+        xml.flush();
+        return written;
+    }
+
+    private void writeText(XMLStreamWriter xml, String element, String text) throws XMLStreamException {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        xml.writeStartElement(element);
+        xml.writeCharacters(text);
+        xml.writeEndElement();
+    }
+
+    private String format(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).format(XMLTV_TIME);
+    }
+}
@@ -0,0 +1,22 @@
+package com.tvboot.tivio.media.epg.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Content of a pre-rendered channel-day guide file
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpgDayDto {
+    private Long channelId;
+    private LocalDate date;
+    private List<EpgProgrammeDto> programmes;
+}
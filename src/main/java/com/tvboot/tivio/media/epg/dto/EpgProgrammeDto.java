@@ -0,0 +1,24 @@
+package com.tvboot.tivio.media.epg.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EpgProgrammeDto {
+    private Long id;
+    private Long channelId;
+    private String title;
+    private String genre;
+    private String description;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+}
@@ -0,0 +1,19 @@
+package com.tvboot.tivio.media.epg.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpgSearchResultDto {
+    private Long channelId;
+    private String channelName;
+    private Integer channelNumber;
+    private List<EpgProgrammeDto> airings;
+}
@@ -0,0 +1,19 @@
+package com.tvboot.tivio.media.epg.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class NowNextDto {
+    private String type; // NOW_NEXT
+    private Long channelId;
+    private EpgProgrammeDto now;
+    private EpgProgrammeDto next;
+}
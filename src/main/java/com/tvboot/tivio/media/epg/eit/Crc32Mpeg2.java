@@ -0,0 +1,31 @@
+package com.tvboot.tivio.media.epg.eit;
+
+/**
+ * CRC-32/MPEG-2 as used by PSI/SI sections (polynomial 0x04C11DB7, no reflection).
+ * Computed over a whole section including its CRC_32 field, the result is 0.
+ */
+public final class Crc32Mpeg2 {
+
+    private static final int[] TABLE = new int[256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int crc = i << 24;
+            for (int bit = 0; bit < 8; bit++) {
+                crc = (crc & 0x80000000) != 0 ? (crc << 1) ^ 0x04C11DB7 : crc << 1;
+            }
+            TABLE[i] = crc;
+        }
+    }
+
+    private Crc32Mpeg2() {
+    }
+
+    public static int compute(byte[] data, int offset, int length) {
+        int crc = 0xFFFFFFFF;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            crc = (crc << 8) ^ TABLE[((crc >>> 24) ^ data[i]) & 0xFF];
+        }
+        return crc;
+    }
+}
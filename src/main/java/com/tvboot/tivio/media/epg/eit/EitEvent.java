@@ -0,0 +1,21 @@
+package com.tvboot.tivio.media.epg.eit;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * One event of an EIT section, as broadcast (times in UTC)
+ */
+@Getter
+@Builder
+public class EitEvent {
+    private final int serviceId;
+    private final int eventId;
+    private final Instant start;
+    private final int durationSeconds;
+    private final String title;
+    private final String description;
+    private final String genre;
+}
@@ -0,0 +1,196 @@
+package com.tvboot.tivio.media.epg.eit;
+
+import com.tvboot.tivio.media.epg.EpgEntry;
+import com.tvboot.tivio.media.epg.EpgService;
+import com.tvboot.tivio.media.stream.MulticastStreamTester;
+import com.tvboot.tivio.tvchannel.TvChannel;
+import com.tvboot.tivio.tvchannel.TvChannelRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Builds the guide from the EIT carried in the channels' own multicast streams
+ * (PID 0x12), for headends without an external XMLTV feed.
+ * <p>
+ * Each active channel is listened to for a short window, long enough for the EIT
+ * schedule carousel to go round; the decoded events replace the stored guide only
+ * when they differ from it (see {@link EpgService#mergeSchedule}).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EitHarvestService {
+
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final MulticastStreamTester multicastReceiver;
+    private final TvChannelRepository channelRepository;
+    private final EpgService epgService;
+
+    @Value("${app.iptv.epg.eit.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.iptv.epg.eit.listen-seconds:30}")
+    private int listenSeconds;
+
+    @Value("${app.iptv.epg.eit.parallelism:16}")
+    private int parallelism;
+
+    @Value("${app.iptv.epg.retention-days:7}")
+    private int retentionDays;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Scheduled(initialDelayString = "${app.iptv.epg.eit.initial-delay-ms:60000}",
+            fixedDelayString = "${app.iptv.epg.eit.interval-ms:3600000}")
+    public void scheduledHarvest() {
+        if (enabled) {
+            harvestAll();
+        }
+    }
+
+    /**
+     * Listen to every active multicast channel, {@code parallelism} at a time
+     *
+     * @return the number of channels whose guide changed
+     */
+    public int harvestAll() {
+        if (!running.compareAndSet(false, true)) {
+            log.debug("EIT harvest already running");
+            return 0;
+        }
+        try {
+            List<TvChannel> channels = channelRepository.findByActiveTrue().stream()
+                    .filter(this::isMulticast)
+                    .toList();
+            long startTime = System.currentTimeMillis();
+
+            AtomicInteger updated = new AtomicInteger();
+            Semaphore permits = new Semaphore(Math.max(1, parallelism));
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (TvChannel channel : channels) {
+                    executor.submit(() -> {
+                        permits.acquireUninterruptibly();
+                        try {
+                            if (harvestChannel(channel)) {
+                                updated.incrementAndGet();
+                            }
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            }
+
+            log.info("EIT harvest done: {} channels listened, {} guides updated in {}ms",
+                    channels.size(), updated.get(), System.currentTimeMillis() - startTime);
+            return updated.get();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * @return true if the channel guide changed
+     */
+    public boolean harvestChannel(TvChannel channel) {
+        // serviceId -> eventId -> event; the service of the channel is only known once the PAT is seen
+        Map<Integer, Map<Integer, EitEvent>> events = new HashMap<>();
+        EitSectionParser parser = new EitSectionParser(event ->
+                events.computeIfAbsent(event.getServiceId(), id -> new HashMap<>()).put(event.getEventId(), event));
+        TsSectionReader reader = new TsSectionReader(parser::onSection,
+                TsSectionReader.PID_PAT, TsSectionReader.PID_EIT);
+
+        try {
+            multicastReceiver.receive(channel.getIp(), channel.getPort(), listenSeconds * 1000L,
+                    (data, offset, length) -> {
+                        reader.feed(data, offset, length);
+                        return true;
+                    });
+        } catch (Exception e) {
+            log.warn("EIT harvest of {} ({}:{}) failed: {}",
+                    channel.getName(), channel.getIp(), channel.getPort(), e.getMessage());
+            return false;
+        }
+
+        Map<Integer, EitEvent> channelEvents = selectService(parser, events);
+        log.debug("EIT {}: {} sections decoded, {} CRC errors, {} events",
+                channel.getName(), parser.getSectionsDecoded(), reader.getCrcErrors(),
+                channelEvents != null ? channelEvents.size() : 0);
+        if (channelEvents == null || channelEvents.isEmpty()) {
+            return false;
+        }
+
+        try {
+            return epgService.mergeSchedule(channel.getId(), toEntries(channelEvents));
+        } catch (Exception e) {
+            log.error("Unable to store EIT guide of {}: {}", channel.getName(), e.getMessage());
+            return false;
+        }
+    }
+
+    private Map<Integer, EitEvent> selectService(EitSectionParser parser, Map<Integer, Map<Integer, EitEvent>> events) {
+        int serviceId = parser.getPatServiceId();
+        if (serviceId >= 0) {
+            return events.get(serviceId);
+        }
+        // No PAT seen or several programmes: only usable if a single service has events
+        return events.size() == 1 ? events.values().iterator().next() : null;
+    }
+
+    private List<EpgEntry> toEntries(Map<Integer, EitEvent> events) {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime limit = now.plusDays(retentionDays);
+
+        List<EpgEntry> entries = new ArrayList<>(events.size());
+        for (EitEvent event : events.values()) {
+            Instant start = event.getStart();
+            LocalDateTime startTime = LocalDateTime.ofInstant(start, zone);
+            LocalDateTime endTime = LocalDateTime.ofInstant(start.plusSeconds(event.getDurationSeconds()), zone);
+            if (!endTime.isAfter(now) || !startTime.isBefore(limit)) {
+                continue;
+            }
+            entries.add(EpgEntry.builder()
+                    .title(truncate(event.getTitle()))
+                    .description(event.getDescription())
+                    .genre(event.getGenre())
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .build());
+        }
+        return entries;
+    }
+
+    private boolean isMulticast(TvChannel channel) {
+        if (channel.getIp() == null || channel.getPort() <= 0) {
+            return false;
+        }
+        try {
+            return InetAddress.getByName(channel.getIp()).isMulticastAddress();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private String truncate(String title) {
+        return title.length() > MAX_TITLE_LENGTH ? title.substring(0, MAX_TITLE_LENGTH) : title;
+    }
+}
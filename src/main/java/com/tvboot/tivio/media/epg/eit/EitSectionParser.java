@@ -0,0 +1,241 @@
+package com.tvboot.tivio.media.epg.eit;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Decodes DVB Event Information Table sections (ETSI EN 300 468, 5.2.4) and PAT
+ * sections. Sections already decoded in the same version are recognised from their
+ * header alone, so the EIT carousel repeating itself costs no allocation.
+ * <p>
+ * Only "actual transport stream" tables are decoded (0x4E present/following,
+ * 0x50-0x5F schedule): "other" tables describe services carried elsewhere.
+ */
+public class EitSectionParser {
+
+    private static final int TABLE_PAT = 0x00;
+    private static final int TABLE_EIT_PF_ACTUAL = 0x4E;
+    private static final int TABLE_EIT_SCHEDULE_ACTUAL_FIRST = 0x50;
+    private static final int TABLE_EIT_SCHEDULE_ACTUAL_LAST = 0x5F;
+
+    private static final int DESCRIPTOR_SHORT_EVENT = 0x4D;
+    private static final int DESCRIPTOR_EXTENDED_EVENT = 0x4E;
+    private static final int DESCRIPTOR_CONTENT = 0x54;
+
+    private static final long MJD_EPOCH_OFFSET = 40587; // MJD of 1970-01-01
+
+    // content_nibble_level_1 (EN 300 468, table 29)
+    private static final String[] GENRES = {
+            null, "Movie/Drama", "News/Current affairs", "Show/Game show", "Sports",
+            "Children/Youth", "Music/Ballet/Dance", "Arts/Culture", "Social/Political/Economics",
+            "Education/Science", "Leisure/Hobbies", "Special", null, null, null, null
+    };
+
+    private final SectionVersionTable versions = new SectionVersionTable();
+    private final Consumer<EitEvent> eventConsumer;
+    private final StringBuilder extendedText = new StringBuilder();
+
+    private int patServiceId = -1;
+    private int patPrograms;
+    private long sectionsDecoded;
+
+    public EitSectionParser(Consumer<EitEvent> eventConsumer) {
+        this.eventConsumer = eventConsumer;
+    }
+
+    public void onSection(int pid, byte[] s, int length) {
+        if (length < 12) {
+            return;
+        }
+        int tableId = s[0] & 0xFF;
+        if (pid == TsSectionReader.PID_PAT && tableId == TABLE_PAT) {
+            parsePat(s, length);
+        } else if (pid == TsSectionReader.PID_EIT && isActualEit(tableId) && length >= 18) {
+            parseEit(s, length, tableId);
+        }
+    }
+
+    /**
+     * Service id of the stream when its PAT lists a single programme (SPTS), -1 otherwise
+     */
+    public int getPatServiceId() {
+        return patPrograms == 1 ? patServiceId : -1;
+    }
+
+    public long getSectionsDecoded() {
+        return sectionsDecoded;
+    }
+
+    private boolean isActualEit(int tableId) {
+        return tableId == TABLE_EIT_PF_ACTUAL
+                || (tableId >= TABLE_EIT_SCHEDULE_ACTUAL_FIRST && tableId <= TABLE_EIT_SCHEDULE_ACTUAL_LAST);
+    }
+
+    private void parsePat(byte[] s, int length) {
+        int programs = 0;
+        int serviceId = -1;
+        for (int p = 8; p + 4 <= length - 4; p += 4) {
+            int programNumber = u16(s, p);
+            if (programNumber != 0) { // 0 is the network PID entry
+                programs++;
+                serviceId = programNumber;
+            }
+        }
+        patPrograms = programs;
+        patServiceId = serviceId;
+    }
+
+    private void parseEit(byte[] s, int length, int tableId) {
+        if ((s[5] & 0x01) == 0) {
+            return; // current_next_indicator: not applicable yet
+        }
+        int serviceId = u16(s, 3);
+        int version = (s[5] >> 1) & 0x1F;
+        int sectionNumber = s[6] & 0xFF;
+        if (!versions.update(serviceId, tableId, sectionNumber, version)) {
+            return;
+        }
+        sectionsDecoded++;
+
+        int end = length - 4; // CRC_32
+        int p = 14;
+        while (p + 12 <= end) {
+            int eventId = u16(s, p);
+            Instant start = decodeStart(s, p + 2);
+            int duration = bcd(s[p + 7]) * 3600 + bcd(s[p + 8]) * 60 + bcd(s[p + 9]);
+            int descriptorsLength = ((s[p + 10] & 0x0F) << 8) | (s[p + 11] & 0xFF);
+            int descriptorsStart = p + 12;
+            int descriptorsEnd = Math.min(descriptorsStart + descriptorsLength, end);
+            p = descriptorsStart + descriptorsLength;
+
+            if (start == null || duration == 0) {
+                continue; // undefined start time (0xFFFFFFFFFF)
+            }
+            decodeEvent(s, descriptorsStart, descriptorsEnd, serviceId, eventId, start, duration);
+        }
+    }
+
+    private void decodeEvent(byte[] s, int p, int end, int serviceId, int eventId, Instant start, int duration) {
+        String title = null;
+        String shortText = null;
+        String genre = null;
+        extendedText.setLength(0);
+
+        while (p + 2 <= end) {
+            int tag = s[p] & 0xFF;
+            int len = s[p + 1] & 0xFF;
+            int body = p + 2;
+            p = body + len;
+            if (p > end) {
+                break;
+            }
+
+            if (tag == DESCRIPTOR_SHORT_EVENT && title == null && len >= 5) {
+                int nameLength = s[body + 3] & 0xFF;
+                int textOffset = body + 4 + nameLength;
+                if (textOffset < p) {
+                    title = decodeText(s, body + 4, nameLength);
+                    shortText = decodeText(s, textOffset + 1, Math.min(s[textOffset] & 0xFF, p - textOffset - 1));
+                }
+            } else if (tag == DESCRIPTOR_EXTENDED_EVENT && len >= 6) {
+                // Skip the item loop, keep the free text
+                int itemsEnd = body + 5 + (s[body + 4] & 0xFF);
+                if (itemsEnd < p) {
+                    extendedText.append(decodeText(s, itemsEnd + 1, Math.min(s[itemsEnd] & 0xFF, p - itemsEnd - 1)));
+                }
+            } else if (tag == DESCRIPTOR_CONTENT && genre == null && len >= 2) {
+                genre = GENRES[(s[body] >> 4) & 0x0F];
+            }
+        }
+
+        if (title == null || title.isBlank()) {
+            return;
+        }
+        String description = !extendedText.isEmpty() ? extendedText.toString() : shortText;
+
+        eventConsumer.accept(EitEvent.builder()
+                .serviceId(serviceId)
+                .eventId(eventId)
+                .start(start)
+                .durationSeconds(duration)
+                .title(title.trim())
+                .description(description == null || description.isBlank() ? null : description.trim())
+                .genre(genre)
+                .build());
+    }
+
+    /**
+     * start_time: 16-bit Modified Julian Date followed by hh:mm:ss in BCD, UTC
+     */
+    private static Instant decodeStart(byte[] s, int p) {
+        int mjd = u16(s, p);
+        if (mjd == 0xFFFF) {
+            return null;
+        }
+        long seconds = bcd(s[p + 2]) * 3600L + bcd(s[p + 3]) * 60L + bcd(s[p + 4]);
+        return Instant.ofEpochSecond((mjd - MJD_EPOCH_OFFSET) * 86400 + seconds);
+    }
+
+    /**
+     * DVB strings (EN 300 468, annex A): an optional leading byte selects the character
+     * table; the default table (ISO 6937) is approximated by ISO-8859-1.
+     */
+    static String decodeText(byte[] s, int offset, int length) {
+        if (length <= 0) {
+            return "";
+        }
+        Charset charset = StandardCharsets.ISO_8859_1;
+        int first = s[offset] & 0xFF;
+        if (first < 0x20) {
+            int skip = 1;
+            if (first >= 0x01 && first <= 0x0B) {
+                charset = isoCharset(first + 4);
+            } else if (first == 0x10 && length >= 3) {
+                charset = isoCharset(u16(s, offset + 1));
+                skip = 3;
+            } else if (first == 0x11) {
+                charset = StandardCharsets.UTF_16BE;
+            } else if (first == 0x15) {
+                charset = StandardCharsets.UTF_8;
+            }
+            offset += skip;
+            length -= skip;
+        }
+        String text = new String(s, offset, Math.max(length, 0), charset);
+
+        // Drop the control codes 0x80-0x9F (emphasis on/off, 0x8A line break)
+        StringBuilder clean = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80 && c <= 0x9F) {
+                if (clean == null) {
+                    clean = new StringBuilder(text.length()).append(text, 0, i);
+                }
+                if (c == 0x8A) {
+                    clean.append(' ');
+                }
+            } else if (clean != null) {
+                clean.append(c);
+            }
+        }
+        return clean != null ? clean.toString() : text;
+    }
+
+    private static Charset isoCharset(int part) {
+        try {
+            return Charset.forName("ISO-8859-" + part);
+        } catch (Exception e) {
+            return StandardCharsets.ISO_8859_1;
+        }
+    }
+
+    private static int u16(byte[] s, int p) {
+        return ((s[p] & 0xFF) << 8) | (s[p + 1] & 0xFF);
+    }
+
+    private static int bcd(byte b) {
+        return ((b >> 4) & 0x0F) * 10 + (b & 0x0F);
+    }
+}
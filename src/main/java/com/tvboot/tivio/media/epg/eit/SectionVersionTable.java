@@ -0,0 +1,73 @@
+package com.tvboot.tivio.media.epg.eit;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from (service, table, section number) to the last decoded
+ * version, on primitive arrays so that the carousel lookups do not box anything.
+ */
+class SectionVersionTable {
+
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private byte[] values;
+    private int size;
+
+    SectionVersionTable() {
+        allocate(256);
+    }
+
+    /**
+     * @return true if the section is new or carries a new version (and record it)
+     */
+    boolean update(int serviceId, int tableId, int sectionNumber, int version) {
+        int key = (serviceId << 16) | ((tableId & 0xFF) << 8) | (sectionNumber & 0xFF);
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                if (values[i] == version) {
+                    return false;
+                }
+                values[i] = (byte) version;
+                return true;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = (byte) version;
+        if (++size * 2 > keys.length) {
+            grow();
+        }
+        return true;
+    }
+
+    private void grow() {
+        int[] oldKeys = keys;
+        byte[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldKeys[j] != EMPTY) {
+                int i = mix(oldKeys[j]) & mask;
+                while (keys[i] != EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new byte[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,187 @@
+package com.tvboot.tivio.media.epg.eit;
+
+/**
+ * Extracts complete, CRC-checked PSI sections for a few PIDs from raw UDP/RTP
+ * datagrams of an MPEG transport stream.
+ * <p>
+ * One fixed buffer per PID, no allocation per packet or per section: sections are
+ * handed to the {@link SectionHandler} as a view on that buffer, valid only for the
+ * duration of the call.
+ */
+public class TsSectionReader {
+
+    public static final int PID_PAT = 0x0000;
+    public static final int PID_EIT = 0x0012;
+
+    private static final int TS_PACKET_SIZE = 188;
+    private static final int SYNC_BYTE = 0x47;
+    private static final int MAX_SECTION_SIZE = 4096;
+
+    @FunctionalInterface
+    public interface SectionHandler {
+        void onSection(int pid, byte[] section, int length);
+    }
+
+    private final SectionHandler handler;
+    private final int[] pids;
+    private final SectionBuffer[] buffers;
+
+    private long crcErrors;
+
+    public TsSectionReader(SectionHandler handler, int... pids) {
+        this.handler = handler;
+        this.pids = pids;
+        this.buffers = new SectionBuffer[pids.length];
+        for (int i = 0; i < pids.length; i++) {
+            buffers[i] = new SectionBuffer();
+        }
+    }
+
+    /**
+     * Feed one datagram: plain TS (7 x 188 bytes) or RTP-encapsulated TS
+     */
+    public void feed(byte[] data, int offset, int length) {
+        int end = offset + length;
+        int p = offset;
+
+        if (length > 12 && (data[p] & 0xFF) != SYNC_BYTE && (data[p] & 0xC0) == 0x80) {
+            // RTP: fixed header, CSRC list, optional extension
+            int csrcCount = data[p] & 0x0F;
+            boolean extension = (data[p] & 0x10) != 0;
+            p += 12 + 4 * csrcCount;
+            if (extension && p + 4 <= end) {
+                p += 4 + 4 * (((data[p + 2] & 0xFF) << 8) | (data[p + 3] & 0xFF));
+            }
+        }
+
+        for (; p + TS_PACKET_SIZE <= end; p += TS_PACKET_SIZE) {
+            if ((data[p] & 0xFF) != SYNC_BYTE) {
+                return; // lost alignment, wait for the next datagram
+            }
+            readPacket(data, p);
+        }
+    }
+
+    public long getCrcErrors() {
+        return crcErrors;
+    }
+
+    private void readPacket(byte[] b, int start) {
+        int pid = ((b[start + 1] & 0x1F) << 8) | (b[start + 2] & 0xFF);
+        SectionBuffer buffer = bufferFor(pid);
+        if (buffer == null || (b[start + 1] & 0x80) != 0) {
+            return; // not wanted, or transport error indicator set
+        }
+
+        boolean unitStart = (b[start + 1] & 0x40) != 0;
+        int adaptation = (b[start + 3] >> 4) & 0x03;
+        int continuity = b[start + 3] & 0x0F;
+        if ((adaptation & 0x01) == 0) {
+            return; // no payload
+        }
+
+        if (buffer.continuity >= 0) {
+            if (continuity == buffer.continuity) {
+                return; // duplicate packet
+            }
+            if (continuity != ((buffer.continuity + 1) & 0x0F)) {
+                buffer.collecting = false; // packet lost, drop the partial section
+            }
+        }
+        buffer.continuity = continuity;
+
+        int p = start + 4;
+        int end = start + TS_PACKET_SIZE;
+        if (adaptation == 0x03) {
+            p += 1 + (b[p] & 0xFF);
+        }
+        if (p >= end) {
+            return;
+        }
+
+        if (!unitStart) {
+            if (buffer.collecting) {
+                buffer.consume(pid, b, p, end - p);
+            }
+            return;
+        }
+
+        int pointer = b[p++] & 0xFF;
+        if (buffer.collecting && pointer > 0) {
+            buffer.consume(pid, b, p, Math.min(pointer, end - p));
+        }
+        buffer.collecting = false;
+        p += pointer;
+
+        // Several short sections may follow each other in one packet; 0xFF is stuffing
+        while (p < end && (b[p] & 0xFF) != 0xFF) {
+            buffer.start();
+            p += buffer.consume(pid, b, p, end - p);
+            if (buffer.collecting || buffer.length != buffer.expected) {
+                break; // continues in the next packet, or invalid length
+            }
+        }
+    }
+
+    private SectionBuffer bufferFor(int pid) {
+        for (int i = 0; i < pids.length; i++) {
+            if (pids[i] == pid) {
+                return buffers[i];
+            }
+        }
+        return null;
+    }
+
+    private final class SectionBuffer {
+        final byte[] data = new byte[MAX_SECTION_SIZE];
+        int length;
+        int expected;
+        int continuity = -1;
+        boolean collecting;
+
+        void start() {
+            length = 0;
+            expected = -1;
+            collecting = true;
+        }
+
+        /**
+         * Append payload bytes to the current section, emitting it once complete
+         *
+         * @return the number of bytes used
+         */
+        int consume(int pid, byte[] src, int offset, int available) {
+            int used = 0;
+            if (expected < 0) {
+                int header = Math.min(3 - length, available);
+                System.arraycopy(src, offset, data, length, header);
+                length += header;
+                used += header;
+                if (length < 3) {
+                    return used;
+                }
+                expected = 3 + (((data[1] & 0x0F) << 8) | (data[2] & 0xFF));
+                if (expected > MAX_SECTION_SIZE) {
+                    collecting = false;
+                    return used;
+                }
+            }
+
+            int chunk = Math.min(expected - length, available - used);
+            System.arraycopy(src, offset + used, data, length, chunk);
+            length += chunk;
+            used += chunk;
+
+            if (length == expected) {
+                collecting = false;
+                // Sections with section_syntax_indicator carry a CRC_32 over the whole section
+                if ((data[1] & 0x80) == 0 || Crc32Mpeg2.compute(data, 0, length) == 0) {
+                    handler.onSection(pid, data, length);
+                } else {
+                    crcErrors++;
+                }
+            }
+            return used;
+        }
+    }
+}
@@ -12,6 +12,18 @@ public class MulticastStreamTester {
 
     private static final int DEFAULT_TIMEOUT_MS = 5000;
     private static final int BUFFER_SIZE = 1316; // Standard UDP packet size for IPTV
+    private static final int MAX_DATAGRAM_SIZE = 1500; // 7 TS packets + RTP header
+
+    /**
+     * Reçoit les datagrammes d'un flux, un par un, dans un buffer réutilisé
+     */
+    @FunctionalInterface
+    public interface DatagramHandler {
+        /**
+         * @return false pour arrêter la réception
+         */
+        boolean onDatagram(byte[] data, int offset, int length);
+    }
 
     /**
      * Test si un flux multicast UDP est disponible
@@ -73,6 +85,41 @@ public class MulticastStreamTester {
         return isStreamAvailable(multicastAddress, port, DEFAULT_TIMEOUT_MS);
     }
 
+    /**
+     * Écoute un flux multicast pendant {@code durationMs} et passe chaque datagramme au handler.
+     * Le buffer est réutilisé d'un datagramme à l'autre : le handler ne doit pas le conserver.
+     *
+     * @throws SocketTimeoutException si le flux n'envoie rien pendant le timeout par défaut
+     */
+    public void receive(String multicastAddress, int port, long durationMs, DatagramHandler handler)
+            throws IOException {
+        InetAddress group = InetAddress.getByName(multicastAddress);
+        InetSocketAddress groupAddress = new InetSocketAddress(group, port);
+
+        // Bind on the group address: several channels often share the same port and
+        // concurrent listeners must not receive each other's datagrams (Linux)
+        try (MulticastSocket socket = new MulticastSocket(groupAddress)) {
+            socket.setSoTimeout(DEFAULT_TIMEOUT_MS);
+            NetworkInterface networkInterface = getDefaultNetworkInterface();
+            socket.joinGroup(groupAddress, networkInterface);
+            try {
+                byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+                DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+                long deadline = System.currentTimeMillis() + durationMs;
+
+                while (System.currentTimeMillis() < deadline) {
+                    packet.setLength(buffer.length);
+                    socket.receive(packet);
+                    if (!handler.onDatagram(buffer, packet.getOffset(), packet.getLength())) {
+                        break;
+                    }
+                }
+            } finally {
+                socket.leaveGroup(groupAddress, networkInterface);
+            }
+        }
+    }
+
     /**
      * Obtenir l'interface réseau par défaut pour le multicast
      */
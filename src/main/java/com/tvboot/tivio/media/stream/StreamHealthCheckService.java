@@ -1,5 +1,6 @@
 package com.tvboot.tivio.media.stream;
 
+import com.tvboot.tivio.config.StreamProperties;
 import com.tvboot.tivio.media.stream.dto.StreamHealthResult;
 import com.tvboot.tivio.tvchannel.TvChannel;
 import com.tvboot.tivio.tvchannel.TvChannelRepository;
@@ -25,6 +26,7 @@ public class StreamHealthCheckService {
 
     private final TvChannelRepository channelRepository;
     private final MulticastStreamTester streamTester;
+    private final StreamProperties streamProperties;
 
     private static final Pattern UDP_PATTERN = Pattern.compile("udp://([0-9.]+):([0-9]+)");
 
@@ -117,6 +119,10 @@ public class StreamHealthCheckService {
             matchIfMissing = false  // ⚠️ false = désactivé par défaut
     )
     public void scheduledStreamHealthCheck() {
+        // @ConditionalOnProperty has no effect on methods, the flag is checked here
+        if (!streamProperties.getHealthCheck().isEnabled()) {
+            return;
+        }
         log.info("=== SCHEDULED STREAM HEALTH CHECK STARTED ===");
 
         List<TvChannel> activeChannels = channelRepository.findByActiveTrue();
@@ -167,6 +173,9 @@ public class StreamHealthCheckService {
             matchIfMissing = false
     )
     public void fastStreamHealthCheck() {
+        if (!streamProperties.getHealthCheck().getFastCheck().isEnabled()) {
+            return;
+        }
         log.info("=== FAST STREAM CHECK STARTED ===");
 
         List<TvChannel> channels = channelRepository.findByActiveTrueAndAvailableTrueOrderBySortOrderAscNameAsc(
@@ -0,0 +1,14 @@
+package com.tvboot.tivio.room;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A room was edited, deleted, or its guest changed (check-in, check-out)
+ */
+@Getter
+@AllArgsConstructor
+public class RoomChangedEvent {
+    private final Long roomId;
+    private final boolean deleted;
+}
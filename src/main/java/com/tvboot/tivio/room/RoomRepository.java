@@ -6,6 +6,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,6 +15,7 @@ public interface RoomRepository extends JpaRepository<Room, Long> {
 
     // Basic CRUD operations
     Optional<Room> findByRoomNumber(String roomNumber);
+    List<Room> findByRoomNumberIn(Collection<String> roomNumbers);
     boolean existsByRoomNumber(String roomNumber);
 
     // Find methods
@@ -6,6 +6,7 @@ import com.tvboot.tivio.common.exception.ResourceNotFoundException;
 import com.tvboot.tivio.room.dto.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -23,6 +24,7 @@ public class RoomServiceImpl implements RoomService {
 
     private final RoomRepository roomRepository;
     private final RoomMapper roomMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Override
     public RoomResponse createRoom(RoomRequest roomRequest) {
@@ -90,6 +92,7 @@ public class RoomServiceImpl implements RoomService {
 
         roomMapper.updateEntityFromRequest(roomRequest, existingRoom);
         Room updatedRoom = roomRepository.save(existingRoom);
+        eventPublisher.publishEvent(new RoomChangedEvent(id, false));
 
         log.info("Room updated successfully with ID: {}", id);
         return roomMapper.toResponse(updatedRoom);
@@ -104,6 +107,7 @@ public class RoomServiceImpl implements RoomService {
         }
 
         roomRepository.deleteById(id);
+        eventPublisher.publishEvent(new RoomChangedEvent(id, true));
         log.info("Room deleted successfully with ID: {}", id);
     }
 
@@ -211,7 +215,9 @@ public class RoomServiceImpl implements RoomService {
 
         room.setOccupied(true);
         room.setCurrentGuest(guest);
-        return roomRepository.save(room);
+        Room saved = roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(saved.getId(), false));
+        return saved;
     }
 
     // ✅ Check-out
@@ -222,6 +228,8 @@ public class RoomServiceImpl implements RoomService {
         room.setOccupied(false);
         room.setCurrentGuest(null);
 
-        return roomRepository.save(room);
+        Room saved = roomRepository.save(room);
+        eventPublisher.publishEvent(new RoomChangedEvent(saved.getId(), false));
+        return saved;
     }
 }
\ No newline at end of file
@@ -5,12 +5,20 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.nio.channels.Channel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 // src/main/java/com/tvboot/iptv/service/ConnectivityService.java
 @Service
@@ -19,6 +27,12 @@ public class ConnectivityService {
 
     private static final int TIMEOUT_MS = 5000;
     private static final int PORT = 80; // Default port for connectivity test
+    private static final int[] SERVICE_PORTS = {80, 443, 8080, 554, 1935}; // HTTP, HTTPS, Alt HTTP, RTSP, RTMP
+    private static final long SERVICE_DEADLINE_MS = 2000;
+    // The JDK reports ECONNREFUSED, ETIMEDOUT and ENOTCONN all as ConnectException, with a
+    // platform (possibly localized) message. A refusal is the host's RST, back within a
+    // round trip; a kernel timeout only comes after several SYN retransmissions.
+    private static final long MAX_REFUSAL_MS = 1000;
 
     public ConnectivityTestResult pingHost(String ipAddress) {
         long startTime = System.currentTimeMillis();
@@ -95,22 +109,157 @@ public class ConnectivityService {
         }
     }
 
+    /**
+     * Non-blocking TCP connects to many hosts from a single thread, all bound by one deadline.
+     * A refused connection (RST) still proves the host is up and counts as reachable.
+     *
+     * @param hosts    key -> IP address
+     * @param maxOpen  upper bound of sockets connecting at the same time
+     * @return key -> round-trip time in milliseconds, for the reachable hosts only
+     */
+    public <K> Map<K, Long> connectSweep(Map<K, String> hosts, int port, long deadlineMs, int maxOpen) {
+        Map<K, InetSocketAddress> targets = new LinkedHashMap<>();
+        hosts.forEach((key, ipAddress) -> targets.put(key, new InetSocketAddress(ipAddress, port)));
+        return connectAll(targets, deadlineMs, maxOpen, true);
+    }
+
+    /**
+     * Core of the non-blocking probes.
+     *
+     * @param refusedIsReachable count a refused connection as a success (host probe)
+     *                           rather than as a closed port (service probe)
+     */
+    private <K> Map<K, Long> connectAll(Map<K, InetSocketAddress> targets, long deadlineMs, int maxOpen,
+                                        boolean refusedIsReachable) {
+        Map<K, Long> rtts = new HashMap<>();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        Iterator<Map.Entry<K, InetSocketAddress>> pending = targets.entrySet().iterator();
+
+        try (Selector selector = Selector.open()) {
+            int connecting = 0;
+            while (System.nanoTime() < deadline && (pending.hasNext() || connecting > 0)) {
+                // Keep the number of connecting sockets under the cap
+                while (pending.hasNext() && connecting < maxOpen) {
+                    Map.Entry<K, InetSocketAddress> target = pending.next();
+                    if (openConnect(selector, target.getKey(), target.getValue(), rtts, refusedIsReachable)) {
+                        connecting++;
+                    }
+                }
+                if (connecting == 0) {
+                    continue;
+                }
+
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    break;
+                }
+                selector.select(remainingMs);
+
+                Iterator<SelectionKey> ready = selector.selectedKeys().iterator();
+                while (ready.hasNext()) {
+                    SelectionKey key = ready.next();
+                    ready.remove();
+                    completeConnect(key, rtts, refusedIsReachable);
+                    connecting--;
+                }
+            }
+
+            // Deadline reached: whatever is still connecting is unreachable
+            for (SelectionKey key : selector.keys()) {
+                closeQuietly(key.channel());
+            }
+        } catch (IOException e) {
+            log.error("Connectivity sweep aborted: {}", e.getMessage());
+        }
+        return rtts;
+    }
+
+    /**
+     * @return true if the connect is in progress and registered with the selector
+     */
+    private <K> boolean openConnect(Selector selector, K id, InetSocketAddress address, Map<K, Long> rtts,
+                                    boolean refusedIsReachable) {
+        SocketChannel channel = null;
+        try {
+            channel = SocketChannel.open();
+            channel.configureBlocking(false);
+            long start = System.nanoTime();
+            if (channel.connect(address)) {
+                rtts.put(id, 0L);
+                closeQuietly(channel);
+                return false;
+            }
+            channel.register(selector, SelectionKey.OP_CONNECT, new PendingConnect<>(id, start));
+            return true;
+        } catch (ConnectException e) {
+            if (refusedIsReachable) {
+                rtts.put(id, 0L); // refused immediately: the host answered
+            }
+        } catch (Exception e) {
+            log.debug("Connect to {} failed: {}", address, e.getMessage());
+        }
+        closeQuietly(channel);
+        return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <K> void completeConnect(SelectionKey key, Map<K, Long> rtts, boolean refusedIsReachable) {
+        PendingConnect<K> pending = (PendingConnect<K>) key.attachment();
+        SocketChannel channel = (SocketChannel) key.channel();
+        long rtt = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pending.startNanos);
+        try {
+            channel.finishConnect();
+            rtts.put(pending.id, rtt);
+        } catch (ConnectException e) {
+            if (refusedIsReachable && rtt < MAX_REFUSAL_MS) {
+                rtts.put(pending.id, rtt); // refused: the host answered
+            }
+        } catch (IOException e) {
+            // unreachable
+        } finally {
+            key.cancel();
+            closeQuietly(channel);
+        }
+    }
+
+    private void closeQuietly(Channel channel) {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static final class PendingConnect<K> {
+        final K id;
+        final long startNanos;
+
+        PendingConnect(K id, long startNanos) {
+            this.id = id;
+            this.startNanos = startNanos;
+        }
+    }
+
     public ConnectivityTestResult testTerminalServices(String ipAddress) {
         // Test multiple services commonly used by IPTV terminals
-        Map<String, Boolean> serviceTests = new HashMap<>();
+        Map<String, Boolean> serviceTests = new LinkedHashMap<>();
+        Map<String, Long> latencies = new LinkedHashMap<>();
         long startTime = System.currentTimeMillis();
 
-        // Test common IPTV terminal ports
-        int[] portsToTest = {80, 443, 8080, 554, 1935}; // HTTP, HTTPS, Alt HTTP, RTSP, RTMP
+        // All ports at once, under one deadline: an unreachable terminal costs SERVICE_DEADLINE_MS, not 5 x 2s
+        Map<Integer, InetSocketAddress> targets = new LinkedHashMap<>();
+        for (int port : SERVICE_PORTS) {
+            targets.put(port, new InetSocketAddress(ipAddress, port));
+        }
+        Map<Integer, Long> open = connectAll(targets, SERVICE_DEADLINE_MS, SERVICE_PORTS.length, false);
 
-        boolean anyServiceReachable = false;
-        for (int port : portsToTest) {
-            try (Socket socket = new Socket()) {
-                socket.connect(new InetSocketAddress(ipAddress, port), 2000);
-                serviceTests.put("port_" + port, true);
-                anyServiceReachable = true;
-            } catch (IOException e) {
-                serviceTests.put("port_" + port, false);
+        boolean anyServiceReachable = !open.isEmpty();
+        for (int port : SERVICE_PORTS) {
+            serviceTests.put("port_" + port, open.containsKey(port));
+            if (open.containsKey(port)) {
+                latencies.put("port_" + port, open.get(port));
             }
         }
 
@@ -126,8 +275,10 @@ public class ConnectivityService {
                 .details(Map.of(
                         "method", "SERVICE_TEST",
                         "host", ipAddress,
-                        "services", serviceTests
+                        "services", serviceTests,
+                        "latenciesMs", latencies,
+                        "responseTimeMs", responseTime
                 ))
                 .build();
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
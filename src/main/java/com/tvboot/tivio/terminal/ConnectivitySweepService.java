@@ -0,0 +1,221 @@
+package com.tvboot.tivio.terminal;
+
+import com.tvboot.tivio.terminal.dto.ConnectivityTestResult;
+import com.tvboot.tivio.terminal.dto.FleetSweepResultDto;
+import com.tvboot.tivio.terminal.dto.TerminalRttDto;
+import com.tvboot.tivio.terminal.dto.TerminalServiceTestDto;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Checks the whole fleet in one pass: every active terminal gets a non-blocking TCP
+ * connect, all under one deadline, and the measured round-trip times are stored with
+ * a single bulk update.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ConnectivitySweepService {
+
+    private final TerminalRepository terminalRepository;
+    private final ConnectivityService connectivityService;
+
+    @Value("${app.terminal.connectivity-sweep.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.terminal.connectivity-sweep.port:80}")
+    private int port;
+
+    @Value("${app.terminal.connectivity-sweep.deadline-ms:3000}")
+    private long deadlineMs;
+
+    @Value("${app.terminal.connectivity-sweep.max-open:512}")
+    private int maxOpen;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // Sweeps of newly provisioned terminals: one at a time, a few waiting, the rest dropped
+    private final ThreadPoolExecutor provisioningExecutor = new ThreadPoolExecutor(
+            1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(8),
+            Thread.ofVirtual().name("provisioning-sweep-", 0).factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+
+    private volatile FleetSweepResultDto lastResult;
+
+    @Scheduled(cron = "${app.terminal.connectivity-sweep.cron:0 */10 * * * *}")
+    public void scheduledSweep() {
+        if (enabled) {
+            sweep();
+        }
+    }
+
+    /**
+     * @return the sweep result, or the previous one if a sweep is already running
+     */
+    public FleetSweepResultDto sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return lastResult;
+        }
+        try {
+            FleetSweepResultDto result = probe(terminalRepository.findActiveAddresses());
+            lastResult = result;
+
+            log.info("Connectivity sweep: {}/{} terminals reachable on port {} in {}ms",
+                    result.getReachable(), result.getTotal(), port, result.getDurationMs());
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Sweep only the given terminals, e.g. right after a bulk import. Runs in the background
+     * on a bounded queue.
+     *
+     * @return false if too many sweeps are already waiting
+     */
+    public boolean queueSweep(List<Long> terminalIds) {
+        try {
+            provisioningExecutor.execute(() -> {
+                FleetSweepResultDto result = probe(terminalRepository.findAddressesByIdIn(terminalIds));
+                log.info("Provisioning sweep: {}/{} new terminals reachable in {}ms",
+                        result.getReachable(), result.getTotal(), result.getDurationMs());
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Provisioning sweep of {} terminals dropped, queue full", terminalIds.size());
+            return false;
+        }
+    }
+
+    @TransactionalEventListener
+    public void onTerminalsImported(TerminalsImportedEvent event) {
+        if (!event.getTerminalIds().isEmpty()) {
+            queueSweep(event.getTerminalIds());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        provisioningExecutor.shutdownNow();
+    }
+
+    private FleetSweepResultDto probe(List<TerminalAddressView> terminals) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+
+        Map<Long, String> hosts = new LinkedHashMap<>();
+        terminals.forEach(terminal -> hosts.put(terminal.getId(), terminal.getIpAddress()));
+
+        Map<Long, Long> rtts = connectivityService.connectSweep(hosts, port, deadlineMs, maxOpen);
+
+        Long[] ids = new Long[terminals.size()];
+        Integer[] rttValues = new Integer[terminals.size()];
+        List<TerminalRttDto> results = new ArrayList<>(terminals.size());
+        for (int i = 0; i < terminals.size(); i++) {
+            TerminalAddressView terminal = terminals.get(i);
+            Long rtt = rtts.get(terminal.getId());
+            ids[i] = terminal.getId();
+            rttValues[i] = rtt != null ? rtt.intValue() : null;
+            results.add(TerminalRttDto.builder()
+                    .terminalId(terminal.getId())
+                    .terminalCode(terminal.getTerminalCode())
+                    .ipAddress(terminal.getIpAddress())
+                    .reachable(rtt != null)
+                    .rttMs(rtt)
+                    .build());
+        }
+        if (ids.length > 0) {
+            terminalRepository.updateConnectivityCheck(ids, rttValues, startedAt);
+        }
+
+        return FleetSweepResultDto.builder()
+                .startedAt(startedAt)
+                .durationMs(System.currentTimeMillis() - start)
+                .port(port)
+                .total(terminals.size())
+                .reachable(rtts.size())
+                .unreachable(terminals.size() - rtts.size())
+                .results(results)
+                .build();
+    }
+
+    public FleetSweepResultDto getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * Service-port probe of many terminals; each result is sent on the emitter as soon as
+     * it is known ("result" events), then a "complete" event with the totals.
+     */
+    public void streamServiceTests(List<Long> terminalIds, SseEmitter emitter) {
+        List<TerminalAddressView> terminals = terminalIds.isEmpty()
+                ? List.of()
+                : terminalRepository.findAddressesByIdIn(terminalIds);
+
+        Thread.ofVirtual().name("service-probe-batch").start(() -> {
+            AtomicInteger reachable = new AtomicInteger();
+            Semaphore permits = new Semaphore(Math.max(1, maxOpen / 5)); // 5 ports per terminal
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (TerminalAddressView terminal : terminals) {
+                    executor.submit(() -> {
+                        permits.acquireUninterruptibly();
+                        try {
+                            ConnectivityTestResult result = connectivityService.testTerminalServices(terminal.getIpAddress());
+                            if (Boolean.TRUE.equals(result.getSuccess())) {
+                                reachable.incrementAndGet();
+                            }
+                            send(emitter, "result", TerminalServiceTestDto.builder()
+                                    .terminalId(terminal.getId())
+                                    .terminalCode(terminal.getTerminalCode())
+                                    .ipAddress(terminal.getIpAddress())
+                                    .result(result)
+                                    .build());
+                        } finally {
+                            permits.release();
+                        }
+                    });
+                }
+            }
+
+            send(emitter, "complete", Map.of(
+                    "requested", terminalIds.size(),
+                    "tested", terminals.size(),
+                    "reachable", reachable.get()));
+            emitter.complete();
+        });
+    }
+
+    private void send(SseEmitter emitter, String name, Object data) {
+        // SseEmitter is not thread-safe
+        synchronized (emitter) {
+            try {
+                emitter.send(SseEmitter.event().name(name).data(data));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Service probe stream closed by client: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import com.tvboot.tivio.room.Room;
 import com.tvboot.tivio.wifi.AccessPoint;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnTransformer;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -27,7 +28,9 @@ public class Terminal {
     @Column(name = "terminal_code", unique = true, nullable = false, length = 50)
     private String terminalCode; //duid for smasung tizen
 
-    @Column(name = "ip_address", nullable = false, length = 15)
+    // Stored as inet for subnet queries, read and written as its text form
+    @Column(name = "ip_address", nullable = false, columnDefinition = "inet")
+    @ColumnTransformer(read = "host(ip_address)", write = "CAST(? AS inet)")
     private String ipAddress;
 
     @Column(name = "mac_address", unique = true, nullable = false, length = 17)
@@ -76,12 +79,22 @@ public class Terminal {
     @Column(name = "is_online", nullable = false)
     private Boolean isOnline = false;
 
+    @Column(name = "last_rtt_ms")
+    private Integer lastRttMs; // null if unreachable at the last sweep
+
+    @Column(name = "last_connectivity_check")
+    private LocalDateTime lastConnectivityCheck;
+
     @Column(name = "soft_ap", nullable = false)
     private Boolean softAp = true;
 
     @Column(name = "comment")
     private String comment;
 
+    // Lower-cased code, brand, model, location, IP and MAC; generated by the database, trigram-indexed
+    @Column(name = "search_text", insertable = false, updatable = false)
+    private String searchText;
+
     @OneToOne(mappedBy = "terminal", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     private AccessPoint accessPoint;
 
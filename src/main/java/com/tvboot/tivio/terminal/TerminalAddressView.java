@@ -0,0 +1,10 @@
+package com.tvboot.tivio.terminal;
+
+/**
+ * Minimal terminal view for network sweeps
+ */
+public interface TerminalAddressView {
+    Long getId();
+    String getTerminalCode();
+    String getIpAddress();
+}
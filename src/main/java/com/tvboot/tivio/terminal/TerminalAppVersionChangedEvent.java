@@ -0,0 +1,14 @@
+package com.tvboot.tivio.terminal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A terminal reported a different app version than the one stored, published once written
+ */
+@Getter
+@AllArgsConstructor
+public class TerminalAppVersionChangedEvent {
+    private final Long terminalId;
+    private final String appVersion;
+}
@@ -0,0 +1,14 @@
+package com.tvboot.tivio.terminal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A terminal was created, edited (configuration, location, activation) or deleted
+ */
+@Getter
+@AllArgsConstructor
+public class TerminalChangedEvent {
+    private final Long terminalId;
+    private final boolean deleted;
+}
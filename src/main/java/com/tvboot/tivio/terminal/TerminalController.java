@@ -6,7 +6,9 @@ import com.tvboot.tivio.common.exception.ResourceNotFoundException;
 import com.tvboot.tivio.room.Room;
 import com.tvboot.tivio.room.RoomRepository;
 import com.tvboot.tivio.room.RoomService;
+import com.tvboot.tivio.terminal.command.dto.CommandBatchDto;
 import com.tvboot.tivio.terminal.dto.*;
+import com.tvboot.tivio.terminal.presence.TerminalConnectionRegistry;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
@@ -18,9 +20,12 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -37,6 +42,9 @@ public class TerminalController {
     private final TerminalService terminalService;
     private final RoomRepository roomRepository;
     private final TerminalMapper terminalMapper;
+    private final ConnectivitySweepService connectivitySweepService;
+    private final TerminalConnectionRegistry connectionRegistry;
+    private final TerminalImportService importService;
 
 
 
@@ -60,6 +68,61 @@ public class TerminalController {
         return ResponseEntity.ok().build();
     }
 
+    /**
+     * Bulk provisioning from a JSON array of terminals; dryRun only validates
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<TvBootHttpResponse> importTerminals(
+            @RequestBody List<TerminalCreateRequest> requests,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        log.info("Importing {} terminals (dry run: {})", requests.size(), dryRun);
+
+        try {
+            return importResponse(importService.importTerminals(requests, dryRun));
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error importing terminals", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to import terminals",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Bulk provisioning from a CSV file (header line with the TerminalCreateRequest field names)
+     */
+    @PostMapping(value = "/import/csv", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<TvBootHttpResponse> importTerminalsCsv(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(defaultValue = "false") boolean dryRun) {
+        log.info("Importing terminals from CSV {} (dry run: {})", file.getOriginalFilename(), dryRun);
+
+        try {
+            return importResponse(importService.importCsv(file.getInputStream(), dryRun));
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error importing terminals from CSV", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to import terminals",
+                    e.getMessage()
+            );
+        }
+    }
+
+    private ResponseEntity<TvBootHttpResponse> importResponse(TerminalImportResultDto result) {
+        TvBootHttpResponse response = TvBootHttpResponse.success()
+                .message(result.isDryRun()
+                        ? result.getTotal() - result.getRejected() + " terminals valid, " + result.getRejected() + " rejected"
+                        : result.getCreated() + " terminals created, " + result.getRejected() + " rejected")
+                .build()
+                .addData("import", result)
+                .addCount(result.getCreated());
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/list")
     public ResponseEntity<TvBootHttpResponse> getAllTerminals() {
         log.info("Getting all terminals");
@@ -249,17 +312,111 @@ public class TerminalController {
         }
     }
 
+    @GetMapping("/presence")
+    public ResponseEntity<TvBootHttpResponse> getPresence() {
+        TvBootHttpResponse response = TvBootHttpResponse.success()
+                .message("Connected terminals retrieved successfully")
+                .build()
+                .addData("terminalIds", connectionRegistry.getConnectedTerminalIds())
+                .addCount(connectionRegistry.size());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/connectivity/sweep")
+    public ResponseEntity<TvBootHttpResponse> sweepConnectivity() {
+        log.info("Running fleet connectivity sweep");
+
+        try {
+            FleetSweepResultDto result = connectivitySweepService.sweep();
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Connectivity sweep completed")
+                    .build()
+                    .addData("sweep", result);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error running connectivity sweep", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to run connectivity sweep",
+                    e.getMessage()
+            );
+        }
+    }
+
+    @GetMapping("/{id}/services")
+    public ResponseEntity<TvBootHttpResponse> testTerminalServices(@PathVariable Long id) {
+        log.info("Testing services for terminal ID: {}", id);
+
+        try {
+            ConnectivityTestResult result = terminalService.testTerminalServices(id);
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message(result.getMessage())
+                    .build()
+                    .addData("connectivityResult", result)
+                    .addData("terminalId", id);
+
+            return ResponseEntity.ok(response);
+        } catch (EntityNotFoundException e) {
+            log.warn("Terminal not found for service test with ID: {}", id);
+            return TvBootHttpResponse.notFoundResponse("Terminal not found with ID: " + id);
+        } catch (Exception e) {
+            log.error("Error testing terminal services {}", id, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to test terminal services",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Batch service test, streamed as Server-Sent Events while the probes complete
+     */
+    @PostMapping(value = "/services/test", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter testServicesBatch(@RequestBody List<Long> terminalIds) {
+        log.info("Testing services for {} terminals", terminalIds.size());
+
+        SseEmitter emitter = new SseEmitter(120_000L);
+        connectivitySweepService.streamServiceTests(terminalIds, emitter);
+        return emitter;
+    }
+
+    @GetMapping("/{id}/uptime")
+    public ResponseEntity<TvBootHttpResponse> getTerminalUptime(@PathVariable Long id) {
+        try {
+            TerminalUptimeDto uptime = terminalService.getTerminalUptime(id);
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Terminal uptime retrieved successfully")
+                    .build()
+                    .addData("uptime", uptime);
+
+            return ResponseEntity.ok(response);
+        } catch (EntityNotFoundException e) {
+            return TvBootHttpResponse.notFoundResponse("Terminal not found with ID: " + id);
+        } catch (Exception e) {
+            log.error("Error retrieving uptime of terminal {}", id, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve terminal uptime",
+                    e.getMessage()
+            );
+        }
+    }
+
     @PostMapping("/{id}/reboot")
     public ResponseEntity<TvBootHttpResponse> rebootTerminal(@PathVariable Long id) {
         log.info("Rebooting terminal with ID: {}", id);
 
         try {
-            terminalService.rebootTerminal(id);
+            CommandBatchDto batch = terminalService.rebootTerminal(id);
 
             TvBootHttpResponse response = TvBootHttpResponse.success()
                     .message("Terminal reboot initiated successfully")
                     .build()
-                    .addData("terminalId", id);
+                    .addData("terminalId", id)
+                    .addData("command", batch);
 
             return ResponseEntity.ok(response);
         } catch (EntityNotFoundException e) {
@@ -297,11 +454,12 @@ public class TerminalController {
     }
 
     @PostMapping("/heartbeat")
-    public ResponseEntity<TvBootHttpResponse> updateHeartbeat(@RequestParam String macAddress) {
-        log.info("Updating heartbeat for MAC address: {}", macAddress);
+    public ResponseEntity<TvBootHttpResponse> updateHeartbeat(@RequestParam String macAddress,
+                                                              @RequestParam(required = false) String appVersion) {
+        log.debug("Updating heartbeat for MAC address: {}", macAddress);
 
         try {
-            terminalService.updateTerminalHeartbeat(macAddress);
+            terminalService.updateTerminalHeartbeat(macAddress, appVersion);
 
             TvBootHttpResponse response = TvBootHttpResponse.success()
                     .message("Terminal heartbeat updated successfully")
@@ -0,0 +1,256 @@
+package com.tvboot.tivio.terminal;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Records terminal heartbeats in memory and writes them to the database in bulk.
+ * <p>
+ * A heartbeat only touches a concurrent map; every few seconds the last-seen times
+ * collected since the previous flush are written with a single UPDATE. Online
+ * transitions are detected here, at heartbeat time, and published as
+ * {@link TerminalStatusChangedEvent}. App versions reported by the terminals go through
+ * the same flush and are published as {@link TerminalAppVersionChangedEvent} when they
+ * change.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalHeartbeatBuffer {
+
+    private final TerminalRepository terminalRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TerminalUptimeTracker uptimeTracker;
+    private final TerminalRegistry terminalRegistry;
+
+    // terminal id -> presence, created on the first heartbeat of the terminal
+    private final Map<Long, Presence> presencesById = new ConcurrentHashMap<>();
+
+    // terminal id -> last heartbeat not yet written
+    private final Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+
+    // terminal id -> reported app version not yet written
+    private final Map<Long, String> pendingVersions = new ConcurrentHashMap<>();
+
+    /**
+     * @return false if no terminal has this MAC address
+     */
+    public boolean record(String macAddress) {
+        return record(macAddress, null);
+    }
+
+    /**
+     * Heartbeat by MAC address, with the app version reported by the terminal (may be null)
+     *
+     * @return false if no terminal has this MAC address
+     */
+    public boolean record(String macAddress, String appVersion) {
+        Optional<TerminalView> terminal = terminalRegistry.findByMacAddress(macAddress);
+        if (terminal.isEmpty()) {
+            return false;
+        }
+        Presence presence = presencesById.computeIfAbsent(terminal.get().getId(), id -> new Presence(terminal.get()));
+        touch(presence);
+        reportVersion(presence, appVersion);
+        return true;
+    }
+
+    /**
+     * Heartbeat received by id (UDP listener), with the state reported by the terminal
+     *
+     * @return false if no terminal has this id
+     */
+    public boolean record(Long terminalId, long uptimeSeconds, Long currentChannelId) {
+        Presence presence = presenceById(terminalId);
+        if (presence == null) {
+            return false;
+        }
+        presence.uptimeSeconds = uptimeSeconds;
+        presence.currentChannelId = currentChannelId;
+        touch(presence);
+        return true;
+    }
+
+    /**
+     * Liveness signal without terminal state (open push connection)
+     *
+     * @return false if no terminal has this id
+     */
+    public boolean record(Long terminalId) {
+        Presence presence = presenceById(terminalId);
+        if (presence == null) {
+            return false;
+        }
+        touch(presence);
+        return true;
+    }
+
+    /**
+     * App version reported outside a heartbeat (authentication, update check)
+     */
+    public void recordAppVersion(Long terminalId, String appVersion) {
+        Presence presence = presenceById(terminalId);
+        if (presence != null) {
+            reportVersion(presence, appVersion);
+        }
+    }
+
+    private void reportVersion(Presence presence, String appVersion) {
+        if (appVersion == null || appVersion.isBlank()) {
+            return;
+        }
+        String version = appVersion.trim();
+        // Column is VARCHAR(20); the same version reported again is not queued
+        if (version.length() > 20 || version.equals(presence.appVersion)) {
+            return;
+        }
+        presence.appVersion = version;
+        pendingVersions.put(presence.terminalId, version);
+    }
+
+    private Presence presenceById(Long terminalId) {
+        Presence presence = presencesById.get(terminalId);
+        if (presence == null) {
+            Optional<TerminalView> terminal = terminalRegistry.findById(terminalId);
+            if (terminal.isEmpty()) {
+                return null;
+            }
+            presence = presencesById.computeIfAbsent(terminalId, key -> new Presence(terminal.get()));
+        }
+        return presence;
+    }
+
+    /**
+     * Channel last reported by the terminal in a UDP heartbeat, null if unknown
+     */
+    public Long getCurrentChannelId(Long terminalId) {
+        Presence presence = presencesById.get(terminalId);
+        return presence != null ? presence.currentChannelId : null;
+    }
+
+    private void touch(Presence presence) {
+        LocalDateTime now = LocalDateTime.now();
+        pending.put(presence.terminalId, now);
+        uptimeTracker.recordBeat(presence.terminalId, System.currentTimeMillis());
+
+        if (presence.online.compareAndSet(false, true)) {
+            log.info("Terminal {} is back online", presence.terminalCode);
+            eventPublisher.publishEvent(new TerminalStatusChangedEvent(
+                    presence.terminalId, presence.terminalCode, true, now));
+        }
+    }
+
+    @EventListener
+    public void onStatusChanged(TerminalStatusChangedEvent event) {
+        if (!event.isOnline()) {
+            // A heartbeat still waiting for the flush must not bring the terminal back online
+            pending.remove(event.getTerminalId());
+            uptimeTracker.closeInterval(event.getTerminalId());
+            Presence presence = presencesById.get(event.getTerminalId());
+            if (presence != null) {
+                presence.online.set(false);
+            }
+        }
+    }
+
+    /**
+     * Forget a terminal whose identity changed or that was deleted
+     */
+    public void evict(Long terminalId) {
+        presencesById.remove(terminalId);
+    }
+
+    @Scheduled(fixedDelayString = "${app.terminal.heartbeat.flush-interval-ms:5000}")
+    public void flush() {
+        flushVersions();
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = new ArrayList<>(pending.size());
+        List<LocalDateTime> lastSeen = new ArrayList<>(pending.size());
+        for (Long id : pending.keySet()) {
+            LocalDateTime seen = pending.remove(id);
+            if (seen != null) {
+                ids.add(id);
+                lastSeen.add(seen);
+            }
+        }
+
+        try {
+            int updated = terminalRepository.updateLastSeen(
+                    ids.toArray(new Long[0]), lastSeen.toArray(new LocalDateTime[0]), LocalDateTime.now());
+            log.debug("Heartbeats flushed: {} terminals updated", updated);
+        } catch (Exception e) {
+            // Keep them for the next flush, unless a newer heartbeat arrived meanwhile
+            for (int i = 0; i < ids.size(); i++) {
+                pending.merge(ids.get(i), lastSeen.get(i), (newer, older) -> newer.isAfter(older) ? newer : older);
+            }
+            log.error("Unable to flush {} heartbeats: {}", ids.size(), e.getMessage());
+        }
+    }
+
+    private void flushVersions() {
+        if (pendingVersions.isEmpty()) {
+            return;
+        }
+
+        Map<Long, String> versions = new HashMap<>(pendingVersions.size());
+        for (Long id : pendingVersions.keySet()) {
+            String version = pendingVersions.remove(id);
+            if (version != null) {
+                versions.put(id, version);
+            }
+        }
+
+        Long[] ids = versions.keySet().toArray(new Long[0]);
+        String[] values = new String[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            values[i] = versions.get(ids[i]);
+        }
+
+        try {
+            List<Long> changed = terminalRepository.updateAppVersions(ids, values, LocalDateTime.now());
+            for (Long id : changed) {
+                eventPublisher.publishEvent(new TerminalAppVersionChangedEvent(id, versions.get(id)));
+            }
+            log.debug("App versions flushed: {} reported, {} changed", ids.length, changed.size());
+        } catch (Exception e) {
+            // Keep them for the next flush, unless a newer report arrived meanwhile
+            versions.forEach(pendingVersions::putIfAbsent);
+            log.error("Unable to flush {} app versions: {}", ids.length, e.getMessage());
+        }
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private static final class Presence {
+        final Long terminalId;
+        final String terminalCode;
+        final AtomicBoolean online;
+        volatile long uptimeSeconds;
+        volatile Long currentChannelId;
+        volatile String appVersion;     // last reported, null until the first report
+
+        Presence(TerminalView terminal) {
+            this.terminalId = terminal.getId();
+            this.terminalCode = terminal.getTerminalCode();
+            this.online = new AtomicBoolean(terminal.isOnline());
+        }
+    }
+}
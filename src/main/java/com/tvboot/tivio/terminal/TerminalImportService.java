@@ -0,0 +1,359 @@
+package com.tvboot.tivio.terminal;
+
+import com.tvboot.tivio.common.enumeration.DeviceType;
+import com.tvboot.tivio.common.enumeration.LocationType;
+import com.tvboot.tivio.room.Room;
+import com.tvboot.tivio.room.RoomRepository;
+import com.tvboot.tivio.terminal.dto.TerminalCreateRequest;
+import com.tvboot.tivio.terminal.dto.TerminalImportResultDto;
+import com.tvboot.tivio.terminal.dto.TerminalImportRowDto;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk provisioning of terminals (a whole property at once) from JSON or CSV.
+ * <p>
+ * The batch is validated as a set: bean validation per row, duplicates inside the
+ * batch, then one query per unique column and one for the rooms. Valid rows are
+ * inserted with JDBC batching; invalid ones are reported without failing the others.
+ * Connectivity tests of the new terminals are queued after commit.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TerminalImportService {
+
+    private static final int MAX_ROWS = 5000;
+    private static final int BATCH_SIZE = 200;
+
+    private static final String INSERT_SQL = "INSERT INTO terminals (terminal_code, ip_address, mac_address, " +
+            "device_type, brand, model, platform, firmware_version, app_version, is_active, location_type, " +
+            "location_identifier, room_id, comment, last_seen, is_online, soft_ap, created_at, updated_at) " +
+            "VALUES (?, CAST(? AS inet), ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, true, ?, ?)";
+
+    // CSV header (case-insensitive) -> field of the request
+    private static final Map<String, BiConsumer<TerminalCreateRequest, String>> CSV_COLUMNS = Map.ofEntries(
+            Map.entry("terminalcode", TerminalCreateRequest::setTerminalCode),
+            Map.entry("brand", TerminalCreateRequest::setBrand),
+            Map.entry("model", TerminalCreateRequest::setModel),
+            Map.entry("macaddress", TerminalCreateRequest::setMacAddress),
+            Map.entry("ipaddress", TerminalCreateRequest::setIpAddress),
+            Map.entry("locationtype", TerminalCreateRequest::setLocationType),
+            Map.entry("locationidentifier", TerminalCreateRequest::setLocationIdentifier),
+            Map.entry("platform", TerminalCreateRequest::setPlatform),
+            Map.entry("appversion", TerminalCreateRequest::setAppVersion),
+            Map.entry("firmwareversion", TerminalCreateRequest::setFirmwareVersion),
+            Map.entry("comment", TerminalCreateRequest::setComment),
+            Map.entry("active", (request, value) ->
+                    request.setActive(Set.of("true", "1", "yes", "oui").contains(value.toLowerCase(Locale.ROOT)))),
+            Map.entry("devicetype", (request, value) -> { /* parsed separately to report bad values */ }));
+
+    private final TerminalRepository terminalRepository;
+    private final RoomRepository roomRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Transactional
+    public TerminalImportResultDto importTerminals(List<TerminalCreateRequest> requests, boolean dryRun) {
+        List<Row> rows = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            rows.add(new Row(i + 1, requests.get(i) != null ? requests.get(i) : new TerminalCreateRequest()));
+        }
+        return process(rows, dryRun);
+    }
+
+    /**
+     * CSV with a header line; ',' or ';' separated, optional double quotes. Row numbers
+     * in the report are line numbers of the file.
+     */
+    @Transactional
+    public TerminalImportResultDto importCsv(InputStream content, boolean dryRun) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(content, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null) {
+            throw new IllegalArgumentException("Empty CSV file");
+        }
+        header = header.replace("\uFEFF", ""); // UTF-8 BOM written by spreadsheet tools
+        char separator = header.indexOf(';') >= 0 ? ';' : ',';
+
+        List<String> columns = parseCsvLine(header, separator).stream()
+                .map(column -> column.trim().toLowerCase(Locale.ROOT).replace("_", ""))
+                .toList();
+        for (String column : columns) {
+            if (!CSV_COLUMNS.containsKey(column)) {
+                throw new IllegalArgumentException("Unknown CSV column: " + column);
+            }
+        }
+        if (!columns.contains("terminalcode")) {
+            throw new IllegalArgumentException("CSV header must contain a terminalCode column");
+        }
+
+        List<Row> rows = new ArrayList<>();
+        String line;
+        int lineNumber = 1;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (rows.size() == MAX_ROWS) {
+                throw new IllegalArgumentException("Too many rows, at most " + MAX_ROWS + " terminals per import");
+            }
+            Row row = new Row(lineNumber, new TerminalCreateRequest());
+            List<String> values = parseCsvLine(line, separator);
+            for (int i = 0; i < columns.size() && i < values.size(); i++) {
+                String value = values.get(i).trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                if ("devicetype".equals(columns.get(i))) {
+                    try {
+                        row.request.setDeviceType(DeviceType.valueOf(value.toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        row.errors.add("Unknown device type: " + value);
+                    }
+                } else {
+                    CSV_COLUMNS.get(columns.get(i)).accept(row.request, value);
+                }
+            }
+            rows.add(row);
+        }
+        return process(rows, dryRun);
+    }
+
+    private TerminalImportResultDto process(List<Row> rows, boolean dryRun) {
+        if (rows.isEmpty()) {
+            throw new IllegalArgumentException("No terminal to import");
+        }
+        if (rows.size() > MAX_ROWS) {
+            throw new IllegalArgumentException("Too many rows, at most " + MAX_ROWS + " terminals per import");
+        }
+        long start = System.currentTimeMillis();
+
+        // Row by row: constraints of the single-create request, then duplicates inside the batch
+        rows.forEach(this::validateRow);
+        rejectBatchDuplicates(rows, row -> row.request.getTerminalCode(), "Duplicate terminal code in batch: ");
+        rejectBatchDuplicates(rows, row -> row.macAddress, "Duplicate MAC address in batch: ");
+        rejectBatchDuplicates(rows, row -> row.request.getIpAddress(), "Duplicate IP address in batch: ");
+
+        // Against the database: one query per unique column, one for the rooms
+        rejectExisting(rows, row -> row.request.getTerminalCode(),
+                terminalRepository::findExistingTerminalCodes, "Terminal code already exists: ");
+        rejectExisting(rows, row -> row.macAddress,
+                terminalRepository::findExistingMacAddresses, "MAC address already exists: ");
+        rejectExisting(rows, row -> row.request.getIpAddress(),
+                terminalRepository::findExistingIpAddresses, "IP address already exists: ");
+        resolveRooms(rows);
+
+        List<Row> valid = rows.stream().filter(Row::isValid).toList();
+        if (!dryRun && !valid.isEmpty()) {
+            insert(valid);
+            eventPublisher.publishEvent(new TerminalsImportedEvent(valid.stream().map(row -> row.terminalId).toList()));
+        }
+
+        List<TerminalImportRowDto> report = rows.stream()
+                .map(row -> TerminalImportRowDto.builder()
+                        .row(row.number)
+                        .terminalCode(row.request.getTerminalCode())
+                        .status(!row.isValid() ? "REJECTED" : dryRun ? "VALID" : "CREATED")
+                        .terminalId(row.terminalId)
+                        .errors(row.errors.isEmpty() ? null : row.errors)
+                        .build())
+                .toList();
+
+        TerminalImportResultDto result = TerminalImportResultDto.builder()
+                .dryRun(dryRun)
+                .total(rows.size())
+                .created(dryRun ? 0 : valid.size())
+                .rejected(rows.size() - valid.size())
+                .durationMs(System.currentTimeMillis() - start)
+                .rows(report)
+                .build();
+        log.info("Terminal import{}: {} rows, {} accepted, {} rejected in {}ms", dryRun ? " (dry run)" : "",
+                result.getTotal(), valid.size(), result.getRejected(), result.getDurationMs());
+        return result;
+    }
+
+    private void validateRow(Row row) {
+        TerminalCreateRequest request = row.request;
+        for (ConstraintViolation<TerminalCreateRequest> violation : validator.validate(request)) {
+            row.errors.add(violation.getMessage());
+        }
+        if (request.getMacAddress() == null) {
+            row.errors.add("MAC address is required");
+        } else {
+            row.macAddress = TerminalService.normalizeMacAddress(request.getMacAddress());
+        }
+        if (request.getIpAddress() == null) {
+            row.errors.add("IP address is required");
+        }
+        if (request.getLocationType() != null) {
+            try {
+                row.locationType = LocationType.valueOf(request.getLocationType().trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                row.errors.add("Unknown location type: " + request.getLocationType());
+            }
+        }
+    }
+
+    private void rejectBatchDuplicates(List<Row> rows, Function<Row, String> key, String message) {
+        Map<String, Row> seen = new HashMap<>();
+        for (Row row : rows) {
+            String value = key.apply(row);
+            if (value != null && seen.putIfAbsent(value, row) != null) {
+                row.errors.add(message + value);
+            }
+        }
+    }
+
+    private void rejectExisting(List<Row> rows, Function<Row, String> key,
+                                Function<String[], List<String>> query, String message) {
+        String[] values = rows.stream().map(key).filter(value -> value != null).distinct().toArray(String[]::new);
+        if (values.length == 0) {
+            return;
+        }
+        Set<String> existing = Set.copyOf(query.apply(values));
+        for (Row row : rows) {
+            String value = key.apply(row);
+            if (value != null && existing.contains(value)) {
+                row.errors.add(message + value);
+            }
+        }
+    }
+
+    private void resolveRooms(List<Row> rows) {
+        List<String> roomNumbers = rows.stream()
+                .filter(row -> row.locationType == LocationType.ROOM && row.request.getLocationIdentifier() != null)
+                .map(row -> row.request.getLocationIdentifier())
+                .distinct()
+                .toList();
+        if (roomNumbers.isEmpty()) {
+            return;
+        }
+        Map<String, Room> rooms = roomRepository.findByRoomNumberIn(roomNumbers).stream()
+                .collect(Collectors.toMap(Room::getRoomNumber, Function.identity(), (a, b) -> a));
+        for (Row row : rows) {
+            if (row.locationType == LocationType.ROOM && row.request.getLocationIdentifier() != null) {
+                row.room = rooms.get(row.request.getLocationIdentifier());
+                if (row.room == null) {
+                    row.errors.add("Room not found with number: " + row.request.getLocationIdentifier());
+                }
+            }
+        }
+    }
+
+    private void insert(List<Row> rows) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows, BATCH_SIZE, (ps, row) -> {
+            TerminalCreateRequest request = row.request;
+            ps.setString(1, request.getTerminalCode());
+            ps.setString(2, request.getIpAddress());
+            ps.setString(3, row.macAddress);
+            ps.setString(4, request.getDeviceType().name());
+            ps.setString(5, request.getBrand());
+            ps.setString(6, request.getModel());
+            ps.setString(7, request.getPlatform());
+            ps.setString(8, request.getFirmwareVersion());
+            ps.setString(9, request.getAppVersion());
+            ps.setBoolean(10, Boolean.TRUE.equals(request.getActive()));
+            ps.setString(11, row.locationType != null ? row.locationType.name() : null);
+            ps.setString(12, request.getLocationIdentifier());
+            if (row.room != null) {
+                ps.setLong(13, row.room.getId());
+            } else {
+                ps.setNull(13, Types.BIGINT);
+            }
+            ps.setString(14, request.getComment());
+            ps.setObject(15, now);
+            ps.setObject(16, now);
+            ps.setObject(17, now);
+        });
+
+        // Generated ids, in one query
+        Map<String, Row> byCode = new LinkedHashMap<>();
+        rows.forEach(row -> byCode.put(row.request.getTerminalCode(), row));
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(
+                    "SELECT id, terminal_code FROM terminals WHERE terminal_code = ANY(?)");
+            ps.setArray(1, connection.createArrayOf("varchar", byCode.keySet().toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> byCode.get(rs.getString("terminal_code")).terminalId = rs.getLong("id"));
+    }
+
+    /**
+     * One CSV line: separator outside quotes splits, "" inside quotes is a quote
+     */
+    static List<String> parseCsvLine(String line, char separator) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == separator) {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    private static final class Row {
+        final int number;
+        final TerminalCreateRequest request;
+        final List<String> errors = new ArrayList<>();
+        String macAddress;
+        LocationType locationType;
+        Room room;
+        Long terminalId;
+
+        Row(int number, TerminalCreateRequest request) {
+            this.number = number;
+            this.request = request;
+        }
+
+        boolean isValid() {
+            return errors.isEmpty();
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.tvboot.tivio.terminal;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory identity of every terminal, indexed by id, MAC address, terminal code and
+ * IP address, so that authentication, token refresh and heartbeats resolve a terminal
+ * without a query.
+ * <p>
+ * Loaded before the web server starts, updated on {@link TerminalChangedEvent} after
+ * commit, and fully reloaded every few minutes to pick up rows written outside the
+ * application. Reads are lock-free; writes are serialized so the four indexes never
+ * disagree for long.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalRegistry {
+
+    private final TerminalRepository terminalRepository;
+
+    private final Map<Long, TerminalView> byId = new ConcurrentHashMap<>();
+    private final Map<String, TerminalView> byMac = new ConcurrentHashMap<>();
+    private final Map<String, TerminalView> byCode = new ConcurrentHashMap<>();
+    // IP addresses come from DHCP and may be shared for a while: the last writer wins
+    private final Map<String, TerminalView> byIp = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void load() {
+        reload();
+        log.info("Terminal registry loaded: {} terminals", byId.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.terminal.registry.reload-interval-ms:600000}",
+            initialDelayString = "${app.terminal.registry.reload-interval-ms:600000}")
+    public synchronized void reload() {
+        List<TerminalRegistryRow> rows = terminalRepository.findRegistryRows();
+        Set<Long> loaded = new HashSet<>(rows.size());
+        for (TerminalRegistryRow row : rows) {
+            put(toView(row));
+            loaded.add(row.getId());
+        }
+        for (Long id : Set.copyOf(byId.keySet())) {
+            if (!loaded.contains(id)) {
+                remove(id);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalChanged(TerminalChangedEvent event) {
+        if (event.isDeleted()) {
+            remove(event.getTerminalId());
+        } else {
+            refresh(event.getTerminalId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalsImported(TerminalsImportedEvent event) {
+        reload();
+    }
+
+    public Optional<TerminalView> findById(Long id) {
+        return Optional.ofNullable(id != null ? byId.get(id) : null);
+    }
+
+    public Optional<TerminalView> findByMacAddress(String macAddress) {
+        return Optional.ofNullable(macAddress != null ? byMac.get(TerminalService.normalizeMacAddress(macAddress)) : null);
+    }
+
+    public Optional<TerminalView> findByTerminalCode(String terminalCode) {
+        return Optional.ofNullable(terminalCode != null ? byCode.get(terminalCode) : null);
+    }
+
+    public Optional<TerminalView> findByIpAddress(String ipAddress) {
+        return Optional.ofNullable(ipAddress != null ? byIp.get(ipAddress) : null);
+    }
+
+    public int size() {
+        return byId.size();
+    }
+
+    /**
+     * Every known terminal, read-only, for fleet-wide computations without a query
+     */
+    public Collection<TerminalView> getTerminals() {
+        return Collections.unmodifiableCollection(byId.values());
+    }
+
+    /**
+     * Re-read one terminal after a write
+     */
+    public synchronized void refresh(Long id) {
+        Optional<TerminalRegistryRow> row = terminalRepository.findRegistryRow(id);
+        if (row.isPresent()) {
+            put(toView(row.get()));
+        } else {
+            remove(id);
+        }
+    }
+
+    /**
+     * The terminal reported a new address at login; the database was updated by the caller
+     */
+    public synchronized void updateIpAddress(Long id, String ipAddress) {
+        TerminalView current = byId.get(id);
+        if (current != null) {
+            put(current.withIpAddress(ipAddress));
+        }
+    }
+
+    public synchronized void remove(Long id) {
+        TerminalView previous = byId.remove(id);
+        if (previous != null) {
+            unindex(previous);
+        }
+    }
+
+    private void put(TerminalView view) {
+        TerminalView previous = byId.put(view.getId(), view);
+        if (previous != null) {
+            unindex(previous);
+        }
+        byMac.put(view.getMacAddress(), view);
+        byCode.put(view.getTerminalCode(), view);
+        if (view.getIpAddress() != null) {
+            byIp.put(view.getIpAddress(), view);
+        }
+    }
+
+    private void unindex(TerminalView view) {
+        byMac.remove(view.getMacAddress(), view);
+        byCode.remove(view.getTerminalCode(), view);
+        if (view.getIpAddress() != null) {
+            byIp.remove(view.getIpAddress(), view);
+        }
+    }
+
+    private static TerminalView toView(TerminalRegistryRow row) {
+        return new TerminalView(
+                row.getId(),
+                row.getTerminalCode(),
+                TerminalService.normalizeMacAddress(row.getMacAddress()),
+                row.getIpAddress(),
+                Boolean.TRUE.equals(row.getActive()),
+                Boolean.TRUE.equals(row.getIsOnline()),
+                row.getDeviceType(),
+                row.getRoomId(),
+                row.getRoomNumber(),
+                row.getFloorNumber());
+    }
+}
@@ -0,0 +1,19 @@
+package com.tvboot.tivio.terminal;
+
+import com.tvboot.tivio.common.enumeration.DeviceType;
+
+/**
+ * Identity of a terminal as loaded into {@link TerminalRegistry}
+ */
+public interface TerminalRegistryRow {
+    Long getId();
+    String getTerminalCode();
+    String getMacAddress();
+    String getIpAddress();
+    Boolean getActive();
+    Boolean getIsOnline();
+    DeviceType getDeviceType();
+    Long getRoomId();
+    String getRoomNumber();
+    Integer getFloorNumber();
+}
@@ -4,10 +4,13 @@ import com.tvboot.tivio.common.enumeration.DeviceType;
 import com.tvboot.tivio.common.enumeration.LocationType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +34,135 @@ public interface TerminalRepository extends JpaRepository<Terminal, Long>, JpaSp
     @Query("SELECT t FROM Terminal t WHERE t.lastSeen < :threshold")
     List<Terminal> findInactiveTerminals(@Param("threshold") LocalDateTime threshold);
 
+    // Offline sweep in one statement; the partial index on online terminals keeps it cheap
+    @Transactional
+    @Query(value = "UPDATE terminals SET is_online = false, updated_at = :now " +
+            "WHERE is_online AND last_seen < :threshold " +
+            "RETURNING id AS \"id\", terminal_code AS \"terminalCode\"", nativeQuery = true)
+    List<TerminalStatusRow> markOfflineSeenBefore(@Param("threshold") LocalDateTime threshold,
+                                                  @Param("now") LocalDateTime now);
+
+    // Bulk heartbeat write: one statement for all the terminals seen since the last flush
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE terminals t SET last_seen = v.last_seen, is_online = true, updated_at = :now " +
+            "FROM unnest(CAST(:ids AS bigint[]), CAST(:lastSeen AS timestamp[])) AS v(id, last_seen) " +
+            "WHERE t.id = v.id", nativeQuery = true)
+    int updateLastSeen(@Param("ids") Long[] ids, @Param("lastSeen") LocalDateTime[] lastSeen,
+                       @Param("now") LocalDateTime now);
+
+    // Versions reported with heartbeats; only the terminals whose version actually changed are returned
+    @Transactional
+    @Query(value = "UPDATE terminals t SET app_version = v.app_version, updated_at = :now " +
+            "FROM unnest(CAST(:ids AS bigint[]), CAST(:appVersions AS varchar[])) AS v(id, app_version) " +
+            "WHERE t.id = v.id AND t.app_version IS DISTINCT FROM v.app_version " +
+            "RETURNING t.id", nativeQuery = true)
+    List<Long> updateAppVersions(@Param("ids") Long[] ids, @Param("appVersions") String[] appVersions,
+                                 @Param("now") LocalDateTime now);
+
+    // Daily online-seconds accumulators, fed by the uptime tracker
+    @Query(value = "SELECT terminal_id AS \"terminalId\", (day - DATE '1970-01-01') AS \"epochDay\", " +
+            "online_seconds AS \"onlineSeconds\" FROM terminal_uptime_daily WHERE day >= :since", nativeQuery = true)
+    List<TerminalUptimeDayRow> findUptimeDaysSince(@Param("since") LocalDate since);
+
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO terminal_uptime_daily (terminal_id, day, online_seconds) " +
+            "SELECT v.id, DATE '1970-01-01' + v.epoch_day, v.seconds " +
+            "FROM unnest(CAST(:ids AS bigint[]), CAST(:epochDays AS integer[]), CAST(:seconds AS integer[])) " +
+            "AS v(id, epoch_day, seconds) " +
+            "JOIN terminals t ON t.id = v.id " +
+            "ON CONFLICT (terminal_id, day) DO UPDATE " +
+            "SET online_seconds = LEAST(86400, terminal_uptime_daily.online_seconds + EXCLUDED.online_seconds)",
+            nativeQuery = true)
+    int addOnlineSeconds(@Param("ids") Long[] ids, @Param("epochDays") Integer[] epochDays,
+                         @Param("seconds") Integer[] seconds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE terminals t SET uptime = v.uptime " +
+            "FROM unnest(CAST(:ids AS bigint[]), CAST(:uptimes AS double precision[])) AS v(id, uptime) " +
+            "WHERE t.id = v.id", nativeQuery = true)
+    int updateUptime(@Param("ids") Long[] ids, @Param("uptimes") Double[] uptimes);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM terminal_uptime_daily WHERE day < :before", nativeQuery = true)
+    int deleteUptimeDaysBefore(@Param("before") LocalDate before);
+
+    @Query("SELECT t.id AS id, t.terminalCode AS terminalCode, t.ipAddress AS ipAddress " +
+            "FROM Terminal t WHERE t.active = true")
+    List<TerminalAddressView> findActiveAddresses();
+
+    @Query("SELECT t.id AS id, t.terminalCode AS terminalCode, t.ipAddress AS ipAddress " +
+            "FROM Terminal t WHERE t.id IN :ids")
+    List<TerminalAddressView> findAddressesByIdIn(@Param("ids") List<Long> ids);
+
+    // Set-based uniqueness checks for bulk provisioning: one query per column for a whole batch
+    @Query(value = "SELECT terminal_code FROM terminals WHERE terminal_code = ANY(CAST(:codes AS varchar[]))",
+            nativeQuery = true)
+    List<String> findExistingTerminalCodes(@Param("codes") String[] codes);
+
+    @Query(value = "SELECT mac_address FROM terminals WHERE mac_address = ANY(CAST(:macs AS varchar[]))",
+            nativeQuery = true)
+    List<String> findExistingMacAddresses(@Param("macs") String[] macs);
+
+    @Query(value = "SELECT host(ip_address) FROM terminals WHERE host(ip_address) = ANY(CAST(:ips AS varchar[]))",
+            nativeQuery = true)
+    List<String> findExistingIpAddresses(@Param("ips") String[] ips);
+
+    // Terminals whose address is inside a subnet (GiST index on ip_address)
+    @Query(value = "SELECT t.id AS \"id\", t.terminal_code AS \"terminalCode\", host(t.ip_address) AS \"ipAddress\" " +
+            "FROM terminals t WHERE t.ip_address <<= CAST(:cidr AS inet) ORDER BY t.ip_address",
+            nativeQuery = true)
+    List<TerminalAddressView> findAddressesInSubnet(@Param("cidr") String cidr);
+
+    // Connectivity sweep results, null RTT for unreachable terminals
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE terminals t SET last_rtt_ms = v.rtt, last_connectivity_check = :checkedAt " +
+            "FROM unnest(CAST(:ids AS bigint[]), CAST(:rtts AS integer[])) AS v(id, rtt) " +
+            "WHERE t.id = v.id", nativeQuery = true)
+    int updateConnectivityCheck(@Param("ids") Long[] ids, @Param("rtts") Integer[] rtts,
+                                @Param("checkedAt") LocalDateTime checkedAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Terminal t SET t.isOnline = false WHERE t.id = :id")
+    int markOffline(@Param("id") Long id);
+
+    // Room may be linked by relation or only by number (assignTerminalToRoom)
+    String REGISTRY_SELECT = "SELECT t.id AS id, t.terminalCode AS terminalCode, t.macAddress AS macAddress, " +
+            "t.ipAddress AS ipAddress, t.active AS active, t.isOnline AS isOnline, t.deviceType AS deviceType, " +
+            "r.id AS roomId, r.roomNumber AS roomNumber, r.floorNumber AS floorNumber " +
+            "FROM Terminal t LEFT JOIN Room r ON r = t.room " +
+            "OR (t.room IS NULL AND t.locationType = 'ROOM' AND r.roomNumber = t.locationIdentifier)";
+
+    @Query(REGISTRY_SELECT)
+    List<TerminalRegistryRow> findRegistryRows();
+
+    @Query(REGISTRY_SELECT + " WHERE t.id = :id")
+    Optional<TerminalRegistryRow> findRegistryRow(@Param("id") Long id);
+
+    // Attributes indexed by TerminalBitmapIndex, same room linkage as the registry
+    String TARGETING_SELECT = "SELECT t.id AS id, t.active AS active, t.isOnline AS isOnline, " +
+            "t.deviceType AS deviceType, t.locationType AS locationType, t.appVersion AS appVersion, " +
+            "r.id AS roomId, r.floorNumber AS floorNumber, r.roomType AS roomType " +
+            "FROM Terminal t LEFT JOIN Room r ON r = t.room " +
+            "OR (t.room IS NULL AND t.locationType = 'ROOM' AND r.roomNumber = t.locationIdentifier)";
+
+    @Query(TARGETING_SELECT)
+    List<TerminalTargetingRow> findTargetingRows();
+
+    @Query(TARGETING_SELECT + " WHERE t.id = :id")
+    Optional<TerminalTargetingRow> findTargetingRow(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE terminals SET ip_address = CAST(:ipAddress AS inet), updated_at = :now WHERE id = :id",
+            nativeQuery = true)
+    int updateIpAddress(@Param("id") Long id, @Param("ipAddress") String ipAddress, @Param("now") LocalDateTime now);
+
     @Query("SELECT COUNT(t) FROM Terminal t WHERE t.active = :active")
     long countByActive(@Param("active") Boolean active);
 
@@ -43,6 +175,18 @@ public interface TerminalRepository extends JpaRepository<Terminal, Long>, JpaSp
     @Query("SELECT AVG(t.uptime) FROM Terminal t WHERE t.uptime IS NOT NULL")
     Double getAverageUptime();
 
+    // All the dashboard figures in one pass: per device type, per location type and the grand total
+    @Query(value = "SELECT device_type AS \"deviceType\", location_type AS \"locationType\", " +
+            "GROUPING(device_type, location_type) AS \"grouping\", " +
+            "COUNT(*) AS \"total\", " +
+            "COUNT(*) FILTER (WHERE is_active) AS \"active\", " +
+            "COUNT(*) FILTER (WHERE is_online) AS \"online\", " +
+            "COUNT(*) FILTER (WHERE is_active AND last_connectivity_check IS NOT NULL AND last_rtt_ms IS NULL) " +
+            "AS \"faulty\", " +
+            "AVG(uptime) AS \"averageUptime\" " +
+            "FROM terminals GROUP BY GROUPING SETS ((device_type), (location_type), ())", nativeQuery = true)
+    List<TerminalStatsRow> aggregateStatistics();
+
     Optional<Terminal> findByMacAddressAndTerminalCode(String macAddress, String terminalCode);
     List<Terminal> findByLocationTypeAndLocationIdentifier(
             LocationType locationType,
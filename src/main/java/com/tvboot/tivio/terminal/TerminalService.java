@@ -5,9 +5,16 @@ import com.tvboot.tivio.common.enumeration.LocationType;
 import com.tvboot.tivio.common.exception.ResourceNotFoundException;
 import com.tvboot.tivio.room.Room;
 import com.tvboot.tivio.room.RoomRepository;
+import com.tvboot.tivio.terminal.command.CommandType;
+import com.tvboot.tivio.terminal.command.TerminalCommandService;
+import com.tvboot.tivio.terminal.command.dto.CommandBatchDto;
+import com.tvboot.tivio.terminal.command.dto.CommandTargetDto;
+import com.tvboot.tivio.terminal.command.dto.TerminalCommandRequest;
 import com.tvboot.tivio.terminal.dto.*;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.criteria.Predicate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,8 +30,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +43,15 @@ public class TerminalService {
     private final RoomRepository roomRepository;
     private final TerminalMapper terminalMapper;
     private final ConnectivityService connectivityService;
+    private final TerminalHeartbeatBuffer heartbeatBuffer;
+    private final TerminalCommandService commandService;
+    private final TerminalUptimeTracker uptimeTracker;
+    private final TerminalStatsService statsService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private static final Pattern MAC_ADDRESS = Pattern.compile("^([0-9A-Fa-f]{2}[:-]?){5}[0-9A-Fa-f]{2}$");
+    private static final Pattern IP_ADDRESS = Pattern.compile("^(\\d{1,3}\\.){3}\\d{1,3}$");
+    private static final int MIN_TRIGRAM_LENGTH = 3;
 
 
 
@@ -68,6 +83,7 @@ public class TerminalService {
         validateTerminalUniqueness(request);
         System.out.println(request);
         Terminal terminal = terminalMapper.toEntity(request);
+        terminal.setMacAddress(normalizeMacAddress(terminal.getMacAddress()));
 
         // Handle location association
         if ("ROOM".equalsIgnoreCase(request.getLocationType())) {
@@ -85,6 +101,7 @@ public class TerminalService {
 
 
         Terminal savedTerminal = terminalRepository.save(terminal);
+        eventPublisher.publishEvent(new TerminalChangedEvent(savedTerminal.getId(), false));
 
         // Test initial connectivity
         testConnectivityAsync(savedTerminal);
@@ -100,9 +117,12 @@ public class TerminalService {
                 .orElseThrow(() -> new EntityNotFoundException("Terminal not found with ID: " + id));
 
         terminalMapper.updateFromRequest(terminal, request);
+        terminal.setMacAddress(normalizeMacAddress(terminal.getMacAddress()));
+        heartbeatBuffer.evict(id);
 
 
         Terminal savedTerminal = terminalRepository.save(terminal);
+        eventPublisher.publishEvent(new TerminalChangedEvent(id, false));
 
         // Test connectivity if IP changed
         if (request.getIpAddress() != null) {
@@ -120,6 +140,9 @@ public class TerminalService {
                 .orElseThrow(() -> new EntityNotFoundException("Terminal not found with ID: " + id));
 
         terminalRepository.delete(terminal);
+        heartbeatBuffer.evict(id);
+        uptimeTracker.remove(id);
+        eventPublisher.publishEvent(new TerminalChangedEvent(id, true));
         log.info("Terminal deleted successfully: {}", terminal.getTerminalCode());
     }
 
@@ -130,6 +153,13 @@ public class TerminalService {
         return testConnectivity(terminal);
     }
 
+    public ConnectivityTestResult testTerminalServices(Long id) {
+        Terminal terminal = terminalRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Terminal not found with ID: " + id));
+
+        return connectivityService.testTerminalServices(terminal.getIpAddress());
+    }
+
     public ConnectivityTestResult testConnectivity(Terminal terminal) {
         try {
             log.debug("Testing connectivity for terminal: {}", terminal.getTerminalCode());
@@ -169,36 +199,42 @@ public class TerminalService {
         testConnectivity(terminal);
     }
 
-    public void rebootTerminal(Long id) {
-        Terminal terminal = terminalRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Terminal not found with ID: " + id));
-
-        // In a real implementation, this would send a reboot command to the terminal
-        // For now, we'll simulate by changing status
-
-        terminalRepository.save(terminal);
+    public TerminalUptimeDto getTerminalUptime(Long id) {
+        if (!terminalRepository.existsById(id)) {
+            throw new EntityNotFoundException("Terminal not found with ID: " + id);
+        }
+        return uptimeTracker.getUptime(id);
+    }
 
-        // Simulate reboot process (in real app, this would be handled by the terminal)
-        CompletableFuture.delayedExecutor(5, TimeUnit.SECONDS).execute(() -> {
+    public CommandBatchDto rebootTerminal(Long id) {
+        if (!terminalRepository.existsById(id)) {
+            throw new EntityNotFoundException("Terminal not found with ID: " + id);
+        }
 
-            terminal.setLastSeen(LocalDateTime.now());
-            terminalRepository.save(terminal);
-        });
+        // Queued and pushed over the presence socket; the terminal acknowledges before rebooting
+        return commandService.dispatch(TerminalCommandRequest.builder()
+                .type(CommandType.REBOOT)
+                .target(CommandTargetDto.builder().terminalIds(List.of(id)).build())
+                .build());
     }
 
 
     @Scheduled(fixedRate = 60000) // Run every minute
     public void checkTerminalStatus() {
-        LocalDateTime threshold = LocalDateTime.now().minusMinutes(5);
-        List<Terminal> inactiveTerminals = terminalRepository.findInactiveTerminals(threshold);
-
-        for (Terminal terminal : inactiveTerminals) {
-            if (terminal.getIsOnline()) {
-                terminal.setIsOnline(false);
-                terminal.setIsOnline(false);
-                terminalRepository.save(terminal);
-                log.warn("Terminal {} marked as offline due to inactivity", terminal.getTerminalCode());
-            }
+        // Write buffered heartbeats first so a live terminal is not swept
+        heartbeatBuffer.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<TerminalStatusRow> offline = terminalRepository.markOfflineSeenBefore(now.minusMinutes(5), now);
+
+        for (TerminalStatusRow terminal : offline) {
+            eventPublisher.publishEvent(new TerminalStatusChangedEvent(
+                    terminal.getId(), terminal.getTerminalCode(), false, now));
+            log.debug("Terminal {} marked as offline due to inactivity", terminal.getTerminalCode());
+        }
+        // One line per sweep: bursts behind a switch are reported once by OutageCorrelator
+        if (!offline.isEmpty()) {
+            log.warn("{} terminals marked as offline due to inactivity", offline.size());
         }
     }
 
@@ -207,7 +243,7 @@ public class TerminalService {
             throw new IllegalArgumentException("Terminal ID already exists: " + request.getTerminalCode());
         }
 
-        if (terminalRepository.existsByMacAddress(request.getMacAddress().toUpperCase())) {
+        if (terminalRepository.existsByMacAddress(normalizeMacAddress(request.getMacAddress()))) {
             throw new IllegalArgumentException("MAC address already exists: " + request.getMacAddress());
         }
 
@@ -226,7 +262,7 @@ public class TerminalService {
     }
 
     private void validateMacAddressUniqueness(String macAddress, Long excludeId) {
-        terminalRepository.findByMacAddress(macAddress.toUpperCase())
+        terminalRepository.findByMacAddress(normalizeMacAddress(macAddress))
                 .ifPresent(existing -> {
                     if (!existing.getId().equals(excludeId)) {
                         throw new IllegalArgumentException("MAC address already exists: " + macAddress);
@@ -240,55 +276,104 @@ public class TerminalService {
         }
     }
 
+    /**
+     * Every predicate here is index-backed: exact match for a MAC or IP address, prefix on
+     * the terminal code for short terms, trigram match on search_text otherwise.
+     */
     private Specification<Terminal> createSpecification(TerminalSearchCriteria criteria) {
         return (root, query, criteriaBuilder) -> {
             List<Predicate> predicates = new ArrayList<>();
 
-            if (criteria.getSearch() != null && !criteria.getSearch().trim().isEmpty()) {
-                String searchTerm = "%" + criteria.getSearch().toLowerCase() + "%";
-                Predicate searchPredicate = criteriaBuilder.or(
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("terminalCode")), searchTerm),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("brand")), searchTerm),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("model")), searchTerm),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("location")), searchTerm),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("ipAddress")), searchTerm),
-                        criteriaBuilder.like(criteriaBuilder.lower(root.get("macAddress")), searchTerm)
-                );
-                predicates.add(searchPredicate);
+            String search = criteria.getSearch() != null ? criteria.getSearch().trim() : "";
+            if (!search.isEmpty()) {
+                if (MAC_ADDRESS.matcher(search).matches()) {
+                    predicates.add(criteriaBuilder.equal(root.get("macAddress"), normalizeMacAddress(search)));
+                } else if (IP_ADDRESS.matcher(search).matches()) {
+                    predicates.add(criteriaBuilder.equal(root.get("ipAddress"), search));
+                } else if (search.length() < MIN_TRIGRAM_LENGTH) {
+                    predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("terminalCode")),
+                            escapeLike(search.toLowerCase()) + "%", '\\'));
+                } else {
+                    predicates.add(criteriaBuilder.like(root.get("searchText"),
+                            "%" + escapeLike(search.toLowerCase()) + "%", '\\'));
+                }
             }
 
-            if (criteria.getActive() != null) {
-                predicates.add(criteriaBuilder.equal(root.get("status"), criteria.getIsActive()));
+            Boolean active = criteria.getActive() != null ? criteria.getActive() : criteria.getIsActive();
+            if (active != null) {
+                predicates.add(criteriaBuilder.equal(root.get("active"), active));
             }
 
             if (criteria.getDeviceType() != null) {
                 predicates.add(criteriaBuilder.equal(root.get("deviceType"), criteria.getDeviceType()));
             }
 
+            if (criteria.getMacAddress() != null && !criteria.getMacAddress().isBlank()) {
+                predicates.add(criteriaBuilder.equal(root.get("macAddress"),
+                        normalizeMacAddress(criteria.getMacAddress().trim())));
+            }
+
+            if (criteria.getIpAddress() != null && !criteria.getIpAddress().isBlank()) {
+                predicates.add(criteriaBuilder.equal(root.get("ipAddress"), criteria.getIpAddress().trim()));
+            }
 
+            if (criteria.getTerminalNumber() != null && !criteria.getTerminalNumber().isBlank()) {
+                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("terminalCode")),
+                        escapeLike(criteria.getTerminalNumber().trim().toLowerCase()) + "%", '\\'));
+            }
+
+            if (criteria.getLocationId() != null && !criteria.getLocationId().isBlank()) {
+                String locationId = criteria.getLocationId().trim();
+                // Up to 18 digits always fits a long; longer numbers can only be a location name
+                predicates.add(locationId.length() <= 18 && locationId.chars().allMatch(Character::isDigit)
+                        ? criteriaBuilder.equal(root.get("room").get("id"), Long.valueOf(locationId))
+                        : criteriaBuilder.equal(root.get("locationIdentifier"), locationId));
+            }
 
-            if (criteria.getLocationId() != null) {
-                predicates.add(criteriaBuilder.equal(root.get("room").get("id"), criteria.getLocationId()));
+            if (criteria.getFloorNumber() != null) {
+                predicates.add(criteriaBuilder.equal(root.get("room").get("floorNumber"), criteria.getFloorNumber()));
             }
 
             return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
         };
     }
 
-    public TerminalStatsDto  getTerminalStatistics(){
-        return new TerminalStatsDto();
+    /**
+     * Canonical MAC form stored in the database: upper case, colon separated
+     */
+    static String normalizeMacAddress(String macAddress) {
+        if (macAddress == null) {
+            return null;
+        }
+        String hex = macAddress.replaceAll("[^0-9A-Fa-f]", "").toUpperCase();
+        if (hex.length() != 12) {
+            return macAddress.toUpperCase();
+        }
+        StringBuilder normalized = new StringBuilder(17);
+        for (int i = 0; i < 12; i += 2) {
+            if (i > 0) {
+                normalized.append(':');
+            }
+            normalized.append(hex, i, i + 2);
+        }
+        return normalized.toString();
     }
 
-    public void updateTerminalHeartbeat(String macAddress) {
-        terminalRepository.findByMacAddress(macAddress.toUpperCase())
-                .ifPresent(terminal -> {
-                    terminal.setLastSeen(LocalDateTime.now());
-                    terminal.setIsOnline(true);
-                    if (!terminal.getIsOnline()) {
-                        terminal.setIsOnline(true);
-                    }
-                    terminalRepository.save(terminal);
-                });
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TerminalStatsDto getTerminalStatistics() {
+        return statsService.getStatistics();
+    }
+
+    /**
+     * Heartbeats are buffered in memory and written in bulk by {@link TerminalHeartbeatBuffer}
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void updateTerminalHeartbeat(String macAddress, String appVersion) {
+        heartbeatBuffer.record(macAddress, appVersion);
     }
 
     public void assignTerminalToRoom(Long terminalId, Long roomId) {
@@ -302,6 +387,7 @@ public class TerminalService {
         terminal.setLocationIdentifier(room.getRoomNumber());
 
         terminalRepository.save(terminal);
+        eventPublisher.publishEvent(new TerminalChangedEvent(terminalId, false));
         log.info("Terminal {} assigned to room {}", terminal.getTerminalCode(), room.getRoomNumber());
     }
 
@@ -313,6 +399,7 @@ public class TerminalService {
         terminal.setLocationIdentifier(locationIdentifier);
 
         terminalRepository.save(terminal);
+        eventPublisher.publishEvent(new TerminalChangedEvent(terminalId, false));
         log.info("Terminal {} assigned to {} {}",
                 terminal.getTerminalCode(), locationType, locationIdentifier);
     }
@@ -343,7 +430,9 @@ public class TerminalService {
         // Save the updated terminal back to the database (JPA handles the update)
         // Note: With @Transactional, often the save is not explicitly needed as the entity is managed,
         // but explicitly calling save is safer and clearer.
-        return terminalRepository.save(terminal);
+        Terminal saved = terminalRepository.save(terminal);
+        eventPublisher.publishEvent(new TerminalChangedEvent(terminalId, false));
+        return saved;
     }
 
 
@@ -0,0 +1,16 @@
+package com.tvboot.tivio.terminal;
+
+/**
+ * One row of the GROUPING SETS statistics query; {@code grouping} tells which set it
+ * belongs to (1: per device type, 2: per location type, 3: grand total)
+ */
+public interface TerminalStatsRow {
+    String getDeviceType();
+    String getLocationType();
+    Integer getGrouping();
+    Long getTotal();
+    Long getActive();
+    Long getOnline();
+    Long getFaulty();
+    Double getAverageUptime();
+}
@@ -0,0 +1,108 @@
+package com.tvboot.tivio.terminal;
+
+import com.tvboot.tivio.terminal.dto.TerminalStatsDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fleet statistics for the dashboards.
+ * <p>
+ * The figures come from one GROUPING SETS query and are kept in memory; online and
+ * offline counts then follow {@link TerminalStatusChangedEvent} live, and a terminal
+ * edit marks the snapshot stale. A periodic recomputation corrects any drift and picks
+ * up the uptime averages, so refreshing a wall display never hits the database.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TerminalStatsService {
+
+    private static final int BY_DEVICE_TYPE = 1;
+    private static final int BY_LOCATION_TYPE = 2;
+
+    private final TerminalRepository terminalRepository;
+
+    private final AtomicLong online = new AtomicLong();
+    private final AtomicLong offline = new AtomicLong();
+    private volatile TerminalStatsDto snapshot;
+    private volatile boolean stale = true;
+
+    public TerminalStatsDto getStatistics() {
+        if (stale || snapshot == null) {
+            refresh();
+        }
+        TerminalStatsDto base = snapshot;
+        return base.toBuilder()
+                .online(online.get())
+                .offline(offline.get())
+                .build();
+    }
+
+    @Scheduled(fixedDelayString = "${app.terminal.stats.refresh-interval-ms:60000}")
+    public synchronized void refresh() {
+        long total = 0, active = 0, onlineCount = 0, faulty = 0;
+        Double averageUptime = null;
+        Map<String, Long> byDeviceType = new LinkedHashMap<>();
+        Map<String, Long> byLocation = new LinkedHashMap<>();
+
+        stale = false;
+        for (TerminalStatsRow row : terminalRepository.aggregateStatistics()) {
+            switch (row.getGrouping()) {
+                case BY_DEVICE_TYPE -> byDeviceType.put(keyOf(row.getDeviceType()), row.getTotal());
+                case BY_LOCATION_TYPE -> byLocation.put(keyOf(row.getLocationType()), row.getTotal());
+                default -> {
+                    total = row.getTotal();
+                    active = row.getActive();
+                    onlineCount = row.getOnline();
+                    faulty = row.getFaulty();
+                    averageUptime = row.getAverageUptime();
+                }
+            }
+        }
+
+        snapshot = TerminalStatsDto.builder()
+                .total(total)
+                .active(active)
+                .inactive(total - active)
+                .faulty(faulty)
+                .byDeviceType(byDeviceType)
+                .byLocation(byLocation)
+                .averageUptime(averageUptime != null ? Math.round(averageUptime * 100) / 100.0 : null)
+                .build();
+        online.set(onlineCount);
+        offline.set(total - onlineCount);
+        log.debug("Terminal statistics recomputed: {} terminals, {} online", total, onlineCount);
+    }
+
+    @EventListener
+    public void onStatusChanged(TerminalStatusChangedEvent event) {
+        if (snapshot == null) {
+            return;
+        }
+        int delta = event.isOnline() ? 1 : -1;
+        online.addAndGet(delta);
+        offline.addAndGet(-delta);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalChanged(TerminalChangedEvent event) {
+        stale = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalsImported(TerminalsImportedEvent event) {
+        stale = true;
+    }
+
+    private static String keyOf(String value) {
+        return value != null ? value : "UNKNOWN";
+    }
+}
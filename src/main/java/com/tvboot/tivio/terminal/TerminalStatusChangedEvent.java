@@ -0,0 +1,18 @@
+package com.tvboot.tivio.terminal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A terminal went online (first heartbeat after being offline) or offline (status sweep)
+ */
+@Getter
+@AllArgsConstructor
+public class TerminalStatusChangedEvent {
+    private final Long terminalId;
+    private final String terminalCode;
+    private final boolean online;
+    private final LocalDateTime timestamp;
+}
@@ -0,0 +1,9 @@
+package com.tvboot.tivio.terminal;
+
+/**
+ * Row returned by the offline sweep (UPDATE ... RETURNING)
+ */
+public interface TerminalStatusRow {
+    Long getId();
+    String getTerminalCode();
+}
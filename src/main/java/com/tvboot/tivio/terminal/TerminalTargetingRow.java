@@ -0,0 +1,20 @@
+package com.tvboot.tivio.terminal;
+
+import com.tvboot.tivio.common.enumeration.DeviceType;
+import com.tvboot.tivio.common.enumeration.LocationType;
+import com.tvboot.tivio.room.Room;
+
+/**
+ * Attributes of a terminal indexed by {@link com.tvboot.tivio.terminal.targeting.TerminalBitmapIndex}
+ */
+public interface TerminalTargetingRow {
+    Long getId();
+    Boolean getActive();
+    Boolean getIsOnline();
+    DeviceType getDeviceType();
+    LocationType getLocationType();
+    String getAppVersion();
+    Long getRoomId();
+    Integer getFloorNumber();
+    Room.RoomType getRoomType();
+}
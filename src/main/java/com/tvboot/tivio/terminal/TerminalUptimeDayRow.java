@@ -0,0 +1,10 @@
+package com.tvboot.tivio.terminal;
+
+/**
+ * One day of online time of a terminal, as stored in terminal_uptime_daily
+ */
+public interface TerminalUptimeDayRow {
+    Long getTerminalId();
+    Integer getEpochDay();
+    Integer getOnlineSeconds();
+}
@@ -0,0 +1,262 @@
+package com.tvboot.tivio.terminal;
+
+import com.tvboot.tivio.terminal.dto.TerminalUptimeDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Terminal uptime derived from heartbeat intervals.
+ * <p>
+ * Each heartbeat credits the time elapsed since the previous heartbeat of the same
+ * terminal to an in-memory counter of the day, as long as the gap stays under the
+ * offline threshold. Counters are added to {@code terminal_uptime_daily} every minute,
+ * and the rolling 24h / 7d / 30d percentages are computed from at most 31 daily values
+ * per terminal: no query ever scans the heartbeat history. The 24h percentage is the
+ * one written to {@link Terminal#getUptime()}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalUptimeTracker {
+
+    private static final long DAY_MS = 86_400_000L;
+    private static final int RING_SIZE = 32;        // 30-day window, today and the day sliding out
+    private static final int RETENTION_DAYS = 31;
+
+    private final TerminalRepository terminalRepository;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // terminal id -> daily online time of the last RING_SIZE days
+    private final Map<Long, Accumulator> accumulators = new ConcurrentHashMap<>();
+
+    @Value("${app.terminal.uptime.max-gap-seconds:300}")
+    private long maxGapSeconds;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        LocalDate since = LocalDate.now(zone).minusDays(RETENTION_DAYS);
+        int rows = 0;
+        for (TerminalUptimeDayRow row : terminalRepository.findUptimeDaysSince(since)) {
+            Accumulator accumulator = accumulator(row.getTerminalId());
+            synchronized (accumulator) {
+                accumulator.add(row.getEpochDay(), row.getOnlineSeconds() * 1000L, false);
+            }
+            rows++;
+        }
+        log.info("Uptime counters loaded: {} days for {} terminals", rows, accumulators.size());
+    }
+
+    /**
+     * Heartbeat received, on any channel (HTTP, UDP, presence socket)
+     */
+    public void recordBeat(Long terminalId, long nowMillis) {
+        Accumulator accumulator = accumulator(terminalId);
+        synchronized (accumulator) {
+            long previous = accumulator.lastBeatMillis;
+            accumulator.lastBeatMillis = nowMillis;
+            if (previous > 0 && nowMillis > previous && nowMillis - previous <= maxGapSeconds * 1000) {
+                credit(accumulator, previous, nowMillis);
+            }
+        }
+    }
+
+    /**
+     * Terminal marked offline: the time until its next heartbeat is not online time
+     */
+    public void closeInterval(Long terminalId) {
+        Accumulator accumulator = accumulators.get(terminalId);
+        if (accumulator != null) {
+            synchronized (accumulator) {
+                accumulator.lastBeatMillis = 0;
+            }
+        }
+    }
+
+    public void remove(Long terminalId) {
+        accumulators.remove(terminalId);
+    }
+
+    public TerminalUptimeDto getUptime(Long terminalId) {
+        long now = System.currentTimeMillis();
+        Accumulator accumulator = accumulators.get(terminalId);
+        if (accumulator == null) {
+            return TerminalUptimeDto.builder().terminalId(terminalId).build();
+        }
+        synchronized (accumulator) {
+            return TerminalUptimeDto.builder()
+                    .terminalId(terminalId)
+                    .uptime24h(percentage(accumulator, now, 1))
+                    .uptime7d(percentage(accumulator, now, 7))
+                    .uptime30d(percentage(accumulator, now, 30))
+                    .build();
+        }
+    }
+
+    /**
+     * Add the unsaved online time to the daily rows and refresh Terminal.uptime where it moved
+     */
+    @Scheduled(fixedDelayString = "${app.terminal.uptime.flush-interval-ms:60000}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        Map<Long, Map<Long, Long>> drained = new HashMap<>();
+        List<Long> dayIds = new ArrayList<>();
+        List<Integer> days = new ArrayList<>();
+        List<Integer> seconds = new ArrayList<>();
+        List<Long> uptimeIds = new ArrayList<>();
+        List<Double> uptimes = new ArrayList<>();
+
+        accumulators.forEach((terminalId, accumulator) -> {
+            synchronized (accumulator) {
+                Iterator<Map.Entry<Long, Long>> it = accumulator.unsaved.entrySet().iterator();
+                while (it.hasNext()) {
+                    Map.Entry<Long, Long> entry = it.next();
+                    long wholeSeconds = entry.getValue() / 1000;
+                    if (wholeSeconds == 0) {
+                        continue;
+                    }
+                    dayIds.add(terminalId);
+                    days.add(entry.getKey().intValue());
+                    seconds.add((int) wholeSeconds);
+                    drained.computeIfAbsent(terminalId, id -> new HashMap<>())
+                            .put(entry.getKey(), wholeSeconds * 1000);
+                    // Keep the sub-second remainder for the next flush
+                    entry.setValue(entry.getValue() - wholeSeconds * 1000);
+                }
+
+                double uptime = Math.round(percentage(accumulator, now, 1) * 100) / 100.0;
+                if (accumulator.writtenUptime == null || accumulator.writtenUptime != uptime) {
+                    accumulator.writtenUptime = uptime;
+                    uptimeIds.add(terminalId);
+                    uptimes.add(uptime);
+                }
+            }
+        });
+
+        if (!dayIds.isEmpty()) {
+            try {
+                terminalRepository.addOnlineSeconds(dayIds.toArray(new Long[0]),
+                        days.toArray(new Integer[0]), seconds.toArray(new Integer[0]));
+            } catch (Exception e) {
+                log.error("Unable to write uptime counters of {} terminals: {}", drained.size(), e.getMessage());
+                restore(drained);
+            }
+        }
+        if (!uptimeIds.isEmpty()) {
+            try {
+                terminalRepository.updateUptime(uptimeIds.toArray(new Long[0]), uptimes.toArray(new Double[0]));
+            } catch (Exception e) {
+                log.error("Unable to update uptime of {} terminals: {}", uptimeIds.size(), e.getMessage());
+                uptimeIds.forEach(id -> {
+                    Accumulator accumulator = accumulators.get(id);
+                    if (accumulator != null) {
+                        synchronized (accumulator) {
+                            accumulator.writtenUptime = null;
+                        }
+                    }
+                });
+            }
+        }
+        log.debug("Uptime flushed: {} daily counters, {} terminals updated", dayIds.size(), uptimeIds.size());
+    }
+
+    @Scheduled(cron = "0 20 3 * * *")
+    public void purge() {
+        int deleted = terminalRepository.deleteUptimeDaysBefore(LocalDate.now(zone).minusDays(RETENTION_DAYS));
+        log.info("Uptime counters purged: {} days older than {} days", deleted, RETENTION_DAYS);
+    }
+
+    private Accumulator accumulator(Long terminalId) {
+        return accumulators.computeIfAbsent(terminalId, id -> new Accumulator());
+    }
+
+    private void restore(Map<Long, Map<Long, Long>> drained) {
+        drained.forEach((terminalId, byDay) -> {
+            Accumulator accumulator = accumulators.get(terminalId);
+            if (accumulator != null) {
+                synchronized (accumulator) {
+                    byDay.forEach((day, millis) -> accumulator.unsaved.merge(day, millis, Long::sum));
+                }
+            }
+        });
+    }
+
+    /**
+     * Credit [from, to) to the days it covers (an interval can straddle midnight)
+     */
+    private void credit(Accumulator accumulator, long from, long to) {
+        while (from < to) {
+            LocalDate day = Instant.ofEpochMilli(from).atZone(zone).toLocalDate();
+            long end = Math.min(to, day.plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli());
+            accumulator.add(day.toEpochDay(), end - from, true);
+            from = end;
+        }
+    }
+
+    /**
+     * Online share of the last {@code days} days: today so far, the full days before it,
+     * and the part of the oldest day still inside the window, prorated.
+     */
+    private double percentage(Accumulator accumulator, long nowMillis, int days) {
+        LocalDate today = Instant.ofEpochMilli(nowMillis).atZone(zone).toLocalDate();
+        long elapsedToday = nowMillis - today.atStartOfDay(zone).toInstant().toEpochMilli();
+        long epochDay = today.toEpochDay();
+
+        double online = accumulator.millisOn(epochDay);
+        for (int i = 1; i < days; i++) {
+            online += accumulator.millisOn(epochDay - i);
+        }
+        online += accumulator.millisOn(epochDay - days) * (double) (DAY_MS - elapsedToday) / DAY_MS;
+        return Math.min(100.0, online * 100.0 / (days * DAY_MS));
+    }
+
+    /**
+     * Guarded by its own monitor
+     */
+    private static final class Accumulator {
+        final long[] dayMillis = new long[RING_SIZE];
+        final long[] epochDays = new long[RING_SIZE];
+        final Map<Long, Long> unsaved = new HashMap<>(2); // epoch day -> millis not written yet
+        long lastBeatMillis;
+        Double writtenUptime;
+
+        Accumulator() {
+            Arrays.fill(epochDays, -1);
+        }
+
+        void add(long epochDay, long millis, boolean unsavedToo) {
+            int slot = (int) (epochDay & (RING_SIZE - 1));
+            if (epochDays[slot] != epochDay) {
+                if (epochDays[slot] > epochDay) {
+                    return; // older than the ring
+                }
+                epochDays[slot] = epochDay;
+                dayMillis[slot] = 0;
+            }
+            dayMillis[slot] = Math.min(DAY_MS, dayMillis[slot] + millis);
+            if (unsavedToo) {
+                unsaved.merge(epochDay, millis, Long::sum);
+            }
+        }
+
+        long millisOn(long epochDay) {
+            int slot = (int) (epochDay & (RING_SIZE - 1));
+            return epochDays[slot] == epochDay ? dayMillis[slot] : 0;
+        }
+    }
+}
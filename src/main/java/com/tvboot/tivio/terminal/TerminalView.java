@@ -0,0 +1,29 @@
+package com.tvboot.tivio.terminal;
+
+import com.tvboot.tivio.common.enumeration.DeviceType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Immutable identity of a terminal held by {@link TerminalRegistry}. {@code online} is
+ * the flag as of the last load; live status is tracked by {@link TerminalHeartbeatBuffer}.
+ */
+@Getter
+@AllArgsConstructor
+public final class TerminalView {
+    private final Long id;
+    private final String terminalCode;
+    private final String macAddress;
+    private final String ipAddress;
+    private final boolean active;
+    private final boolean online;
+    private final DeviceType deviceType;
+    private final Long roomId;
+    private final String roomNumber;
+    private final Integer floorNumber;
+
+    TerminalView withIpAddress(String newIpAddress) {
+        return new TerminalView(id, terminalCode, macAddress, newIpAddress, active, online,
+                deviceType, roomId, roomNumber, floorNumber);
+    }
+}
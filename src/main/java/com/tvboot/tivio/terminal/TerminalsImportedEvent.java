@@ -0,0 +1,15 @@
+package com.tvboot.tivio.terminal;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Terminals created in bulk by {@link TerminalImportService}
+ */
+@Getter
+@AllArgsConstructor
+public class TerminalsImportedEvent {
+    private final List<Long> terminalIds;
+}
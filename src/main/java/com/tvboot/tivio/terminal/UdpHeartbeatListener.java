@@ -0,0 +1,248 @@
+package com.tvboot.tivio.terminal;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Optional UDP heartbeat endpoint: a liveness signal without TLS, JWT or the filter chain.
+ * <p>
+ * Packet (37 bytes, big endian):
+ * <pre>
+ *  0  version          1 byte  (1)
+ *  1  terminal id      8 bytes
+ *  9  timestamp        4 bytes  epoch seconds, rejected beyond +/- 2 minutes
+ * 13  uptime           4 bytes  seconds since boot
+ * 17  current channel  4 bytes  channel id, 0 when none
+ * 21  signature       16 bytes  HMAC-SHA256 of bytes 0-20 under the terminal's key, truncated
+ * </pre>
+ * Each terminal signs with its own key, HMAC-SHA256(secret, "udp-heartbeat" + terminal id),
+ * handed out at authentication: a TV cannot sign for another terminal. A packet whose
+ * timestamp is not newer than the last accepted one of its terminal is a replay.
+ * <p>
+ * A single thread receives, verifies and hands the packets to
+ * {@link TerminalHeartbeatBuffer}, which writes them in bulk.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UdpHeartbeatListener {
+
+    static final int PACKET_SIZE = 37;
+    private static final int SIGNED_LENGTH = 21;
+    private static final int SIGNATURE_LENGTH = 16;
+    private static final byte VERSION = 1;
+    private static final long MAX_CLOCK_SKEW_SECONDS = 120;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final byte[] KEY_LABEL = "udp-heartbeat".getBytes(StandardCharsets.US_ASCII);
+
+    private final TerminalHeartbeatBuffer heartbeatBuffer;
+
+    @Value("${app.terminal.heartbeat.udp.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.terminal.heartbeat.udp.port:5140}")
+    private int port;
+
+    @Value("${app.terminal.heartbeat.udp.secret:}")
+    private String secret;
+
+    private volatile DatagramChannel channel;
+
+    // Terminals that sent a verified packet, owned by the receiving thread
+    private final Map<Long, TerminalState> terminals = new HashMap<>();
+
+    /**
+     * Initialised Mac of a terminal (its key schedule is built once) and the timestamp of
+     * its last accepted packet
+     */
+    private static final class TerminalState {
+        final Mac hmac;
+        long lastTimestamp;
+
+        TerminalState(Mac hmac) {
+            this.hmac = hmac;
+        }
+    }
+
+    private volatile long accepted;
+    private volatile long rejected;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        if (secret == null || secret.isBlank()) {
+            log.error("UDP heartbeat listener enabled without app.terminal.heartbeat.udp.secret, not started");
+            return;
+        }
+        try {
+            channel = DatagramChannel.open();
+            channel.bind(new InetSocketAddress(port));
+        } catch (IOException e) {
+            log.error("Unable to open UDP heartbeat port {}: {}", port, e.getMessage());
+            return;
+        }
+        Thread.ofPlatform().name("udp-heartbeat").daemon().start(this::receiveLoop);
+        log.info("UDP heartbeat listener started on port {}", port);
+    }
+
+    @PreDestroy
+    public void stop() {
+        DatagramChannel current = channel;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                log.debug("Error closing UDP heartbeat channel: {}", e.getMessage());
+            }
+        }
+    }
+
+    public long getAcceptedCount() {
+        return accepted;
+    }
+
+    public long getRejectedCount() {
+        return rejected;
+    }
+
+    /**
+     * Signing key of a terminal (Base64), empty when the listener is disabled
+     */
+    public Optional<String> getTerminalKey(long terminalId) {
+        if (!enabled || secret == null || secret.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            Mac master = masterMac();
+            byte[] key = new byte[32];
+            deriveTerminalKey(master, terminalId, key);
+            return Optional.of(Base64.getEncoder().encodeToString(key));
+        } catch (GeneralSecurityException e) {
+            log.error("Unable to derive UDP heartbeat key of terminal {}: {}", terminalId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private Mac masterMac() throws GeneralSecurityException {
+        Mac master = Mac.getInstance(HMAC_ALGORITHM);
+        master.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), HMAC_ALGORITHM));
+        return master;
+    }
+
+    private static void deriveTerminalKey(Mac master, long terminalId, byte[] key) throws GeneralSecurityException {
+        master.update(KEY_LABEL);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            master.update((byte) (terminalId >>> shift));
+        }
+        master.doFinal(key, 0);
+    }
+
+    private void receiveLoop() {
+        // Everything below is reused from one packet to the next
+        ByteBuffer buffer = ByteBuffer.allocateDirect(512);
+        byte[] key = new byte[32];
+        byte[] digest = new byte[32];
+        byte[] signature = new byte[SIGNATURE_LENGTH];
+        Mac master;
+        Mac hmac;
+        try {
+            master = masterMac();
+            hmac = Mac.getInstance(HMAC_ALGORITHM);
+        } catch (GeneralSecurityException e) {
+            log.error("UDP heartbeat listener cannot initialise HMAC: {}", e.getMessage());
+            return;
+        }
+
+        while (channel.isOpen()) {
+            try {
+                buffer.clear();
+                channel.receive(buffer);
+                buffer.flip();
+                if (handle(buffer, master, hmac, key, digest, signature)) {
+                    accepted++;
+                } else {
+                    rejected++;
+                }
+            } catch (ClosedChannelException e) {
+                break;
+            } catch (Exception e) {
+                rejected++;
+                log.debug("UDP heartbeat dropped: {}", e.getMessage());
+            }
+        }
+        log.info("UDP heartbeat listener stopped ({} accepted, {} rejected)", accepted, rejected);
+    }
+
+    private boolean handle(ByteBuffer packet, Mac master, Mac hmac, byte[] key, byte[] digest, byte[] signature)
+            throws GeneralSecurityException {
+        if (packet.remaining() != PACKET_SIZE || packet.get(0) != VERSION) {
+            return false;
+        }
+
+        long terminalId = packet.getLong(1);
+        // Cached only once verified, so forged ids cannot grow the map
+        TerminalState state = terminals.get(terminalId);
+        Mac terminalMac = state != null ? state.hmac : hmac;
+        if (state == null) {
+            deriveTerminalKey(master, terminalId, key);
+            hmac.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+        }
+
+        int limit = packet.limit();
+        packet.limit(SIGNED_LENGTH);
+        terminalMac.update(packet);
+        terminalMac.doFinal(digest, 0);
+        packet.limit(limit);
+        packet.get(signature);
+        if (!constantTimeEquals(digest, signature)) {
+            return false;
+        }
+
+        long timestamp = Integer.toUnsignedLong(packet.getInt(9));
+        long uptime = Integer.toUnsignedLong(packet.getInt(13));
+        int currentChannel = packet.getInt(17);
+
+        if (Math.abs(System.currentTimeMillis() / 1000 - timestamp) > MAX_CLOCK_SKEW_SECONDS) {
+            return false;
+        }
+        if (state == null) {
+            Mac verified = Mac.getInstance(HMAC_ALGORITHM);
+            verified.init(new SecretKeySpec(key, HMAC_ALGORITHM));
+            state = new TerminalState(verified);
+            terminals.put(terminalId, state);
+        } else if (timestamp <= state.lastTimestamp) {
+            return false;
+        }
+        state.lastTimestamp = timestamp;
+        return heartbeatBuffer.record(terminalId, uptime, currentChannel != 0 ? (long) currentChannel : null);
+    }
+
+    private static boolean constantTimeEquals(byte[] digest, byte[] signature) {
+        int diff = 0;
+        for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+            diff |= digest[i] ^ signature[i];
+        }
+        return diff == 0;
+    }
+}
@@ -10,4 +10,5 @@ public class AuthResponse {
     private String refreshToken;
     private Long expiresIn;
     private Long terminalId;
+    private String heartbeatKey;   // UDP heartbeat signing key, null when UDP heartbeats are off
 }
\ No newline at end of file
@@ -7,8 +7,10 @@ import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
 import io.jsonwebtoken.security.Keys;
 import io.jsonwebtoken.security.SignatureException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
@@ -138,6 +140,29 @@ public class JwtTokenProvider {
         }
     }
 
+    /**
+     * Terminal id carried by a valid terminal access token, null for any other token
+     */
+    public Long resolveTerminalId(String token) {
+        if (token == null || !validateToken(token)) {
+            return null;
+        }
+        Claims claims = parseTokenClaims(token);
+        Object terminalId = claims.get("terminalId");
+        if (!"TERMINAL".equals(claims.get("type")) || !(terminalId instanceof Number)) {
+            return null;
+        }
+        return ((Number) terminalId).longValue();
+    }
+
+    /**
+     * Terminal id of the request's bearer token, null without a valid terminal access token
+     */
+    public Long resolveTerminalId(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        return header != null && header.startsWith("Bearer ") ? resolveTerminalId(header.substring(7)) : null;
+    }
+
     public boolean isRefreshToken(String token) {
         try {
             Claims claims = Jwts.parser()
@@ -2,8 +2,12 @@ package com.tvboot.tivio.terminal.auth;
 
 import com.tvboot.tivio.common.exception.TerminalNotActivatedException;
 import com.tvboot.tivio.common.exception.UnauthorizedTerminalException;
-import com.tvboot.tivio.terminal.Terminal;
+import com.tvboot.tivio.terminal.TerminalHeartbeatBuffer;
+import com.tvboot.tivio.terminal.TerminalRegistry;
 import com.tvboot.tivio.terminal.TerminalRepository;
+import com.tvboot.tivio.terminal.TerminalView;
+import com.tvboot.tivio.terminal.UdpHeartbeatListener;
+import com.tvboot.tivio.terminal.network.Subnet;
 import lombok.RequiredArgsConstructor;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -17,6 +21,9 @@ import java.time.LocalDateTime;
 public class TerminalAuthenticationService {
 
     private final TerminalRepository terminalRepository;
+    private final TerminalRegistry terminalRegistry;
+    private final TerminalHeartbeatBuffer heartbeatBuffer;
+    private final UdpHeartbeatListener udpHeartbeatListener;
     private final JwtTokenProvider jwtTokenProvider;
     private final PasswordEncoder passwordEncoder;
 
@@ -24,24 +31,26 @@ public class TerminalAuthenticationService {
     private long terminalTokenExpiration;
 
     public AuthResponse authenticateTerminal(TerminalAuthRequest request) {
-        // Validation du terminal
-        Terminal terminal = terminalRepository
-                .findByMacAddressAndTerminalCode(
-                        request.getMacAddress(),
-                        request.getTerminalCode()
-                )
+        // Validation du terminal (registre en mémoire, sans requête)
+        TerminalView terminal = terminalRegistry.findByMacAddress(request.getMacAddress())
+                .filter(view -> view.getTerminalCode().equals(request.getTerminalCode()))
                 .orElseThrow(() -> new UnauthorizedTerminalException("Invalid terminal credentials"));
 
         // Vérifier si le terminal est actif
-        if (!terminal.getActive()) {
+        if (!terminal.isActive()) {
             throw new TerminalNotActivatedException("Terminal not activated");
         }
 
-        // Mise à jour statut
-        terminal.setLastSeen(LocalDateTime.now());
-        terminal.setIsOnline(true);
-        terminal.setIpAddress(request.getIpAddress());
-        terminalRepository.save(terminal);
+        // Mise à jour statut : last_seen / is_online par l'écriture groupée des heartbeats,
+        // l'adresse IP seulement si elle a changé
+        heartbeatBuffer.record(terminal.getId());
+        heartbeatBuffer.recordAppVersion(terminal.getId(), request.getAppVersion());
+        // The column is inet: ignore forwarded values that are not an address
+        if (Subnet.parseIpLiteral(request.getIpAddress()) != null
+                && !request.getIpAddress().equals(terminal.getIpAddress())) {
+            terminalRepository.updateIpAddress(terminal.getId(), request.getIpAddress(), LocalDateTime.now());
+            terminalRegistry.updateIpAddress(terminal.getId(), request.getIpAddress());
+        }
 
         // Génération du token avec rôle TERMINAL
         String token = jwtTokenProvider.createTerminalToken(
@@ -55,10 +64,11 @@ public class TerminalAuthenticationService {
                 .refreshToken(generateRefreshToken(terminal))
                 .expiresIn(terminalTokenExpiration)
                 .terminalId(terminal.getId())
+                .heartbeatKey(udpHeartbeatListener.getTerminalKey(terminal.getId()).orElse(null))
                 .build();
     }
 
-    private String generateRefreshToken(Terminal terminal) {
+    private String generateRefreshToken(TerminalView terminal) {
         // Token de refresh avec durée plus longue (1 an)
         return jwtTokenProvider.createRefreshToken(
                 terminal.getTerminalCode(),
@@ -79,10 +89,10 @@ public class TerminalAuthenticationService {
         String terminalCode = jwtTokenProvider.getTerminalCodeFromRefreshToken(refreshToken);
 
         // Find the terminal by code
-        Terminal terminal = terminalRepository.findByTerminalCode(terminalCode)
+        TerminalView terminal = terminalRegistry.findByTerminalCode(terminalCode)
                 .orElseThrow(() -> new UnauthorizedTerminalException("Terminal not found"));
 
-        if (!Boolean.TRUE.equals(terminal.getActive())) {
+        if (!terminal.isActive()) {
             throw new TerminalNotActivatedException("Terminal not activated");
         }
 
@@ -98,9 +108,8 @@ public class TerminalAuthenticationService {
                 31536000L // 1 year again
         );
 
-        // Update terminal's last seen timestamp
-        terminal.setLastSeen(LocalDateTime.now());
-        terminalRepository.save(terminal);
+        // Update terminal's last seen timestamp (buffered)
+        heartbeatBuffer.record(terminal.getId());
 
         // Return new tokens
         return AuthResponse.builder()
@@ -108,6 +117,7 @@ public class TerminalAuthenticationService {
                 .refreshToken(newRefreshToken)
                 .expiresIn(terminalTokenExpiration)
                 .terminalId(terminal.getId())
+                .heartbeatKey(udpHeartbeatListener.getTerminalKey(terminal.getId()).orElse(null))
                 .build();
     }
 }
\ No newline at end of file
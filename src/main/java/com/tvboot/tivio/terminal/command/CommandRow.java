@@ -0,0 +1,11 @@
+package com.tvboot.tivio.terminal.command;
+
+/**
+ * Command as needed for delivery, returned by the bulk statements
+ */
+public interface CommandRow {
+    Long getId();
+    Long getTerminalId();
+    String getCommandType();
+    String getPayload();
+}
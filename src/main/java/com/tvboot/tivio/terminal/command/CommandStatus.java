@@ -0,0 +1,9 @@
+package com.tvboot.tivio.terminal.command;
+
+public enum CommandStatus {
+    PENDING,        // queued, waiting for a connection
+    SENT,           // pushed, waiting for the acknowledgement
+    ACKNOWLEDGED,   // executed by the terminal
+    FAILED,         // refused by the terminal or never acknowledged
+    EXPIRED         // not delivered before expiresAt
+}
@@ -0,0 +1,5 @@
+package com.tvboot.tivio.terminal.command;
+
+public enum CommandType {
+    REBOOT, REFRESH_LINEUP, SWITCH_CHANNEL, SET_VOLUME, SHOW_MESSAGE
+}
@@ -0,0 +1,57 @@
+package com.tvboot.tivio.terminal.command;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "terminal_commands")
+public class TerminalCommand {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "terminal_id", nullable = false)
+    private Long terminalId;
+
+    // Commands created by the same request share a batch id
+    @Column(name = "batch_id", nullable = false, length = 36)
+    private String batchId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "command_type", nullable = false, length = 30)
+    private CommandType commandType;
+
+    @Column(name = "payload", columnDefinition = "TEXT")
+    private String payload; // JSON
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private CommandStatus status;
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Column(name = "error")
+    private String error;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "acknowledged_at")
+    private LocalDateTime acknowledgedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,73 @@
+package com.tvboot.tivio.terminal.command;
+
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import com.tvboot.tivio.terminal.command.dto.CommandBatchDto;
+import com.tvboot.tivio.terminal.command.dto.TerminalCommandRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/terminals/commands")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class TerminalCommandController {
+
+    private final TerminalCommandService commandService;
+
+    /**
+     * Send a command to a set of terminals (ids, rooms, floors, device types, or all)
+     */
+    @PostMapping
+    public ResponseEntity<TvBootHttpResponse> dispatch(@Valid @RequestBody TerminalCommandRequest request) {
+        log.info("Dispatching command {} to {}", request.getType(), request.getTarget());
+
+        try {
+            CommandBatchDto batch = commandService.dispatch(request);
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Command queued for " + batch.getTargeted() + " terminals")
+                    .build()
+                    .addData("batch", batch)
+                    .addCount(batch.getTargeted());
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid command request: {}", e.getMessage());
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error dispatching command {}", request.getType(), e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to dispatch command",
+                    e.getMessage()
+            );
+        }
+    }
+
+    @GetMapping("/batches/{batchId}")
+    public ResponseEntity<TvBootHttpResponse> getBatch(@PathVariable String batchId) {
+        try {
+            CommandBatchDto batch = commandService.getBatch(batchId);
+            if (batch.getTargeted() == 0) {
+                return TvBootHttpResponse.notFoundResponse("Command batch not found: " + batchId);
+            }
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Command batch retrieved successfully")
+                    .build()
+                    .addData("batch", batch);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error retrieving command batch {}", batchId, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve command batch",
+                    e.getMessage()
+            );
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.tvboot.tivio.terminal.command;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tvboot.tivio.terminal.command.dto.CommandMessageDto;
+import com.tvboot.tivio.terminal.presence.TerminalConnectionRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.socket.TextMessage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes queued commands over the terminals' WebSocket connections.
+ * <p>
+ * A fan-out is split into chunks sent in parallel on virtual threads, so a command to
+ * every TV of the hotel leaves in well under a second; the delivered commands are then
+ * marked SENT with one statement. Commands for disconnected terminals stay PENDING
+ * until the terminal connects again, when they are sent together in one message.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalCommandDispatcher {
+
+    private static final int CHUNK_SIZE = 100;
+
+    private final TerminalConnectionRegistry connectionRegistry;
+    private final TerminalCommandRepository commandRepository;
+    private final ObjectMapper objectMapper;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCommandsQueued(TerminalCommandsQueuedEvent event) {
+        long start = System.currentTimeMillis();
+        int sent = deliver(event.getCommands());
+        log.info("Command batch {}: {} of {} delivered in {}ms",
+                event.getBatchId(), sent, event.getCommands().size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * Push each command to its terminal if connected, one command per terminal
+     *
+     * @return the number of commands delivered
+     */
+    public int deliver(List<CommandRow> commands) {
+        List<CommandRow> connected = commands.stream()
+                .filter(command -> connectionRegistry.isConnected(command.getTerminalId()))
+                .toList();
+        if (connected.isEmpty()) {
+            return 0;
+        }
+
+        Queue<Long> delivered = new ConcurrentLinkedQueue<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int from = 0; from < connected.size(); from += CHUNK_SIZE) {
+                List<CommandRow> chunk = connected.subList(from, Math.min(from + CHUNK_SIZE, connected.size()));
+                executor.submit(() -> chunk.forEach(command -> {
+                    TextMessage message = toMessage("COMMAND", toDto(command));
+                    if (message != null && connectionRegistry.send(command.getTerminalId(), message)) {
+                        delivered.add(command.getId());
+                    }
+                }));
+            }
+        }
+
+        markSent(new ArrayList<>(delivered));
+        return delivered.size();
+    }
+
+    /**
+     * Everything queued for a terminal, in one COMMANDS message (called on connection)
+     */
+    public void deliverPending(Long terminalId) {
+        List<CommandRow> pending = commandRepository.findPending(terminalId, LocalDateTime.now());
+        if (pending.isEmpty()) {
+            return;
+        }
+        TextMessage message = toMessage("COMMANDS", pending.stream().map(this::toDto).toList());
+        if (message != null && connectionRegistry.send(terminalId, message)) {
+            markSent(pending.stream().map(CommandRow::getId).toList());
+            log.debug("{} pending commands delivered to terminal {}", pending.size(), terminalId);
+        }
+    }
+
+    private void markSent(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            commandRepository.markSent(ids.toArray(new Long[0]), LocalDateTime.now());
+        }
+    }
+
+    private CommandMessageDto toDto(CommandRow command) {
+        return CommandMessageDto.builder()
+                .commandId(command.getId())
+                .command(command.getCommandType())
+                .payload(command.getPayload())
+                .build();
+    }
+
+    private TextMessage toMessage(String type, Object content) {
+        try {
+            String key = "COMMAND".equals(type) ? "command" : "commands";
+            return new TextMessage(objectMapper.writeValueAsString(Map.of("type", type, key, content)));
+        } catch (JsonProcessingException e) {
+            log.error("Unable to serialize {} message: {}", type, e.getMessage());
+            return null;
+        }
+    }
+}
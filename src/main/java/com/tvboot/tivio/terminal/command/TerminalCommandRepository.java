@@ -0,0 +1,78 @@
+package com.tvboot.tivio.terminal.command;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TerminalCommandRepository extends JpaRepository<TerminalCommand, Long> {
+
+    // Fan-out in one statement: one PENDING command per target terminal
+    @Query(value = "INSERT INTO terminal_commands " +
+            "(terminal_id, batch_id, command_type, payload, status, attempts, created_at, expires_at) " +
+            "SELECT t.id, CAST(:batchId AS varchar), CAST(:commandType AS varchar), CAST(:payload AS text), " +
+            "'PENDING', 0, :now, :expiresAt " +
+            "FROM unnest(CAST(:terminalIds AS bigint[])) AS t(id) " +
+            "RETURNING id AS \"id\", terminal_id AS \"terminalId\", " +
+            "command_type AS \"commandType\", payload AS \"payload\"", nativeQuery = true)
+    List<CommandRow> insertBatch(@Param("terminalIds") Long[] terminalIds,
+                                 @Param("batchId") String batchId,
+                                 @Param("commandType") String commandType,
+                                 @Param("payload") String payload,
+                                 @Param("now") LocalDateTime now,
+                                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Query(value = "SELECT id AS \"id\", terminal_id AS \"terminalId\", " +
+            "command_type AS \"commandType\", payload AS \"payload\" " +
+            "FROM terminal_commands " +
+            "WHERE terminal_id = :terminalId AND status = 'PENDING' AND expires_at > :now ORDER BY id",
+            nativeQuery = true)
+    List<CommandRow> findPending(@Param("terminalId") Long terminalId, @Param("now") LocalDateTime now);
+
+    // Only PENDING: an acknowledgement may already have arrived
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE terminal_commands SET status = 'SENT', sent_at = :now, attempts = attempts + 1 " +
+            "WHERE id = ANY(CAST(:ids AS bigint[])) AND status = 'PENDING'", nativeQuery = true)
+    int markSent(@Param("ids") Long[] ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TerminalCommand c SET c.status = :status, c.error = :error, c.acknowledgedAt = :now " +
+            "WHERE c.id = :id AND c.terminalId = :terminalId " +
+            "AND c.status IN (com.tvboot.tivio.terminal.command.CommandStatus.PENDING, " +
+            "com.tvboot.tivio.terminal.command.CommandStatus.SENT)")
+    int acknowledge(@Param("id") Long id, @Param("terminalId") Long terminalId,
+                    @Param("status") CommandStatus status, @Param("error") String error,
+                    @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE terminal_commands SET status = 'EXPIRED' " +
+            "WHERE status IN ('PENDING', 'SENT') AND expires_at <= :now", nativeQuery = true)
+    int expire(@Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE terminal_commands SET status = 'FAILED', error = 'No acknowledgement' " +
+            "WHERE status = 'SENT' AND sent_at < :sentBefore AND attempts >= :maxAttempts", nativeQuery = true)
+    int failUnacknowledged(@Param("sentBefore") LocalDateTime sentBefore, @Param("maxAttempts") int maxAttempts);
+
+    // Back to PENDING for another delivery attempt
+    @Transactional
+    @Query(value = "UPDATE terminal_commands SET status = 'PENDING' " +
+            "WHERE status = 'SENT' AND sent_at < :sentBefore AND attempts < :maxAttempts " +
+            "RETURNING id AS \"id\", terminal_id AS \"terminalId\", " +
+            "command_type AS \"commandType\", payload AS \"payload\"", nativeQuery = true)
+    List<CommandRow> requeueUnacknowledged(@Param("sentBefore") LocalDateTime sentBefore,
+                                           @Param("maxAttempts") int maxAttempts);
+
+    @Query("SELECT c.status, COUNT(c) FROM TerminalCommand c WHERE c.batchId = :batchId GROUP BY c.status")
+    List<Object[]> countByStatusForBatch(@Param("batchId") String batchId);
+}
@@ -0,0 +1,204 @@
+package com.tvboot.tivio.terminal.command;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tvboot.tivio.terminal.command.dto.CommandBatchDto;
+import com.tvboot.tivio.terminal.command.dto.CommandTargetDto;
+import com.tvboot.tivio.terminal.command.dto.TerminalCommandRequest;
+import com.tvboot.tivio.terminal.targeting.TargetField;
+import com.tvboot.tivio.terminal.targeting.TerminalBitmapIndex;
+import com.tvboot.tivio.terminal.targeting.dto.TargetExpressionDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Remote commands for terminals: targeting, persisted queue, acknowledgements and
+ * timeouts. Delivery itself is done by {@link TerminalCommandDispatcher} once the
+ * commands are committed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TerminalCommandService {
+
+    private static final int DEFAULT_TTL_SECONDS = 300;
+
+    private final TerminalCommandRepository commandRepository;
+    private final TerminalCommandDispatcher dispatcher;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final TerminalBitmapIndex bitmapIndex;
+
+    @Value("${app.terminal.commands.ack-timeout-seconds:30}")
+    private int ackTimeoutSeconds;
+
+    @Value("${app.terminal.commands.max-attempts:3}")
+    private int maxAttempts;
+
+    /**
+     * Queue one command per targeted terminal and push it to the connected ones
+     */
+    @Transactional
+    public CommandBatchDto dispatch(TerminalCommandRequest request) {
+        String payload = validatePayload(request.getType(), request.getPayload());
+        List<Long> terminalIds = resolveTargets(request.getTarget());
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusSeconds(
+                request.getTtlSeconds() != null ? request.getTtlSeconds() : DEFAULT_TTL_SECONDS);
+        String batchId = UUID.randomUUID().toString();
+
+        List<CommandRow> commands = terminalIds.isEmpty()
+                ? List.of()
+                : commandRepository.insertBatch(terminalIds.toArray(new Long[0]), batchId,
+                        request.getType().name(), payload, now, expiresAt);
+
+        log.info("Command {} queued for {} terminals (batch {})", request.getType(), commands.size(), batchId);
+        eventPublisher.publishEvent(new TerminalCommandsQueuedEvent(batchId, commands));
+
+        return CommandBatchDto.builder()
+                .batchId(batchId)
+                .type(request.getType())
+                .targeted(commands.size())
+                .expiresAt(expiresAt)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public CommandBatchDto getBatch(String batchId) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        long total = 0;
+        for (Object[] row : commandRepository.countByStatusForBatch(batchId)) {
+            counts.put(row[0].toString(), (Long) row[1]);
+            total += (Long) row[1];
+        }
+        return CommandBatchDto.builder()
+                .batchId(batchId)
+                .targeted((int) total)
+                .statusCounts(counts)
+                .build();
+    }
+
+    /**
+     * Acknowledgement received from the terminal
+     */
+    public void acknowledge(Long terminalId, Long commandId, boolean success, String error) {
+        int updated = commandRepository.acknowledge(commandId, terminalId,
+                success ? CommandStatus.ACKNOWLEDGED : CommandStatus.FAILED,
+                success ? null : truncate(error), LocalDateTime.now());
+        if (updated == 0) {
+            log.debug("Late or unknown acknowledgement of command {} from terminal {}", commandId, terminalId);
+        }
+    }
+
+    /**
+     * Expire old commands, retry unacknowledged ones, give up after max-attempts
+     */
+    @Scheduled(fixedDelay = 10000)
+    public void processTimeouts() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime sentBefore = now.minusSeconds(ackTimeoutSeconds);
+
+        int expired = commandRepository.expire(now);
+        int failed = commandRepository.failUnacknowledged(sentBefore, maxAttempts);
+        List<CommandRow> retried = commandRepository.requeueUnacknowledged(sentBefore, maxAttempts);
+        if (!retried.isEmpty()) {
+            dispatcher.deliver(retried);
+        }
+
+        if (expired > 0 || failed > 0 || !retried.isEmpty()) {
+            log.info("Command timeouts: {} expired, {} failed, {} retried", expired, failed, retried.size());
+        }
+    }
+
+    /**
+     * Active terminals matching every given criterion, evaluated on the bitmap index
+     */
+    private List<Long> resolveTargets(CommandTargetDto target) {
+        List<TargetExpressionDto> operands = new ArrayList<>();
+        operands.add(test(TargetField.ACTIVE, List.of("true")));
+
+        if (!isEmpty(target.getDeviceTypes())) {
+            operands.add(test(TargetField.DEVICE_TYPE, target.getDeviceTypes().stream().map(Enum::name).toList()));
+        }
+        if (!isEmpty(target.getRoomIds())) {
+            operands.add(test(TargetField.ROOM, target.getRoomIds().stream().map(String::valueOf).toList()));
+        }
+        if (!isEmpty(target.getFloors())) {
+            operands.add(test(TargetField.FLOOR, target.getFloors().stream().map(String::valueOf).toList()));
+        }
+        if (target.getExpression() != null) {
+            operands.add(target.getExpression());
+        }
+        if (operands.size() == 1 && isEmpty(target.getTerminalIds()) && !target.isAll()) {
+            throw new IllegalArgumentException(
+                    "No target given: set terminalIds, roomIds, floors, deviceTypes, expression or all");
+        }
+
+        List<Long> terminalIds = bitmapIndex.evaluate(TargetExpressionDto.builder()
+                .op("AND")
+                .operands(operands)
+                .build());
+        if (!isEmpty(target.getTerminalIds())) {
+            Set<Long> requested = new HashSet<>(target.getTerminalIds());
+            terminalIds = terminalIds.stream().filter(requested::contains).toList();
+        }
+        return terminalIds;
+    }
+
+    private static TargetExpressionDto test(TargetField field, List<String> values) {
+        return TargetExpressionDto.builder().field(field).values(values).build();
+    }
+
+    private String validatePayload(CommandType type, Map<String, Object> payload) {
+        Map<String, Object> values = payload != null ? payload : Map.of();
+        switch (type) {
+            case SWITCH_CHANNEL -> {
+                if (!(values.get("channelId") instanceof Number)) {
+                    throw new IllegalArgumentException("SWITCH_CHANNEL requires a numeric channelId");
+                }
+            }
+            case SET_VOLUME -> {
+                if (!(values.get("volume") instanceof Number volume)
+                        || volume.intValue() < 0 || volume.intValue() > 100) {
+                    throw new IllegalArgumentException("SET_VOLUME requires a volume between 0 and 100");
+                }
+            }
+            case SHOW_MESSAGE -> {
+                if (!(values.get("text") instanceof String text) || text.isBlank()) {
+                    throw new IllegalArgumentException("SHOW_MESSAGE requires a text");
+                }
+            }
+            default -> {
+                // REBOOT, REFRESH_LINEUP: no parameter
+            }
+        }
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid command payload: " + e.getMessage());
+        }
+    }
+
+    private static boolean isEmpty(List<?> list) {
+        return list == null || list.isEmpty();
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > 255 ? error.substring(0, 255) : error;
+    }
+}
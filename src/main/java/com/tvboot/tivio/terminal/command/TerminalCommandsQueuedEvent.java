@@ -0,0 +1,16 @@
+package com.tvboot.tivio.terminal.command;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Commands committed to the queue, ready to be pushed
+ */
+@Getter
+@AllArgsConstructor
+public class TerminalCommandsQueuedEvent {
+    private final String batchId;
+    private final List<CommandRow> commands;
+}
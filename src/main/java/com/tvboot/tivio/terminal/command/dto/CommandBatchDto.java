@@ -0,0 +1,22 @@
+package com.tvboot.tivio.terminal.command.dto;
+
+import com.tvboot.tivio.terminal.command.CommandType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommandBatchDto {
+    private String batchId;
+    private CommandType type;
+    private Integer targeted;
+    private LocalDateTime expiresAt;
+    private Map<String, Long> statusCounts;
+}
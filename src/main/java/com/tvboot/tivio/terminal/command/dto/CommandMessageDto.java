@@ -0,0 +1,24 @@
+package com.tvboot.tivio.terminal.command.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A command as pushed to the terminal, which answers
+ * {@code {"type":"ACK","commandId":..,"success":true|false,"error":".."}}
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CommandMessageDto {
+    private Long commandId;
+    private String command;
+    @JsonRawValue
+    private String payload;
+}
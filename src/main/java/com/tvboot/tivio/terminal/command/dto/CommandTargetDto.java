@@ -0,0 +1,28 @@
+package com.tvboot.tivio.terminal.command.dto;
+
+import com.tvboot.tivio.common.enumeration.DeviceType;
+import com.tvboot.tivio.terminal.targeting.dto.TargetExpressionDto;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Terminals matching every given criterion; {@code all} must be set explicitly to
+ * target the whole hotel. {@code expression} takes any AND / OR / NOT combination of
+ * fields (online status, room type, app version...).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommandTargetDto {
+    private List<Long> terminalIds;
+    private List<Long> roomIds;
+    private List<Integer> floors;
+    private List<DeviceType> deviceTypes;
+    private TargetExpressionDto expression;
+    private boolean all;
+}
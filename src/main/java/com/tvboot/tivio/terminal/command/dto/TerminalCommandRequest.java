@@ -0,0 +1,34 @@
+package com.tvboot.tivio.terminal.command.dto;
+
+import com.tvboot.tivio.terminal.command.CommandType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TerminalCommandRequest {
+
+    @NotNull(message = "Command type is required")
+    private CommandType type;
+
+    // SWITCH_CHANNEL: channelId, SET_VOLUME: volume (0-100), SHOW_MESSAGE: text, durationSeconds
+    private Map<String, Object> payload;
+
+    @NotNull(message = "Target is required")
+    @Valid
+    private CommandTargetDto target;
+
+    @Min(value = 10, message = "TTL must be at least 10 seconds")
+    @Max(value = 86400, message = "TTL must not exceed 24 hours")
+    private Integer ttlSeconds;
+}
@@ -0,0 +1,44 @@
+package com.tvboot.tivio.terminal.distribution;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "app_packages")
+public class AppPackage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "app_version", nullable = false, length = 20)
+    private String appVersion;
+
+    @Column(name = "platform", nullable = false, length = 20)
+    private String platform;
+
+    // Stored under {base-dir}/packages/{platform}/{appVersion}/
+    @Column(name = "file_name", nullable = false)
+    private String fileName;
+
+    @Column(name = "file_size", nullable = false)
+    private Long fileSize;
+
+    // Hex digest, also the download ETag
+    @Column(name = "sha256", nullable = false, length = 64)
+    private String sha256;
+
+    @Column(name = "notes", columnDefinition = "TEXT")
+    private String notes;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
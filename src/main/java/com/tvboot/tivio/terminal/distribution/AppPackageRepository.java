@@ -0,0 +1,17 @@
+package com.tvboot.tivio.terminal.distribution;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface AppPackageRepository extends JpaRepository<AppPackage, Long> {
+
+    Optional<AppPackage> findByPlatformAndAppVersion(String platform, String appVersion);
+
+    boolean existsByPlatformAndAppVersion(String platform, String appVersion);
+
+    List<AppPackage> findAllByOrderByCreatedAtDesc();
+}
@@ -0,0 +1,240 @@
+package com.tvboot.tivio.terminal.distribution;
+
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import com.tvboot.tivio.terminal.auth.JwtTokenProvider;
+import com.tvboot.tivio.terminal.distribution.dto.AppPackageDto;
+import com.tvboot.tivio.terminal.distribution.dto.PackageUpdateDto;
+import com.tvboot.tivio.terminal.distribution.dto.RolloutDto;
+import com.tvboot.tivio.terminal.distribution.dto.RolloutProgressDto;
+import com.tvboot.tivio.terminal.distribution.dto.RolloutRequest;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+@RestController
+@RequestMapping("/terminals/packages")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class PackageDistributionController {
+
+    private final PackageDistributionService distributionService;
+    private final JwtTokenProvider tokenProvider;
+
+    /**
+     * Register a package, the file being the raw request body (no multipart: builds are
+     * larger than the multipart limits of the other uploads)
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<TvBootHttpResponse> registerPackage(@RequestParam String platform,
+                                                              @RequestParam String appVersion,
+                                                              @RequestParam String fileName,
+                                                              @RequestParam(required = false) String notes,
+                                                              HttpServletRequest request) {
+        log.info("Registering package {} {} ({})", platform, appVersion, fileName);
+
+        try {
+            AppPackageDto appPackage = distributionService.registerPackage(
+                    platform, appVersion, fileName, notes, request.getInputStream());
+
+            TvBootHttpResponse response = TvBootHttpResponse.created()
+                    .message("Package registered successfully")
+                    .build()
+                    .addData("package", appPackage);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid package upload: {}", e.getMessage());
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error registering package {} {}", platform, appVersion, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to register package",
+                    e.getMessage()
+            );
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<TvBootHttpResponse> getPackages() {
+        try {
+            List<AppPackageDto> packages = distributionService.getPackages();
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Packages retrieved successfully")
+                    .build()
+                    .addData("packages", packages)
+                    .addCount(packages.size());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error retrieving packages", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve packages",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Update check by a terminal: the package to install, if its platform has a rollout
+     * that includes it. The reported version also counts towards rollout progress.
+     */
+    @GetMapping("/update")
+    public ResponseEntity<TvBootHttpResponse> checkForUpdate(@RequestParam(required = false) String currentVersion,
+                                                             HttpServletRequest request) {
+        Long terminalId = tokenProvider.resolveTerminalId(request);
+        if (terminalId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(TvBootHttpResponse.unauthorized("Terminal token required").build());
+        }
+
+        try {
+            Optional<PackageUpdateDto> update = distributionService.checkForUpdate(terminalId, currentVersion);
+            if (update.isEmpty()) {
+                return TvBootHttpResponse.ok("Terminal is up to date");
+            }
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Update available")
+                    .build()
+                    .addData("update", update.get());
+
+            return ResponseEntity.ok(response);
+        } catch (EntityNotFoundException e) {
+            return TvBootHttpResponse.notFoundResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error checking updates for terminal {}", terminalId, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to check for updates",
+                    e.getMessage()
+            );
+        }
+    }
+
+    @PostMapping("/rollouts")
+    public ResponseEntity<TvBootHttpResponse> createRollout(@Valid @RequestBody RolloutRequest request) {
+        log.info("Creating rollout of package {} in waves {}", request.getPackageId(), request.getWaves());
+
+        try {
+            RolloutDto rollout = distributionService.createRollout(request);
+
+            TvBootHttpResponse response = TvBootHttpResponse.created()
+                    .message("Rollout started at " + rollout.getPercentage() + "% of " + rollout.getPlatform())
+                    .build()
+                    .addData("rollout", rollout);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid rollout request: {}", e.getMessage());
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (EntityNotFoundException e) {
+            return TvBootHttpResponse.notFoundResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error creating rollout of package {}", request.getPackageId(), e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to create rollout",
+                    e.getMessage()
+            );
+        }
+    }
+
+    @GetMapping("/rollouts")
+    public ResponseEntity<TvBootHttpResponse> getRollouts() {
+        try {
+            List<RolloutDto> rollouts = distributionService.getRollouts();
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Rollouts retrieved successfully")
+                    .build()
+                    .addData("rollouts", rollouts)
+                    .addCount(rollouts.size());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error retrieving rollouts", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve rollouts",
+                    e.getMessage()
+            );
+        }
+    }
+
+    @GetMapping("/rollouts/{id}/progress")
+    public ResponseEntity<TvBootHttpResponse> getProgress(@PathVariable Long id) {
+        try {
+            RolloutProgressDto progress = distributionService.getProgress(id);
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Rollout progress retrieved successfully")
+                    .build()
+                    .addData("progress", progress);
+
+            return ResponseEntity.ok(response);
+        } catch (EntityNotFoundException e) {
+            return TvBootHttpResponse.notFoundResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error retrieving progress of rollout {}", id, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve rollout progress",
+                    e.getMessage()
+            );
+        }
+    }
+
+    @PostMapping("/rollouts/{id}/advance")
+    public ResponseEntity<TvBootHttpResponse> advance(@PathVariable Long id) {
+        return changeRollout(id, "advance", distributionService::advance);
+    }
+
+    @PostMapping("/rollouts/{id}/pause")
+    public ResponseEntity<TvBootHttpResponse> pause(@PathVariable Long id) {
+        return changeRollout(id, "pause", distributionService::pause);
+    }
+
+    @PostMapping("/rollouts/{id}/resume")
+    public ResponseEntity<TvBootHttpResponse> resume(@PathVariable Long id) {
+        return changeRollout(id, "resume", distributionService::resume);
+    }
+
+    @PostMapping("/rollouts/{id}/cancel")
+    public ResponseEntity<TvBootHttpResponse> cancel(@PathVariable Long id) {
+        return changeRollout(id, "cancel", distributionService::cancel);
+    }
+
+    private ResponseEntity<TvBootHttpResponse> changeRollout(Long id, String action,
+                                                             Function<Long, RolloutDto> change) {
+        log.info("Rollout {}: {}", id, action);
+
+        try {
+            RolloutDto rollout = change.apply(id);
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Rollout " + rollout.getStatus() + " at " + rollout.getPercentage() + "%")
+                    .build()
+                    .addData("rollout", rollout);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (EntityNotFoundException e) {
+            return TvBootHttpResponse.notFoundResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error applying {} to rollout {}", action, id, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to " + action + " rollout",
+                    e.getMessage()
+            );
+        }
+    }
+}
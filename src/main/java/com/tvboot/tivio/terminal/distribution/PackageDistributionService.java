@@ -0,0 +1,485 @@
+package com.tvboot.tivio.terminal.distribution;
+
+import com.tvboot.tivio.terminal.TerminalHeartbeatBuffer;
+import com.tvboot.tivio.terminal.distribution.dto.AppPackageDto;
+import com.tvboot.tivio.terminal.distribution.dto.PackageUpdateDto;
+import com.tvboot.tivio.terminal.distribution.dto.RolloutDto;
+import com.tvboot.tivio.terminal.distribution.dto.RolloutProgressDto;
+import com.tvboot.tivio.terminal.distribution.dto.RolloutRequest;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * TV app / firmware packages and their staged rollouts.
+ * <p>
+ * A rollout offers a package to a growing share of the terminals of its platform, wave
+ * after wave (5%, 25%, 50%, 100%...). Whether a terminal is in the current share is a
+ * stable hash of its id and the rollout id, so the cohort of a wave contains the cohort
+ * of the previous one and a terminal never flips in and out. Terminals poll for updates
+ * and report their app version with their heartbeats, which gives the progress.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PackageDistributionService {
+
+    private static final Pattern NAME_SEGMENT = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,19}");
+    private static final Pattern VERSION_SEPARATOR = Pattern.compile("[._-]");
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9._-]{0,254}");
+    private static final List<String> ALLOWED_EXTENSIONS = List.of("apk", "wgt", "ipk", "zip", "bin", "img", "pkg");
+    private static final int MAX_WAVES = 10;
+
+    private final AppPackageRepository packageRepository;
+    private final PackageRolloutRepository rolloutRepository;
+    private final TerminalHeartbeatBuffer heartbeatBuffer;
+
+    @Value("${app.file.base-dir:uploads}")
+    private String baseDirectory;
+
+    @Value("${app.terminal.distribution.max-package-size:1GB}")
+    private DataSize maxPackageSize;
+
+    /**
+     * Package file as needed by the download endpoint
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class PackageFile {
+        private final Path path;
+        private final String fileName;
+        private final long size;
+        private final String sha256;
+    }
+
+    /**
+     * Store an uploaded package and register it
+     *
+     * @throws IllegalArgumentException if the names are invalid, the package already
+     *                                  exists or the file is too large
+     */
+    public AppPackageDto registerPackage(String platform, String appVersion, String fileName,
+                                         String notes, InputStream content) throws IOException {
+        requireName(platform, "platform");
+        requireName(appVersion, "appVersion");
+        if (fileName == null || !FILE_NAME.matcher(fileName).matches()
+                || !ALLOWED_EXTENSIONS.contains(extensionOf(fileName))) {
+            throw new IllegalArgumentException("Invalid package file name, expected one of " + ALLOWED_EXTENSIONS);
+        }
+        if (packageRepository.existsByPlatformAndAppVersion(platform, appVersion)) {
+            throw new IllegalArgumentException("Package " + appVersion + " already registered for " + platform);
+        }
+
+        Path directory = packageDirectory(platform, appVersion);
+        Files.createDirectories(directory);
+        Path target = directory.resolve(fileName);
+        // Unique per upload: concurrent uploads of the same version never share it
+        Path partial = Files.createTempFile(directory, fileName + ".", ".part");
+
+        // Written under a temporary name, digested on the way, then moved in place once
+        // the row is inserted, so only the upload that wins the unique constraint does it
+        MessageDigest digest = sha256();
+        long size = 0;
+        long limit = maxPackageSize.toBytes();
+        try (OutputStream out = Files.newOutputStream(partial)) {
+            byte[] buffer = new byte[64 * 1024];
+            int read;
+            while ((read = content.read(buffer)) > 0) {
+                size += read;
+                if (size > limit) {
+                    throw new IllegalArgumentException("Package exceeds " + maxPackageSize);
+                }
+                digest.update(buffer, 0, read);
+                out.write(buffer, 0, read);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        if (size == 0) {
+            Files.deleteIfExists(partial);
+            throw new IllegalArgumentException("Empty package");
+        }
+
+        AppPackage appPackage;
+        try {
+            appPackage = packageRepository.save(AppPackage.builder()
+                    .platform(platform)
+                    .appVersion(appVersion)
+                    .fileName(fileName)
+                    .fileSize(size)
+                    .sha256(HexFormat.of().formatHex(digest.digest()))
+                    .notes(notes)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            Files.deleteIfExists(partial);
+            throw new IllegalArgumentException("Package " + appVersion + " already registered for " + platform);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        try {
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            Files.deleteIfExists(partial);
+            packageRepository.delete(appPackage);
+            throw e;
+        }
+        log.info("Package {} {} registered ({} bytes, sha256 {})",
+                platform, appVersion, size, appPackage.getSha256());
+        return toDto(appPackage);
+    }
+
+    @Transactional(readOnly = true)
+    public List<AppPackageDto> getPackages() {
+        return packageRepository.findAllByOrderByCreatedAtDesc().stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Registered package whose file is on disk, for the download endpoint
+     */
+    @Transactional(readOnly = true)
+    public Optional<PackageFile> findPackageFile(String platform, String appVersion) {
+        if (!isName(platform) || !isName(appVersion)) {
+            return Optional.empty();
+        }
+        return packageRepository.findByPlatformAndAppVersion(platform, appVersion)
+                .map(appPackage -> new PackageFile(
+                        packageDirectory(platform, appVersion).resolve(appPackage.getFileName()),
+                        appPackage.getFileName(), appPackage.getFileSize(), appPackage.getSha256()))
+                .filter(file -> Files.isReadable(file.getPath()));
+    }
+
+    /**
+     * Start offering a package to the first wave of its platform
+     *
+     * @throws IllegalArgumentException if the waves are invalid or another rollout of the
+     *                                  platform is still open
+     */
+    @Transactional
+    public RolloutDto createRollout(RolloutRequest request) {
+        AppPackage appPackage = packageRepository.findById(request.getPackageId())
+                .orElseThrow(() -> new EntityNotFoundException("Package not found with id: " + request.getPackageId()));
+
+        List<Integer> waves = request.getWaves();
+        if (waves.size() > MAX_WAVES) {
+            throw new IllegalArgumentException("At most " + MAX_WAVES + " waves");
+        }
+        int previous = 0;
+        for (Integer wave : waves) {
+            if (wave == null || wave <= previous || wave > 100) {
+                throw new IllegalArgumentException("Waves must be ascending percentages between 1 and 100");
+            }
+            previous = wave;
+        }
+        if (rolloutRepository.existsByAppPackagePlatformAndStatusIn(appPackage.getPlatform(),
+                List.of(RolloutStatus.ACTIVE, RolloutStatus.PAUSED))) {
+            throw new IllegalArgumentException("A rollout is already open for platform " + appPackage.getPlatform()
+                    + ", complete or cancel it first");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        PackageRollout rollout = rolloutRepository.save(PackageRollout.builder()
+                .appPackage(appPackage)
+                .waves(waves.stream().map(String::valueOf).collect(Collectors.joining(",")))
+                .currentWave(0)
+                .status(RolloutStatus.ACTIVE)
+                .createdAt(now)
+                .updatedAt(now)
+                .build());
+        log.info("Rollout {} of {} {} started at {}%", rollout.getId(),
+                appPackage.getPlatform(), appPackage.getAppVersion(), waves.get(0));
+        return toDto(rollout);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RolloutDto> getRollouts() {
+        return rolloutRepository.findAllByOrderByIdDesc().stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Move to the next wave; past the last one the rollout is completed
+     */
+    @Transactional
+    public RolloutDto advance(Long rolloutId) {
+        PackageRollout rollout = findRollout(rolloutId);
+        requireStatus(rollout, RolloutStatus.ACTIVE);
+        LocalDateTime now = LocalDateTime.now();
+        if (rollout.getCurrentWave() + 1 < parseWaves(rollout.getWaves()).size()) {
+            rollout.setCurrentWave(rollout.getCurrentWave() + 1);
+        } else {
+            rollout.setStatus(RolloutStatus.COMPLETED);
+            rollout.setCompletedAt(now);
+        }
+        rollout.setUpdatedAt(now);
+        log.info("Rollout {} now {} at {}%", rolloutId, rollout.getStatus(), percentageOf(rollout));
+        return toDto(rollout);
+    }
+
+    @Transactional
+    public RolloutDto pause(Long rolloutId) {
+        return transition(rolloutId, RolloutStatus.ACTIVE, RolloutStatus.PAUSED);
+    }
+
+    @Transactional
+    public RolloutDto resume(Long rolloutId) {
+        return transition(rolloutId, RolloutStatus.PAUSED, RolloutStatus.ACTIVE);
+    }
+
+    /**
+     * Withdraw a rollout, completed or not; the platform falls back to the previous one
+     */
+    @Transactional
+    public RolloutDto cancel(Long rolloutId) {
+        PackageRollout rollout = findRollout(rolloutId);
+        if (rollout.getStatus() == RolloutStatus.CANCELLED) {
+            throw new IllegalArgumentException("Rollout " + rolloutId + " is already cancelled");
+        }
+        rollout.setStatus(RolloutStatus.CANCELLED);
+        rollout.setUpdatedAt(LocalDateTime.now());
+        log.info("Rollout {} cancelled", rolloutId);
+        return toDto(rollout);
+    }
+
+    /**
+     * Terminals of the platform in the current wave, and how many of them report the
+     * package version
+     */
+    @Transactional(readOnly = true)
+    public RolloutProgressDto getProgress(Long rolloutId) {
+        PackageRollout rollout = findRollout(rolloutId);
+        String version = rollout.getAppPackage().getAppVersion();
+        int percentage = percentageOf(rollout);
+
+        int fleet = 0;
+        int eligible = 0;
+        int updated = 0;
+        int eligibleUpdated = 0;
+        Map<String, Integer> versions = new TreeMap<>();
+        for (PlatformTerminalRow row : rolloutRepository.findActiveTerminals(rollout.getAppPackage().getPlatform())) {
+            fleet++;
+            boolean inWave = bucketOf(row.getId(), rollout.getId()) < percentage;
+            boolean current = version.equals(row.getAppVersion());
+            if (inWave) eligible++;
+            if (current) updated++;
+            if (inWave && current) eligibleUpdated++;
+            versions.merge(row.getAppVersion() != null ? row.getAppVersion() : "UNKNOWN", 1, Integer::sum);
+        }
+
+        return RolloutProgressDto.builder()
+                .rollout(toDto(rollout))
+                .fleet(fleet)
+                .eligible(eligible)
+                .updated(updated)
+                .eligibleUpdated(eligibleUpdated)
+                .completion(eligible > 0 ? Math.round(eligibleUpdated * 1000.0 / eligible) / 10.0 : 100.0)
+                .versions(versions)
+                .build();
+    }
+
+    /**
+     * Package the terminal should install, if its platform has a rollout that includes it
+     * and it runs an older version. Never a downgrade: a terminal that installed a build
+     * whose rollout was then cancelled keeps it.
+     *
+     * @param reportedVersion version sent with the request, null to use the stored one
+     */
+    @Transactional(readOnly = true)
+    public Optional<PackageUpdateDto> checkForUpdate(Long terminalId, String reportedVersion) {
+        PlatformTerminalRow terminal = rolloutRepository.findTerminal(terminalId)
+                .orElseThrow(() -> new EntityNotFoundException("Terminal not found with id: " + terminalId));
+        boolean reported = reportedVersion != null && !reportedVersion.isBlank();
+        if (reported) {
+            heartbeatBuffer.recordAppVersion(terminalId, reportedVersion);
+        }
+        String currentVersion = reported ? reportedVersion.trim() : terminal.getAppVersion();
+        if (terminal.getPlatform() == null) {
+            return Optional.empty();
+        }
+
+        return rolloutRepository.findFirstByAppPackagePlatformAndStatusNotOrderByIdDesc(
+                        terminal.getPlatform(), RolloutStatus.CANCELLED)
+                .filter(rollout -> rollout.getStatus() == RolloutStatus.COMPLETED
+                        || (rollout.getStatus() == RolloutStatus.ACTIVE
+                        && bucketOf(terminalId, rollout.getId()) < percentageOf(rollout)))
+                .filter(rollout -> currentVersion == null
+                        || compareVersions(rollout.getAppPackage().getAppVersion(), currentVersion) > 0)
+                .map(rollout -> {
+                    AppPackage appPackage = rollout.getAppPackage();
+                    return PackageUpdateDto.builder()
+                            .rolloutId(rollout.getId())
+                            .appVersion(appPackage.getAppVersion())
+                            .platform(appPackage.getPlatform())
+                            .fileName(appPackage.getFileName())
+                            .fileSize(appPackage.getFileSize())
+                            .sha256(appPackage.getSha256())
+                            .downloadPath(downloadPath(appPackage))
+                            .build();
+                });
+    }
+
+    /**
+     * Compare dotted versions segment by segment, numerically when both segments are
+     * numbers ("2.10.0" > "2.9.1"); missing segments count as 0
+     */
+    static int compareVersions(String a, String b) {
+        String[] left = VERSION_SEPARATOR.split(a.trim());
+        String[] right = VERSION_SEPARATOR.split(b.trim());
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            String l = i < left.length ? left[i] : "0";
+            String r = i < right.length ? right[i] : "0";
+            int cmp = l.chars().allMatch(Character::isDigit) && r.chars().allMatch(Character::isDigit)
+                    && !l.isEmpty() && !r.isEmpty()
+                    ? new BigInteger(l).compareTo(new BigInteger(r))
+                    : l.compareToIgnoreCase(r);
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Stable bucket in [0, 100) of a terminal for a rollout (SplitMix64 finalizer)
+     */
+    static int bucketOf(long terminalId, long rolloutId) {
+        long h = terminalId * 0x9E3779B97F4A7C15L + rolloutId;
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h ^= h >>> 31;
+        return (int) Long.remainderUnsigned(h, 100);
+    }
+
+    private RolloutDto transition(Long rolloutId, RolloutStatus from, RolloutStatus to) {
+        PackageRollout rollout = findRollout(rolloutId);
+        requireStatus(rollout, from);
+        rollout.setStatus(to);
+        rollout.setUpdatedAt(LocalDateTime.now());
+        log.info("Rollout {} {}", rolloutId, to);
+        return toDto(rollout);
+    }
+
+    private PackageRollout findRollout(Long rolloutId) {
+        return rolloutRepository.findById(rolloutId)
+                .orElseThrow(() -> new EntityNotFoundException("Rollout not found with id: " + rolloutId));
+    }
+
+    private static void requireStatus(PackageRollout rollout, RolloutStatus expected) {
+        if (rollout.getStatus() != expected) {
+            throw new IllegalArgumentException("Rollout " + rollout.getId() + " is " + rollout.getStatus()
+                    + ", expected " + expected);
+        }
+    }
+
+    private static int percentageOf(PackageRollout rollout) {
+        if (rollout.getStatus() == RolloutStatus.COMPLETED) {
+            return 100;
+        }
+        List<Integer> waves = parseWaves(rollout.getWaves());
+        return waves.get(Math.min(rollout.getCurrentWave(), waves.size() - 1));
+    }
+
+    private static List<Integer> parseWaves(String waves) {
+        List<Integer> parsed = new ArrayList<>();
+        for (String wave : waves.split(",")) {
+            parsed.add(Integer.parseInt(wave.trim()));
+        }
+        return parsed;
+    }
+
+    private Path packageDirectory(String platform, String appVersion) {
+        return Paths.get(baseDirectory).toAbsolutePath().normalize()
+                .resolve("packages").resolve(platform).resolve(appVersion);
+    }
+
+    private static void requireName(String value, String field) {
+        if (!isName(value)) {
+            throw new IllegalArgumentException("Invalid " + field + ": letters, digits, '.', '_' or '-', 20 characters max");
+        }
+    }
+
+    private static boolean isName(String value) {
+        return value != null && NAME_SEGMENT.matcher(value).matches();
+    }
+
+    private static String extensionOf(String fileName) {
+        int lastDot = fileName.lastIndexOf('.');
+        return lastDot > 0 ? fileName.substring(lastDot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String downloadPath(AppPackage appPackage) {
+        return "/files/packages/" + appPackage.getPlatform() + "/" + appPackage.getAppVersion();
+    }
+
+    private AppPackageDto toDto(AppPackage appPackage) {
+        return AppPackageDto.builder()
+                .id(appPackage.getId())
+                .appVersion(appPackage.getAppVersion())
+                .platform(appPackage.getPlatform())
+                .fileName(appPackage.getFileName())
+                .fileSize(appPackage.getFileSize())
+                .sha256(appPackage.getSha256())
+                .notes(appPackage.getNotes())
+                .createdAt(appPackage.getCreatedAt())
+                .downloadPath(downloadPath(appPackage))
+                .build();
+    }
+
+    private RolloutDto toDto(PackageRollout rollout) {
+        AppPackage appPackage = rollout.getAppPackage();
+        return RolloutDto.builder()
+                .id(rollout.getId())
+                .packageId(appPackage.getId())
+                .appVersion(appPackage.getAppVersion())
+                .platform(appPackage.getPlatform())
+                .waves(parseWaves(rollout.getWaves()))
+                .currentWave(rollout.getCurrentWave())
+                .percentage(percentageOf(rollout))
+                .status(rollout.getStatus())
+                .createdAt(rollout.getCreatedAt())
+                .updatedAt(rollout.getUpdatedAt())
+                .completedAt(rollout.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.tvboot.tivio.terminal.distribution;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "package_rollouts")
+public class PackageRollout {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.EAGER, optional = false)
+    @JoinColumn(name = "package_id", nullable = false)
+    private AppPackage appPackage;
+
+    // Fleet percentages, ascending, comma separated ("5,25,50,100")
+    @Column(name = "waves", nullable = false, length = 100)
+    private String waves;
+
+    // Index in waves
+    @Column(name = "current_wave", nullable = false)
+    private int currentWave;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private RolloutStatus status;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,32 @@
+package com.tvboot.tivio.terminal.distribution;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PackageRolloutRepository extends JpaRepository<PackageRollout, Long> {
+
+    // The rollout that decides what a platform is offered: the latest one not cancelled
+    Optional<PackageRollout> findFirstByAppPackagePlatformAndStatusNotOrderByIdDesc(String platform,
+                                                                                   RolloutStatus status);
+
+    boolean existsByAppPackagePlatformAndStatusIn(String platform, Collection<RolloutStatus> statuses);
+
+    boolean existsByAppPackageId(Long packageId);
+
+    List<PackageRollout> findAllByOrderByIdDesc();
+
+    @Query(value = "SELECT id AS \"id\", platform AS \"platform\", app_version AS \"appVersion\" " +
+            "FROM terminals WHERE platform = :platform AND is_active", nativeQuery = true)
+    List<PlatformTerminalRow> findActiveTerminals(@Param("platform") String platform);
+
+    @Query(value = "SELECT id AS \"id\", platform AS \"platform\", app_version AS \"appVersion\" " +
+            "FROM terminals WHERE id = :id", nativeQuery = true)
+    Optional<PlatformTerminalRow> findTerminal(@Param("id") Long id);
+}
@@ -0,0 +1,10 @@
+package com.tvboot.tivio.terminal.distribution;
+
+/**
+ * Platform of a terminal and the app version it last reported
+ */
+public interface PlatformTerminalRow {
+    Long getId();
+    String getPlatform();
+    String getAppVersion();
+}
@@ -0,0 +1,9 @@
+package com.tvboot.tivio.terminal.distribution;
+
+/**
+ * ACTIVE: offered to the current wave. PAUSED: offered to nobody until resumed.
+ * COMPLETED: last wave passed, offered to the whole platform. CANCELLED: withdrawn.
+ */
+public enum RolloutStatus {
+    ACTIVE, PAUSED, COMPLETED, CANCELLED
+}
@@ -0,0 +1,87 @@
+package com.tvboot.tivio.terminal.distribution;
+
+import com.tvboot.tivio.terminal.network.NetworkTopology;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caps the package download throughput of each network segment (access switch or
+ * subnet, see {@link NetworkTopology}) with a token bucket shared by all the downloads
+ * of that segment, so that a new build does not saturate the uplinks while the TVs fetch
+ * it.
+ * <p>
+ * A download takes tokens before writing each chunk; the bucket may go negative, and
+ * the caller then sleeps until its share of bandwidth has accrued. Downloads run on
+ * virtual threads, so sleeping costs no platform thread.
+ */
+@Component
+@RequiredArgsConstructor
+public class SubnetBandwidthLimiter {
+
+    private static final String UNKNOWN_SEGMENT = "unknown";
+
+    private final NetworkTopology networkTopology;
+
+    @Value("${app.terminal.distribution.bandwidth-per-subnet:8MB}")
+    private DataSize bandwidthPerSubnet;     // per second, 0 to disable
+
+    @Value("${app.terminal.distribution.burst:2MB}")
+    private DataSize burst;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Segment whose bucket a client draws from
+     */
+    public String segmentOf(String clientAddress) {
+        NetworkTopology.Segment segment = networkTopology.segmentOf(clientAddress);
+        return segment != null ? segment.getName() : UNKNOWN_SEGMENT;
+    }
+
+    /**
+     * Wait until {@code bytes} may be sent to the segment
+     */
+    public void acquire(String segment, int bytes) throws InterruptedException {
+        long rate = bandwidthPerSubnet.toBytes();
+        if (rate <= 0) {
+            return;
+        }
+        long waitNanos = buckets.computeIfAbsent(segment, key -> new TokenBucket(rate, Math.max(burst.toBytes(), 1)))
+                .reserve(bytes);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private static final class TokenBucket {
+        private final double bytesPerNano;
+        private final double capacity;
+        private double tokens;
+        private long refilledAt = System.nanoTime();
+
+        TokenBucket(long bytesPerSecond, long capacity) {
+            this.bytesPerNano = bytesPerSecond / 1_000_000_000d;
+            this.capacity = capacity;
+            this.tokens = capacity;
+        }
+
+        /**
+         * Take the tokens, possibly on credit
+         *
+         * @return nanoseconds to wait before sending, 0 if the tokens were available
+         */
+        synchronized long reserve(int bytes) {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * bytesPerNano);
+            refilledAt = now;
+            tokens -= bytes;
+            return tokens >= 0 ? 0 : (long) (-tokens / bytesPerNano);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.tvboot.tivio.terminal.distribution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppPackageDto {
+    private Long id;
+    private String appVersion;
+    private String platform;
+    private String fileName;
+    private Long fileSize;
+    private String sha256;
+    private String notes;
+    private LocalDateTime createdAt;
+    private String downloadPath;   // relative to the API root
+}
@@ -0,0 +1,20 @@
+package com.tvboot.tivio.terminal.distribution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PackageUpdateDto {
+    private Long rolloutId;
+    private String appVersion;
+    private String platform;
+    private String fileName;
+    private Long fileSize;
+    private String sha256;
+    private String downloadPath;   // relative to the API root, supports Range requests
+}
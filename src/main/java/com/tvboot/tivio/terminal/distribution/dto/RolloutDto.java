@@ -0,0 +1,28 @@
+package com.tvboot.tivio.terminal.distribution.dto;
+
+import com.tvboot.tivio.terminal.distribution.RolloutStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolloutDto {
+    private Long id;
+    private Long packageId;
+    private String appVersion;
+    private String platform;
+    private List<Integer> waves;
+    private Integer currentWave;
+    private Integer percentage;    // share of the platform currently offered the package
+    private RolloutStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,22 @@
+package com.tvboot.tivio.terminal.distribution.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolloutProgressDto {
+    private RolloutDto rollout;
+    private Integer fleet;             // active terminals of the platform
+    private Integer eligible;          // in the current wave
+    private Integer updated;           // reporting the package version, in the wave or not
+    private Integer eligibleUpdated;
+    private Double completion;         // eligibleUpdated / eligible, in percent
+    private Map<String, Integer> versions;   // reported version -> terminals
+}
@@ -0,0 +1,24 @@
+package com.tvboot.tivio.terminal.distribution.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RolloutRequest {
+
+    @NotNull(message = "Package id is required")
+    private Long packageId;
+
+    // Fleet percentages, ascending, the last one usually 100 (e.g. 5, 25, 50, 100)
+    @NotEmpty(message = "At least one wave is required")
+    private List<Integer> waves;
+}
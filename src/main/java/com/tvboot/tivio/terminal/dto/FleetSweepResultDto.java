@@ -0,0 +1,23 @@
+package com.tvboot.tivio.terminal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetSweepResultDto {
+    private LocalDateTime startedAt;
+    private Long durationMs;
+    private Integer port;
+    private Integer total;
+    private Integer reachable;
+    private Integer unreachable;
+    private List<TerminalRttDto> results;
+}
@@ -33,4 +33,6 @@ public class TerminalDto {
     // Connection info
     private Double uptime;
     private Boolean isOnline;
+    private Integer lastRttMs;
+    private LocalDateTime lastConnectivityCheck;
 }
\ No newline at end of file
@@ -0,0 +1,21 @@
+package com.tvboot.tivio.terminal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TerminalImportResultDto {
+    private boolean dryRun;
+    private int total;
+    private int created;
+    private int rejected;
+    private long durationMs;
+    private List<TerminalImportRowDto> rows;
+}
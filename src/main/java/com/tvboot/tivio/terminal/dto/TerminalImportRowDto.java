@@ -0,0 +1,22 @@
+package com.tvboot.tivio.terminal.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TerminalImportRowDto {
+    private int row;
+    private String terminalCode;
+    private String status; // CREATED, VALID (dry run) or REJECTED
+    private Long terminalId;
+    private List<String> errors;
+}
@@ -0,0 +1,18 @@
+package com.tvboot.tivio.terminal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TerminalRttDto {
+    private Long terminalId;
+    private String terminalCode;
+    private String ipAddress;
+    private Boolean reachable;
+    private Long rttMs;
+}
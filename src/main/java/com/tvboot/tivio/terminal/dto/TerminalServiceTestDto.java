@@ -0,0 +1,17 @@
+package com.tvboot.tivio.terminal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TerminalServiceTestDto {
+    private Long terminalId;
+    private String terminalCode;
+    private String ipAddress;
+    private ConnectivityTestResult result;
+}
@@ -8,13 +8,14 @@ import lombok.NoArgsConstructor;
 import java.util.Map;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class TerminalStatsDto {
     private long total;
     private long active;
     private long inactive;
+    private long online;
     private long offline;
     private long maintenance;
     private long faulty;
@@ -0,0 +1,20 @@
+package com.tvboot.tivio.terminal.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rolling online percentages derived from heartbeats (null: never seen)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TerminalUptimeDto {
+    private Long terminalId;
+    private Double uptime24h;
+    private Double uptime7d;
+    private Double uptime30d;
+}
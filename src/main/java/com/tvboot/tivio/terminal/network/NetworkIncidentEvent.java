@@ -0,0 +1,15 @@
+package com.tvboot.tivio.terminal.network;
+
+import com.tvboot.tivio.terminal.network.dto.NetworkIncidentDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * A switch-down incident was opened or resolved
+ */
+@Getter
+@AllArgsConstructor
+public class NetworkIncidentEvent {
+    private final NetworkIncidentDto incident;
+    private final boolean resolved;
+}
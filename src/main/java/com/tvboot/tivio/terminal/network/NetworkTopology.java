@@ -0,0 +1,80 @@
+package com.tvboot.tivio.terminal.network;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Maps a terminal address to the network segment it sits behind: the configured
+ * switch whose subnet is the most specific match, or else the default-size subnet of
+ * the address, so that unconfigured installations still get per-subnet correlation.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NetworkTopology {
+
+    private final NetworkTopologyProperties properties;
+
+    // Most specific subnet first
+    private List<Route> routes = List.of();
+
+    @Getter
+    @AllArgsConstructor
+    public static class Segment {
+        private final String name;          // switch name, or the subnet itself
+        private final String subnet;
+        private final Integer floor;
+        private final boolean configured;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static final class Route {
+        private final Subnet subnet;
+        private final NetworkTopologyProperties.Switch networkSwitch;
+    }
+
+    @PostConstruct
+    void load() {
+        List<Route> loaded = new ArrayList<>();
+        for (NetworkTopologyProperties.Switch networkSwitch : properties.getSwitches()) {
+            if (networkSwitch.getName() == null || networkSwitch.getName().isBlank()) {
+                throw new IllegalStateException("Network switch without a name in app.network.topology.switches");
+            }
+            for (String cidr : networkSwitch.getSubnets()) {
+                loaded.add(new Route(Subnet.parse(cidr), networkSwitch));
+            }
+        }
+        loaded.sort(Comparator.comparingInt((Route route) -> route.getSubnet().getPrefixLength()).reversed());
+        routes = List.copyOf(loaded);
+        log.info("Network topology: {} switches, {} subnets", properties.getSwitches().size(), routes.size());
+    }
+
+    /**
+     * Segment of an address, null if the address is not an IP literal
+     */
+    public Segment segmentOf(String ipAddress) {
+        byte[] address = Subnet.parseIpLiteral(ipAddress);
+        if (address == null) {
+            return null;
+        }
+        for (Route route : routes) {
+            if (route.getSubnet().contains(address)) {
+                NetworkTopologyProperties.Switch networkSwitch = route.getNetworkSwitch();
+                return new Segment(networkSwitch.getName(), String.join(",", networkSwitch.getSubnets()),
+                        networkSwitch.getFloor(), true);
+            }
+        }
+        // IPv6 terminals get a /64 whatever the IPv4 default
+        String subnet = Subnet.of(address, address.length == 4 ? properties.getDefaultPrefixLength() : 64).toString();
+        return new Segment(subnet, subnet, null, false);
+    }
+}
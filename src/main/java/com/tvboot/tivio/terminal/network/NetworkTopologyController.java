@@ -0,0 +1,100 @@
+package com.tvboot.tivio.terminal.network;
+
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import com.tvboot.tivio.terminal.TerminalAddressView;
+import com.tvboot.tivio.terminal.TerminalRepository;
+import com.tvboot.tivio.terminal.network.dto.NetworkIncidentDto;
+import com.tvboot.tivio.terminal.network.dto.NetworkSegmentDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/terminals/network")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class NetworkTopologyController {
+
+    private final OutageCorrelator outageCorrelator;
+    private final TerminalRepository terminalRepository;
+
+    /**
+     * Network segments (switches) of the fleet with their terminal count
+     */
+    @GetMapping("/segments")
+    public ResponseEntity<TvBootHttpResponse> getSegments() {
+        try {
+            List<NetworkSegmentDto> segments = outageCorrelator.getSegments();
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Network segments retrieved successfully")
+                    .build()
+                    .addData("segments", segments)
+                    .addCount(segments.size());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error retrieving network segments", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve network segments",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Open switch-down incidents and the last resolved ones
+     */
+    @GetMapping("/incidents")
+    public ResponseEntity<TvBootHttpResponse> getIncidents() {
+        try {
+            List<NetworkIncidentDto> active = outageCorrelator.getActiveIncidents();
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Network incidents retrieved successfully")
+                    .build()
+                    .addData("active", active)
+                    .addData("resolved", outageCorrelator.getResolvedIncidents())
+                    .addCount(active.size());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error retrieving network incidents", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve network incidents",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Terminals inside a subnet, e.g. {@code ?cidr=10.20.3.0/24}
+     */
+    @GetMapping("/subnets/terminals")
+    public ResponseEntity<TvBootHttpResponse> getTerminalsInSubnet(@RequestParam String cidr) {
+        try {
+            Subnet subnet = Subnet.parse(cidr);
+            List<TerminalAddressView> terminals = terminalRepository.findAddressesInSubnet(subnet.toString());
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Terminals of subnet " + subnet + " retrieved successfully")
+                    .build()
+                    .addData("terminals", terminals)
+                    .addCount(terminals.size());
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error retrieving terminals of subnet {}", cidr, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve terminals of subnet",
+                    e.getMessage()
+            );
+        }
+    }
+}
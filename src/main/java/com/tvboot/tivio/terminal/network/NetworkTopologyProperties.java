@@ -0,0 +1,42 @@
+package com.tvboot.tivio.terminal.network;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "app.network.topology")
+public class NetworkTopologyProperties {
+
+    /**
+     * Access switches and the subnets behind them
+     */
+    private List<Switch> switches = new ArrayList<>();
+
+    /**
+     * Terminals outside every configured subnet are grouped by this prefix (a /24 by default)
+     */
+    private int defaultPrefixLength = 24;
+
+    private Correlation correlation = new Correlation();
+
+    @Data
+    public static class Switch {
+        private String name;
+        private String description;
+        private Integer floor;
+        private List<String> subnets = new ArrayList<>();
+    }
+
+    @Data
+    public static class Correlation {
+        private int windowSeconds = 120;    // offline events closer than this form a burst
+        private int minTerminals = 5;       // smallest burst reported as an incident
+        private double minRatio = 0.5;      // share of the segment that must be affected
+        private int historySize = 100;      // resolved incidents kept in memory
+    }
+}
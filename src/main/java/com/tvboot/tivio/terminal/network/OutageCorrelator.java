@@ -0,0 +1,272 @@
+package com.tvboot.tivio.terminal.network;
+
+import com.tvboot.tivio.terminal.TerminalChangedEvent;
+import com.tvboot.tivio.terminal.TerminalRegistry;
+import com.tvboot.tivio.terminal.TerminalStatusChangedEvent;
+import com.tvboot.tivio.terminal.TerminalView;
+import com.tvboot.tivio.terminal.TerminalsImportedEvent;
+import com.tvboot.tivio.terminal.network.NetworkTopology.Segment;
+import com.tvboot.tivio.terminal.network.dto.NetworkIncidentDto;
+import com.tvboot.tivio.terminal.network.dto.NetworkSegmentDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns bursts of offline events inside one network segment into a single
+ * "switch down" incident.
+ * <p>
+ * Offline events are grouped by segment (see {@link NetworkTopology}) in a sliding
+ * window. When enough terminals of a segment drop within the window, an incident is
+ * opened with all of them; later offline events of that segment join the incident
+ * instead of raising their own alert. The incident is resolved once fewer than the
+ * burst threshold are still offline.
+ * <p>
+ * Segment sizes are counted once over the registry and cached, so a partial outage
+ * does not rescan the fleet on every offline event; the counts are dropped on terminal
+ * changes and recounted at least every minute (addresses also change on authentication).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutageCorrelator {
+
+    private static final long SEGMENT_SIZES_TTL_MILLIS = 60_000;
+
+    private final NetworkTopology topology;
+    private final NetworkTopologyProperties properties;
+    private final TerminalRegistry terminalRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Map<String, SegmentState> segments = new ConcurrentHashMap<>();
+    private final Deque<NetworkIncidentDto> resolved = new ArrayDeque<>();
+    private volatile SegmentSizes segmentSizes;
+
+    @EventListener
+    public void onStatusChanged(TerminalStatusChangedEvent event) {
+        TerminalView terminal = terminalRegistry.findById(event.getTerminalId()).orElse(null);
+        Segment segment = terminal != null ? topology.segmentOf(terminal.getIpAddress()) : null;
+        if (event.isOnline()) {
+            terminalOnline(event.getTerminalId());
+        } else if (segment != null) {
+            terminalOffline(event.getTerminalId(), segment);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalChanged(TerminalChangedEvent event) {
+        segmentSizes = null;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalsImported(TerminalsImportedEvent event) {
+        segmentSizes = null;
+    }
+
+    void terminalOffline(Long terminalId, Segment segment) {
+        NetworkTopologyProperties.Correlation config = properties.getCorrelation();
+        SegmentState state = segments.computeIfAbsent(segment.getName(), name -> new SegmentState(segment));
+        long now = System.currentTimeMillis();
+
+        NetworkIncidentDto opened = null;
+        synchronized (state) {
+            if (state.incident != null) {
+                // Already explained by the open incident
+                state.incident.affected.add(terminalId);
+                state.incident.offline.add(terminalId);
+                return;
+            }
+            state.recentOffline.put(terminalId, now);
+            state.prune(now - config.getWindowSeconds() * 1000L);
+
+            int burst = state.recentOffline.size();
+            if (burst >= config.getMinTerminals()) {
+                int size = segmentSize(segment.getName());
+                if (burst >= config.getMinRatio() * size) {
+                    state.incident = new Incident(segment, size, state.recentOffline.keySet());
+                    state.recentOffline.clear();
+                    opened = state.incident.toDto();
+                }
+            }
+        }
+
+        if (opened != null) {
+            log.error("Network incident {}: switch {} ({}) down, {} of {} terminals offline",
+                    opened.getId(), segment.getName(), segment.getSubnet(),
+                    opened.getAffectedTerminalIds().size(), opened.getSegmentSize());
+            eventPublisher.publishEvent(new NetworkIncidentEvent(opened, false));
+        }
+    }
+
+    void terminalOnline(Long terminalId) {
+        int threshold = properties.getCorrelation().getMinTerminals();
+        // The address may have changed on reconnection: look in every segment
+        for (SegmentState state : segments.values()) {
+            NetworkIncidentDto closed = null;
+            synchronized (state) {
+                state.recentOffline.remove(terminalId);
+                if (state.incident != null && state.incident.offline.remove(terminalId)
+                        && state.incident.offline.size() < threshold) {
+                    state.incident.resolvedAt = LocalDateTime.now();
+                    closed = state.incident.toDto();
+                    state.incident = null;
+                }
+            }
+            if (closed != null) {
+                log.info("Network incident {} resolved: switch {} back ({} terminals still offline)",
+                        closed.getId(), closed.getSegment(), closed.getStillOffline());
+                remember(closed);
+                eventPublisher.publishEvent(new NetworkIncidentEvent(closed, true));
+            }
+        }
+    }
+
+    public List<NetworkIncidentDto> getActiveIncidents() {
+        List<NetworkIncidentDto> active = new ArrayList<>();
+        for (SegmentState state : segments.values()) {
+            synchronized (state) {
+                if (state.incident != null) {
+                    active.add(state.incident.toDto());
+                }
+            }
+        }
+        return active;
+    }
+
+    public List<NetworkIncidentDto> getResolvedIncidents() {
+        synchronized (resolved) {
+            return new ArrayList<>(resolved);
+        }
+    }
+
+    /**
+     * Segments of the current fleet with their terminal count
+     */
+    public List<NetworkSegmentDto> getSegments() {
+        Map<String, NetworkSegmentDto> result = new LinkedHashMap<>();
+        for (TerminalView terminal : terminalRegistry.getTerminals()) {
+            Segment segment = terminal.isActive() ? topology.segmentOf(terminal.getIpAddress()) : null;
+            if (segment == null) {
+                continue;
+            }
+            NetworkSegmentDto dto = result.computeIfAbsent(segment.getName(), name -> {
+                SegmentState state = segments.get(name);
+                Incident incident = state != null ? state.incident : null;
+                return NetworkSegmentDto.builder()
+                        .name(name)
+                        .subnet(segment.getSubnet())
+                        .floor(segment.getFloor())
+                        .configured(segment.isConfigured())
+                        .activeIncidentId(incident != null ? incident.id : null)
+                        .build();
+            });
+            dto.setTerminals(dto.getTerminals() + 1);
+        }
+        return new ArrayList<>(result.values());
+    }
+
+    private int segmentSize(String segmentName) {
+        SegmentSizes sizes = segmentSizes;
+        long now = System.currentTimeMillis();
+        if (sizes == null || now - sizes.countedAt > SEGMENT_SIZES_TTL_MILLIS) {
+            Map<String, Integer> counts = new HashMap<>();
+            for (TerminalView terminal : terminalRegistry.getTerminals()) {
+                if (terminal.isActive()) {
+                    Segment segment = topology.segmentOf(terminal.getIpAddress());
+                    if (segment != null) {
+                        counts.merge(segment.getName(), 1, Integer::sum);
+                    }
+                }
+            }
+            sizes = new SegmentSizes(counts, now);
+            segmentSizes = sizes;
+        }
+        return sizes.counts.getOrDefault(segmentName, 0);
+    }
+
+    private void remember(NetworkIncidentDto incident) {
+        synchronized (resolved) {
+            resolved.addFirst(incident);
+            while (resolved.size() > properties.getCorrelation().getHistorySize()) {
+                resolved.removeLast();
+            }
+        }
+    }
+
+    private static final class SegmentSizes {
+        final Map<String, Integer> counts;
+        final long countedAt;
+
+        SegmentSizes(Map<String, Integer> counts, long countedAt) {
+            this.counts = counts;
+            this.countedAt = countedAt;
+        }
+    }
+
+    private static final class SegmentState {
+        final Segment segment;
+        // terminalId -> offline time (epoch millis), oldest first
+        final Map<Long, Long> recentOffline = new LinkedHashMap<>();
+        Incident incident;
+
+        SegmentState(Segment segment) {
+            this.segment = segment;
+        }
+
+        void prune(long oldestKept) {
+            Iterator<Long> times = recentOffline.values().iterator();
+            while (times.hasNext() && times.next() < oldestKept) {
+                times.remove();
+            }
+        }
+    }
+
+    private static final class Incident {
+        final String id = UUID.randomUUID().toString();
+        final Segment segment;
+        final int segmentSize;
+        final Set<Long> affected;
+        final Set<Long> offline;
+        final LocalDateTime startedAt = LocalDateTime.now();
+        LocalDateTime resolvedAt;
+
+        Incident(Segment segment, int segmentSize, Set<Long> terminalIds) {
+            this.segment = segment;
+            this.segmentSize = segmentSize;
+            this.affected = new LinkedHashSet<>(terminalIds);
+            this.offline = new LinkedHashSet<>(terminalIds);
+        }
+
+        NetworkIncidentDto toDto() {
+            return NetworkIncidentDto.builder()
+                    .id(id)
+                    .type("SWITCH_DOWN")
+                    .segment(segment.getName())
+                    .subnet(segment.getSubnet())
+                    .floor(segment.getFloor())
+                    .segmentSize(segmentSize)
+                    .affectedTerminalIds(new ArrayList<>(affected))
+                    .stillOffline(offline.size())
+                    .startedAt(startedAt)
+                    .resolvedAt(resolvedAt)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.tvboot.tivio.terminal.network;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+
+/**
+ * An IPv4 or IPv6 network in CIDR notation ("10.20.3.0/24")
+ */
+public final class Subnet {
+
+    private final byte[] network;
+    private final int prefixLength;
+
+    private Subnet(byte[] network, int prefixLength) {
+        this.network = network;
+        this.prefixLength = prefixLength;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the text is not a CIDR block
+     */
+    public static Subnet parse(String cidr) {
+        if (cidr == null) {
+            throw new IllegalArgumentException("Subnet is required");
+        }
+        int slash = cidr.indexOf('/');
+        byte[] address = parseIpLiteral(slash < 0 ? cidr.trim() : cidr.substring(0, slash).trim());
+        if (address == null) {
+            throw new IllegalArgumentException("Invalid subnet: " + cidr);
+        }
+        int prefixLength;
+        try {
+            prefixLength = slash < 0 ? address.length * 8 : Integer.parseInt(cidr.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid subnet prefix: " + cidr);
+        }
+        if (prefixLength < 0 || prefixLength > address.length * 8) {
+            throw new IllegalArgumentException("Invalid subnet prefix: " + cidr);
+        }
+        return new Subnet(mask(address, prefixLength), prefixLength);
+    }
+
+    /**
+     * The network of {@code prefixLength} bits holding an address
+     */
+    public static Subnet of(byte[] address, int prefixLength) {
+        int length = Math.min(prefixLength, address.length * 8);
+        return new Subnet(mask(address, length), length);
+    }
+
+    /**
+     * Bytes of an IP literal, null for anything else. Never triggers a DNS lookup.
+     */
+    public static byte[] parseIpLiteral(String text) {
+        if (text == null || text.isEmpty()) {
+            return null;
+        }
+        if (text.indexOf(':') >= 0) {
+            // Only literals contain a colon, so InetAddress does not resolve anything
+            try {
+                return InetAddress.getByName(text).getAddress();
+            } catch (UnknownHostException | SecurityException e) {
+                return null;
+            }
+        }
+        String[] parts = text.split("\\.", -1);
+        if (parts.length != 4) {
+            return null;
+        }
+        byte[] address = new byte[4];
+        for (int i = 0; i < 4; i++) {
+            String part = parts[i];
+            if (part.isEmpty() || part.length() > 3) {
+                return null;
+            }
+            int value = 0;
+            for (int j = 0; j < part.length(); j++) {
+                char c = part.charAt(j);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+                value = value * 10 + (c - '0');
+            }
+            if (value > 255) {
+                return null;
+            }
+            address[i] = (byte) value;
+        }
+        return address;
+    }
+
+    public boolean contains(byte[] address) {
+        if (address == null || address.length != network.length) {
+            return false;
+        }
+        return Arrays.equals(mask(address, prefixLength), network);
+    }
+
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+
+    private static byte[] mask(byte[] address, int prefixLength) {
+        byte[] masked = address.clone();
+        for (int i = 0; i < masked.length; i++) {
+            int bits = Math.max(0, Math.min(8, prefixLength - i * 8));
+            masked[i] &= (byte) (0xFF << (8 - bits));
+        }
+        return masked;
+    }
+
+    @Override
+    public String toString() {
+        try {
+            return InetAddress.getByAddress(network).getHostAddress() + "/" + prefixLength;
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Subnet other)) return false;
+        return prefixLength == other.prefixLength && Arrays.equals(network, other.network);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(network) * 31 + prefixLength;
+    }
+}
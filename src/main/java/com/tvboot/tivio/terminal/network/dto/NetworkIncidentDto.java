@@ -0,0 +1,29 @@
+package com.tvboot.tivio.terminal.network.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A burst of terminals going offline behind the same switch, reported once
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkIncidentDto {
+    private String id;
+    private String type;                 // SWITCH_DOWN
+    private String segment;              // switch name, or subnet when not configured
+    private String subnet;
+    private Integer floor;
+    private int segmentSize;             // active terminals behind the switch
+    private List<Long> affectedTerminalIds;
+    private int stillOffline;
+    private LocalDateTime startedAt;
+    private LocalDateTime resolvedAt;
+}
@@ -0,0 +1,19 @@
+package com.tvboot.tivio.terminal.network.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class NetworkSegmentDto {
+    private String name;
+    private String subnet;
+    private Integer floor;
+    private boolean configured;
+    private int terminals;
+    private String activeIncidentId;
+}
@@ -0,0 +1,36 @@
+package com.tvboot.tivio.terminal.presence;
+
+import com.tvboot.tivio.common.enumeration.DeviceType;
+import lombok.Getter;
+import org.springframework.web.socket.WebSocketSession;
+
+/**
+ * One open push connection; kept deliberately small, thousands of them stay idle
+ */
+@Getter
+public class TerminalConnection {
+    private final Long terminalId;
+    private final String terminalCode;
+    private final DeviceType deviceType;
+    private final Long roomId;
+    private final Integer floor;
+    private final WebSocketSession session;
+    private final long connectedAt;
+    private volatile long lastActivity;
+
+    public TerminalConnection(Long terminalId, String terminalCode, DeviceType deviceType,
+                              Long roomId, Integer floor, WebSocketSession session) {
+        this.terminalId = terminalId;
+        this.terminalCode = terminalCode;
+        this.deviceType = deviceType;
+        this.roomId = roomId;
+        this.floor = floor;
+        this.session = session;
+        this.connectedAt = System.currentTimeMillis();
+        this.lastActivity = connectedAt;
+    }
+
+    void touch() {
+        lastActivity = System.currentTimeMillis();
+    }
+}
@@ -0,0 +1,126 @@
+package com.tvboot.tivio.terminal.presence;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Open push connections, indexed by terminal id, room and floor.
+ * A terminal has at most one connection: a new one replaces the previous.
+ */
+@Slf4j
+@Component
+public class TerminalConnectionRegistry {
+
+    private final Map<Long, TerminalConnection> byTerminal = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> byRoom = new ConcurrentHashMap<>();
+    private final Map<Integer, Set<Long>> byFloor = new ConcurrentHashMap<>();
+
+    /**
+     * @return the connection replaced by this one, if any
+     */
+    public TerminalConnection register(TerminalConnection connection) {
+        TerminalConnection previous = byTerminal.put(connection.getTerminalId(), connection);
+        if (previous != null) {
+            unindex(previous);
+        }
+        if (connection.getRoomId() != null) {
+            byRoom.computeIfAbsent(connection.getRoomId(), id -> ConcurrentHashMap.newKeySet())
+                    .add(connection.getTerminalId());
+        }
+        if (connection.getFloor() != null) {
+            byFloor.computeIfAbsent(connection.getFloor(), floor -> ConcurrentHashMap.newKeySet())
+                    .add(connection.getTerminalId());
+        }
+        return previous;
+    }
+
+    /**
+     * @return false if the connection had already been replaced by a newer one
+     */
+    public boolean unregister(TerminalConnection connection) {
+        if (!byTerminal.remove(connection.getTerminalId(), connection)) {
+            return false;
+        }
+        unindex(connection);
+        return true;
+    }
+
+    public TerminalConnection get(Long terminalId) {
+        return byTerminal.get(terminalId);
+    }
+
+    public boolean isConnected(Long terminalId) {
+        return byTerminal.containsKey(terminalId);
+    }
+
+    public Set<Long> getConnectedTerminalIds() {
+        return byTerminal.keySet();
+    }
+
+    public Set<Long> getTerminalIdsInRoom(Long roomId) {
+        return byRoom.getOrDefault(roomId, Set.of());
+    }
+
+    public Set<Long> getTerminalIdsOnFloor(Integer floor) {
+        return byFloor.getOrDefault(floor, Set.of());
+    }
+
+    public Collection<TerminalConnection> getConnections() {
+        return byTerminal.values();
+    }
+
+    public int size() {
+        return byTerminal.size();
+    }
+
+    /**
+     * @return false if the terminal is not connected or the send failed
+     */
+    public boolean send(Long terminalId, TextMessage message) {
+        TerminalConnection connection = byTerminal.get(terminalId);
+        if (connection == null || !connection.getSession().isOpen()) {
+            return false;
+        }
+        try {
+            connection.getSession().sendMessage(message);
+            return true;
+        } catch (Exception e) {
+            log.debug("Push to terminal {} failed: {}", connection.getTerminalCode(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return the number of terminals the message was handed to
+     */
+    public int send(Collection<Long> terminalIds, TextMessage message) {
+        int sent = 0;
+        for (Long terminalId : terminalIds) {
+            if (send(terminalId, message)) {
+                sent++;
+            }
+        }
+        return sent;
+    }
+
+    private void unindex(TerminalConnection connection) {
+        if (connection.getRoomId() != null) {
+            Set<Long> room = byRoom.get(connection.getRoomId());
+            if (room != null) {
+                room.remove(connection.getTerminalId());
+            }
+        }
+        if (connection.getFloor() != null) {
+            Set<Long> floor = byFloor.get(connection.getFloor());
+            if (floor != null) {
+                floor.remove(connection.getTerminalId());
+            }
+        }
+    }
+}
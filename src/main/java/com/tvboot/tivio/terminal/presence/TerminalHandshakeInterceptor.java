@@ -0,0 +1,58 @@
+package com.tvboot.tivio.terminal.presence;
+
+import com.tvboot.tivio.terminal.auth.JwtTokenProvider;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Authenticates the push channel handshake with the terminal access token, passed as
+ * {@code Authorization: Bearer} or, for WebSocket clients that cannot set headers,
+ * as the {@code token} query parameter.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalHandshakeInterceptor implements HandshakeInterceptor {
+
+    public static final String TERMINAL_ID_ATTRIBUTE = "terminalId";
+
+    private final JwtTokenProvider tokenProvider;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        Long terminalId = tokenProvider.resolveTerminalId(resolveToken(request));
+        if (terminalId == null) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+
+        attributes.put(TERMINAL_ID_ATTRIBUTE, terminalId);
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+        // nothing to do
+    }
+
+    private String resolveToken(ServerHttpRequest request) {
+        String header = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith("Bearer ")) {
+            return header.substring(7);
+        }
+        return UriComponentsBuilder.fromUri(request.getURI()).build()
+                .getQueryParams().getFirst("token");
+    }
+}
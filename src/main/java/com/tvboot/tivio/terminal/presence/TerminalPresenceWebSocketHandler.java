@@ -0,0 +1,170 @@
+package com.tvboot.tivio.terminal.presence;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tvboot.tivio.terminal.TerminalHeartbeatBuffer;
+import com.tvboot.tivio.terminal.TerminalRegistry;
+import com.tvboot.tivio.terminal.TerminalRepository;
+import com.tvboot.tivio.terminal.TerminalStatusChangedEvent;
+import com.tvboot.tivio.terminal.TerminalView;
+import com.tvboot.tivio.terminal.command.TerminalCommandDispatcher;
+import com.tvboot.tivio.terminal.command.TerminalCommandService;
+import com.tvboot.tivio.tvchannel.audience.AudienceService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.PingMessage;
+import org.springframework.web.socket.PongMessage;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Push channel kept open by each terminal ({@code /ws/terminals}).
+ * <p>
+ * While the connection is open the terminal is online: the connection replaces the
+ * polling heartbeat, and closing it marks the terminal offline at once. A ping every
+ * minute keeps NAT entries alive and detects terminals that vanished without closing.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalPresenceWebSocketHandler extends TextWebSocketHandler {
+
+    static final String CONNECTION_ATTRIBUTE = "terminalConnection";
+
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+    private static final int BUFFER_SIZE_LIMIT = 16 * 1024;
+    private static final long KEEPALIVE_INTERVAL_MS = 60000;
+    private static final long DEAD_AFTER_MS = 150000; // two missed pongs and a half
+
+    private static final CloseStatus REPLACED = new CloseStatus(4000, "Replaced by a new connection");
+    private static final CloseStatus UNKNOWN_TERMINAL = new CloseStatus(4004, "Unknown or inactive terminal");
+
+    private final TerminalConnectionRegistry registry;
+    private final TerminalRepository terminalRepository;
+    private final TerminalRegistry terminalRegistry;
+    private final TerminalHeartbeatBuffer heartbeatBuffer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TerminalCommandDispatcher commandDispatcher;
+    private final TerminalCommandService commandService;
+    private final AudienceService audienceService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Long terminalId = (Long) session.getAttributes().get(TerminalHandshakeInterceptor.TERMINAL_ID_ATTRIBUTE);
+        Optional<TerminalView> view = terminalRegistry.findById(terminalId).filter(TerminalView::isActive);
+        if (view.isEmpty()) {
+            session.close(UNKNOWN_TERMINAL);
+            return;
+        }
+
+        TerminalView terminal = view.get();
+        TerminalConnection connection = new TerminalConnection(
+                terminal.getId(), terminal.getTerminalCode(), terminal.getDeviceType(),
+                terminal.getRoomId(), terminal.getFloorNumber(),
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, BUFFER_SIZE_LIMIT));
+        session.getAttributes().put(CONNECTION_ATTRIBUTE, connection);
+
+        TerminalConnection previous = registry.register(connection);
+        if (previous != null) {
+            closeQuietly(previous, REPLACED);
+        }
+        heartbeatBuffer.record(terminalId);
+        log.debug("Terminal {} connected ({} connected)", terminal.getTerminalCode(), registry.size());
+
+        // Commands queued while the terminal was away
+        commandDispatcher.deliverPending(terminalId);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        TerminalConnection connection = connectionOf(session);
+        if (connection == null) {
+            return;
+        }
+        connection.touch();
+
+        try {
+            JsonNode json = objectMapper.readTree(message.getPayload());
+            String type = json.path("type").asText();
+            if ("ACK".equals(type) && json.hasNonNull("commandId")) {
+                commandService.acknowledge(connection.getTerminalId(), json.get("commandId").asLong(),
+                        json.path("success").asBoolean(true), json.path("error").asText(null));
+            } else if ("CHANNEL".equals(type)) {
+                // {"type":"CHANNEL","channelId":12}, channelId null or absent when leaving live TV
+                audienceService.recordChannelChange(connection.getTerminalId(),
+                        json.hasNonNull("channelId") ? json.get("channelId").asLong() : null);
+            }
+        } catch (Exception e) {
+            log.debug("Ignoring message from terminal {}: {}", connection.getTerminalCode(), e.getMessage());
+        }
+    }
+
+    @Override
+    protected void handlePongMessage(WebSocketSession session, PongMessage message) {
+        TerminalConnection connection = connectionOf(session);
+        if (connection != null) {
+            connection.touch();
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        TerminalConnection connection = connectionOf(session);
+        if (connection == null || !registry.unregister(connection)) {
+            return; // never registered, or already replaced by a newer connection
+        }
+
+        terminalRepository.markOffline(connection.getTerminalId());
+        eventPublisher.publishEvent(new TerminalStatusChangedEvent(
+                connection.getTerminalId(), connection.getTerminalCode(), false, LocalDateTime.now()));
+        log.debug("Terminal {} disconnected ({})", connection.getTerminalCode(), status);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Terminal socket transport error on {}: {}", session.getId(), exception.getMessage());
+    }
+
+    /**
+     * Ping every connection, drop the silent ones and refresh last-seen for the others
+     */
+    @Scheduled(fixedDelay = KEEPALIVE_INTERVAL_MS)
+    public void keepAlive() {
+        long now = System.currentTimeMillis();
+        PingMessage ping = new PingMessage();
+        for (TerminalConnection connection : registry.getConnections()) {
+            if (now - connection.getLastActivity() > DEAD_AFTER_MS) {
+                closeQuietly(connection, CloseStatus.SESSION_NOT_RELIABLE);
+                continue;
+            }
+            try {
+                connection.getSession().sendMessage(ping);
+                heartbeatBuffer.record(connection.getTerminalId());
+            } catch (Exception e) {
+                closeQuietly(connection, CloseStatus.SESSION_NOT_RELIABLE);
+            }
+        }
+    }
+
+    private TerminalConnection connectionOf(WebSocketSession session) {
+        return (TerminalConnection) session.getAttributes().get(CONNECTION_ATTRIBUTE);
+    }
+
+    private void closeQuietly(TerminalConnection connection, CloseStatus status) {
+        try {
+            connection.getSession().close(status);
+        } catch (Exception e) {
+            log.debug("Error closing socket of terminal {}: {}", connection.getTerminalCode(), e.getMessage());
+        }
+    }
+}
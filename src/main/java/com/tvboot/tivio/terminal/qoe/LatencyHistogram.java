@@ -0,0 +1,139 @@
+package com.tvboot.tivio.terminal.qoe;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-bucket latency histogram over a sliding window, lock-free.
+ * <p>
+ * Counts live in flat {@link AtomicLongArray}s: one row of buckets per minute for the
+ * last hour and one per hour for the last day. Recording is two increments; reading
+ * a window sums the rows whose period falls inside it. A row is recycled when its
+ * period comes round again, so a handful of samples recorded exactly while a row is
+ * being reset can be lost, which is acceptable for percentiles.
+ */
+class LatencyHistogram {
+
+    /**
+     * Upper bounds of the buckets in milliseconds; the last bucket is open-ended
+     */
+    static final long[] BUCKET_BOUNDS_MS = {
+            25, 50, 75, 100, 150, 200, 250, 300, 400, 500, 650, 800, 1000, 1250, 1500,
+            2000, 2500, 3000, 4000, 5000, 7500, 10000, 15000, 20000, 30000, Long.MAX_VALUE
+    };
+    static final int BUCKETS = BUCKET_BOUNDS_MS.length;
+
+    private static final long MINUTE_MS = 60_000;
+    private static final long HOUR_MS = 3_600_000;
+    private static final int MINUTE_ROWS = 60;
+    private static final int HOUR_ROWS = 24;
+
+    private final Ring minutes = new Ring(MINUTE_ROWS, MINUTE_MS);
+    private final Ring hours = new Ring(HOUR_ROWS, HOUR_MS);
+
+    void record(long valueMs, long nowMillis) {
+        int bucket = bucketOf(valueMs);
+        minutes.record(bucket, nowMillis);
+        hours.record(bucket, nowMillis);
+    }
+
+    /**
+     * Bucket counts of the last {@code windowMinutes} (up to an hour at minute precision,
+     * beyond that rounded up to whole hours, up to a day)
+     */
+    long[] snapshot(int windowMinutes, long nowMillis) {
+        long[] counts = new long[BUCKETS];
+        if (windowMinutes <= MINUTE_ROWS) {
+            minutes.sumInto(counts, windowMinutes, nowMillis);
+        } else {
+            hours.sumInto(counts, (int) Math.min(HOUR_ROWS, (windowMinutes + 59) / 60), nowMillis);
+        }
+        return counts;
+    }
+
+    static int bucketOf(long valueMs) {
+        for (int i = 0; i < BUCKETS; i++) {
+            if (valueMs <= BUCKET_BOUNDS_MS[i]) {
+                return i;
+            }
+        }
+        return BUCKETS - 1;
+    }
+
+    /**
+     * Percentile (0-100) of bucket counts, interpolated linearly inside the bucket;
+     * values in the open-ended bucket report its lower bound
+     */
+    static long percentile(long[] counts, double percentile) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        double rank = percentile / 100.0 * total;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            if (seen + counts[i] >= rank) {
+                long lower = i == 0 ? 0 : BUCKET_BOUNDS_MS[i - 1];
+                if (i == counts.length - 1) {
+                    return lower;
+                }
+                double fraction = (rank - seen) / counts[i];
+                return Math.round(lower + fraction * (BUCKET_BOUNDS_MS[i] - lower));
+            }
+            seen += counts[i];
+        }
+        return BUCKET_BOUNDS_MS[BUCKETS - 2];
+    }
+
+    /**
+     * Rows of buckets, each tagged with the period it currently holds
+     */
+    private static final class Ring {
+        private final int rows;
+        private final long periodMs;
+        private final AtomicLongArray counts;
+        private final AtomicLongArray periods;
+
+        Ring(int rows, long periodMs) {
+            this.rows = rows;
+            this.periodMs = periodMs;
+            this.counts = new AtomicLongArray(rows * BUCKETS);
+            this.periods = new AtomicLongArray(rows);
+            for (int i = 0; i < rows; i++) {
+                periods.set(i, -1);
+            }
+        }
+
+        void record(int bucket, long nowMillis) {
+            long period = nowMillis / periodMs;
+            int row = (int) (period % rows);
+            long held = periods.get(row);
+            if (held < period && periods.compareAndSet(row, held, period)) {
+                // First sample of a new period in this row: clear what the old period left
+                for (int i = 0; i < BUCKETS; i++) {
+                    counts.set(row * BUCKETS + i, 0);
+                }
+            }
+            if (periods.get(row) == period) {
+                counts.incrementAndGet(row * BUCKETS + bucket);
+            }
+        }
+
+        void sumInto(long[] target, int periodCount, long nowMillis) {
+            long current = nowMillis / periodMs;
+            for (int row = 0; row < rows; row++) {
+                long period = periods.get(row);
+                if (period > current - periodCount && period <= current) {
+                    for (int i = 0; i < BUCKETS; i++) {
+                        target[i] += counts.get(row * BUCKETS + i);
+                    }
+                }
+            }
+        }
+    }
+}
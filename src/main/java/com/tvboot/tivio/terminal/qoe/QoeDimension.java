@@ -0,0 +1,8 @@
+package com.tvboot.tivio.terminal.qoe;
+
+public enum QoeDimension {
+    ALL,
+    CHANNEL,
+    DEVICE_TYPE,
+    FLOOR
+}
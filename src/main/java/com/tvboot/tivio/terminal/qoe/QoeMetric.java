@@ -0,0 +1,7 @@
+package com.tvboot.tivio.terminal.qoe;
+
+public enum QoeMetric {
+    ZAP_TIME,       // key press to channel switched
+    FIRST_FRAME,    // channel switched to first decoded frame
+    BUFFERING       // duration of a buffering (rebuffering) event
+}
@@ -0,0 +1,159 @@
+package com.tvboot.tivio.terminal.qoe;
+
+import com.tvboot.tivio.terminal.TerminalRegistry;
+import com.tvboot.tivio.terminal.TerminalView;
+import com.tvboot.tivio.terminal.qoe.dto.QoeEventDto;
+import com.tvboot.tivio.terminal.qoe.dto.QoePercentilesDto;
+import com.tvboot.tivio.terminal.qoe.dto.QoeReportDto;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Zapping and playback quality: every measurement reported by a terminal lands in a
+ * {@link LatencyHistogram} for each dimension it belongs to (its channel, the device
+ * type and floor of the terminal, and the whole fleet). Percentiles are computed on
+ * demand from the bucket counts, nothing is stored per sample.
+ */
+@Slf4j
+@Service
+public class QoeService {
+
+    public static final String ALL_KEY = "all";
+    public static final int MAX_WINDOW_MINUTES = 1440;
+
+    private static final int MAX_EVENTS_PER_REPORT = 200;
+    private static final int MAX_BUFFERING_PER_EVENT = 50;
+    private static final long MAX_VALUE_MS = 600_000;   // beyond 10 minutes it is not a latency
+    private static final int MAX_KEYS_PER_DIMENSION = 5000;
+
+    private final TerminalRegistry terminalRegistry;
+
+    private final Map<QoeMetric, Map<QoeDimension, Map<String, LatencyHistogram>>> histograms =
+            new EnumMap<>(QoeMetric.class);
+
+    public QoeService(TerminalRegistry terminalRegistry) {
+        this.terminalRegistry = terminalRegistry;
+        for (QoeMetric metric : QoeMetric.values()) {
+            Map<QoeDimension, Map<String, LatencyHistogram>> byDimension = new EnumMap<>(QoeDimension.class);
+            for (QoeDimension dimension : QoeDimension.values()) {
+                byDimension.put(dimension, new ConcurrentHashMap<>());
+            }
+            histograms.put(metric, byDimension);
+        }
+    }
+
+    /**
+     * Record the measurements reported by a terminal
+     *
+     * @return the number of values recorded
+     * @throws IllegalArgumentException if the report is empty or too large
+     * @throws EntityNotFoundException  if the terminal does not exist
+     */
+    public int record(Long terminalId, QoeReportDto report) {
+        List<QoeEventDto> events = report != null ? report.getEvents() : null;
+        if (events == null || events.isEmpty()) {
+            throw new IllegalArgumentException("No QoE events");
+        }
+        if (events.size() > MAX_EVENTS_PER_REPORT) {
+            throw new IllegalArgumentException("Too many QoE events in one report: " + events.size()
+                    + " (max " + MAX_EVENTS_PER_REPORT + ")");
+        }
+        TerminalView terminal = terminalRegistry.findById(terminalId)
+                .orElseThrow(() -> new EntityNotFoundException("Terminal not found with id: " + terminalId));
+
+        String deviceType = terminal.getDeviceType() != null ? terminal.getDeviceType().name() : null;
+        String floor = terminal.getFloorNumber() != null ? String.valueOf(terminal.getFloorNumber()) : null;
+        long now = System.currentTimeMillis();
+
+        int recorded = 0;
+        for (QoeEventDto event : events) {
+            if (event == null) {
+                continue;
+            }
+            String channel = event.getChannelId() != null ? String.valueOf(event.getChannelId()) : null;
+            if (record(QoeMetric.ZAP_TIME, event.getZapTimeMs(), channel, deviceType, floor, now)) {
+                recorded++;
+            }
+            if (record(QoeMetric.FIRST_FRAME, event.getFirstFrameMs(), channel, deviceType, floor, now)) {
+                recorded++;
+            }
+            if (event.getBufferingMs() != null) {
+                for (int i = 0; i < event.getBufferingMs().size() && i < MAX_BUFFERING_PER_EVENT; i++) {
+                    if (record(QoeMetric.BUFFERING, event.getBufferingMs().get(i), channel, deviceType, floor, now)) {
+                        recorded++;
+                    }
+                }
+            }
+        }
+        return recorded;
+    }
+
+    /**
+     * p50 / p95 / p99 of a metric for every value of a dimension over the last
+     * {@code windowMinutes}, worst p95 first
+     */
+    public List<QoePercentilesDto> getPercentiles(QoeMetric metric, QoeDimension dimension, int windowMinutes) {
+        if (windowMinutes < 1 || windowMinutes > MAX_WINDOW_MINUTES) {
+            throw new IllegalArgumentException("Window must be between 1 and " + MAX_WINDOW_MINUTES + " minutes");
+        }
+        long now = System.currentTimeMillis();
+        List<QoePercentilesDto> result = new ArrayList<>();
+        histograms.get(metric).get(dimension).forEach((key, histogram) -> {
+            long[] counts = histogram.snapshot(windowMinutes, now);
+            long count = 0;
+            for (long bucketCount : counts) {
+                count += bucketCount;
+            }
+            if (count > 0) {
+                result.add(QoePercentilesDto.builder()
+                        .key(key)
+                        .count(count)
+                        .p50(LatencyHistogram.percentile(counts, 50))
+                        .p95(LatencyHistogram.percentile(counts, 95))
+                        .p99(LatencyHistogram.percentile(counts, 99))
+                        .build());
+            }
+        });
+        result.sort(Comparator.comparingLong(QoePercentilesDto::getP95).reversed());
+        return result;
+    }
+
+    private boolean record(QoeMetric metric, Long valueMs, String channel, String deviceType, String floor, long now) {
+        if (valueMs == null || valueMs < 0 || valueMs > MAX_VALUE_MS) {
+            return false;
+        }
+        Map<QoeDimension, Map<String, LatencyHistogram>> byDimension = histograms.get(metric);
+        histogram(byDimension.get(QoeDimension.ALL), ALL_KEY).record(valueMs, now);
+        recordIn(byDimension.get(QoeDimension.CHANNEL), channel, valueMs, now);
+        recordIn(byDimension.get(QoeDimension.DEVICE_TYPE), deviceType, valueMs, now);
+        recordIn(byDimension.get(QoeDimension.FLOOR), floor, valueMs, now);
+        return true;
+    }
+
+    private void recordIn(Map<String, LatencyHistogram> byKey, String key, long valueMs, long now) {
+        if (key == null) {
+            return;
+        }
+        // Channel ids come from terminals: bound the number of histograms they can create
+        LatencyHistogram histogram = byKey.get(key);
+        if (histogram == null) {
+            if (byKey.size() >= MAX_KEYS_PER_DIMENSION) {
+                return;
+            }
+            histogram = histogram(byKey, key);
+        }
+        histogram.record(valueMs, now);
+    }
+
+    private LatencyHistogram histogram(Map<String, LatencyHistogram> byKey, String key) {
+        return byKey.computeIfAbsent(key, k -> new LatencyHistogram());
+    }
+}
@@ -0,0 +1,101 @@
+package com.tvboot.tivio.terminal.qoe;
+
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import com.tvboot.tivio.terminal.auth.JwtTokenProvider;
+import com.tvboot.tivio.terminal.qoe.dto.QoePercentilesDto;
+import com.tvboot.tivio.terminal.qoe.dto.QoeReportDto;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/terminals/qoe")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class TerminalQoeController {
+
+    private static final int MAX_WINDOWS = 5;
+
+    private final QoeService qoeService;
+    private final JwtTokenProvider tokenProvider;
+
+    /**
+     * Zap time, time to first frame and buffering events measured by a terminal
+     */
+    @PostMapping
+    public ResponseEntity<TvBootHttpResponse> report(@RequestBody QoeReportDto report,
+                                                     HttpServletRequest request) {
+        Long terminalId = tokenProvider.resolveTerminalId(request);
+        if (terminalId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(TvBootHttpResponse.unauthorized("Terminal token required").build());
+        }
+
+        try {
+            int recorded = qoeService.record(terminalId, report);
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("QoE report recorded")
+                    .build()
+                    .addCount(recorded);
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (EntityNotFoundException e) {
+            return TvBootHttpResponse.notFoundResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error recording QoE report for terminal {}", terminalId, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to record QoE report",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Percentiles of a metric per channel, device type or floor, over one or more
+     * sliding windows (minutes, up to a day)
+     */
+    @GetMapping
+    public ResponseEntity<TvBootHttpResponse> getPercentiles(
+            @RequestParam(defaultValue = "ZAP_TIME") QoeMetric metric,
+            @RequestParam(defaultValue = "ALL") QoeDimension dimension,
+            @RequestParam(defaultValue = "5,60,1440") List<Integer> windows) {
+        try {
+            if (windows.isEmpty() || windows.size() > MAX_WINDOWS) {
+                return TvBootHttpResponse.badRequestResponse("Between 1 and " + MAX_WINDOWS + " windows expected");
+            }
+            Map<String, List<QoePercentilesDto>> byWindow = new LinkedHashMap<>();
+            for (Integer window : windows) {
+                byWindow.put(window + "m", qoeService.getPercentiles(metric, dimension, window));
+            }
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("QoE percentiles retrieved successfully")
+                    .build()
+                    .addData("metric", metric)
+                    .addData("dimension", dimension)
+                    .addData("windows", byWindow);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error retrieving QoE percentiles for {} by {}", metric, dimension, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve QoE percentiles",
+                    e.getMessage()
+            );
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.tvboot.tivio.terminal.qoe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Playback measurements of one channel change: zap time, time to first frame and the
+ * buffering events seen since (durations in milliseconds, any of them may be null)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QoeEventDto {
+    private Long channelId;
+    private Long zapTimeMs;
+    private Long firstFrameMs;
+    private List<Long> bufferingMs;
+}
@@ -0,0 +1,21 @@
+package com.tvboot.tivio.terminal.qoe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Latency percentiles (milliseconds) of one dimension value over a window
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QoePercentilesDto {
+    private String key;       // channel id, device type, floor number, or "all"
+    private long count;
+    private long p50;
+    private long p95;
+    private long p99;
+}
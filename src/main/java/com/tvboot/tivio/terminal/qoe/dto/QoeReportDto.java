@@ -0,0 +1,16 @@
+package com.tvboot.tivio.terminal.qoe.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QoeReportDto {
+    private List<QoeEventDto> events;
+}
@@ -0,0 +1,15 @@
+package com.tvboot.tivio.terminal.targeting;
+
+/**
+ * Terminal attributes a targeting expression can test
+ */
+public enum TargetField {
+    ACTIVE,         // "true" / "false"
+    ONLINE,         // "true" / "false"
+    DEVICE_TYPE,    // DeviceType name
+    FLOOR,          // floor number, values or from/to range
+    ROOM,           // room id
+    ROOM_TYPE,      // Room.RoomType name
+    LOCATION_TYPE,  // LocationType name
+    APP_VERSION
+}
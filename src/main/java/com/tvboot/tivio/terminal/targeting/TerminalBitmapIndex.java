@@ -0,0 +1,340 @@
+package com.tvboot.tivio.terminal.targeting;
+
+import com.tvboot.tivio.terminal.TerminalAppVersionChangedEvent;
+import com.tvboot.tivio.terminal.TerminalChangedEvent;
+import com.tvboot.tivio.terminal.TerminalRepository;
+import com.tvboot.tivio.terminal.TerminalStatusChangedEvent;
+import com.tvboot.tivio.terminal.TerminalTargetingRow;
+import com.tvboot.tivio.terminal.TerminalsImportedEvent;
+import com.tvboot.tivio.terminal.targeting.dto.TargetExpressionDto;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index of the fleet for targeting (commands, messages, rollouts).
+ * <p>
+ * Each terminal gets a dense ordinal, and every indexed value (device type SMART_TV,
+ * floor 3, online true...) a {@link BitSet} over those ordinals. Dense ordinals keep a
+ * bitmap at one bit per terminal whatever the gaps in database ids, so a
+ * targeting expression is a handful of word-wide AND / OR over a few hundred longs.
+ * <p>
+ * Loaded at startup, kept current from terminal change, status and app version
+ * events, and fully rebuilt on import and every few minutes. Evaluations share a read
+ * lock; updates take the write lock.
+ * <p>
+ * Status and app version events are also kept as the live value of each terminal and
+ * win over the rows of a rebuild: {@code is_online} trails the heartbeat buffer by a
+ * flush interval, and an event received while the rows are being read must survive.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TerminalBitmapIndex {
+
+    private static final int MAX_DEPTH = 16;
+    private static final int MAX_NODES = 256;
+
+    private final TerminalRepository terminalRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinalById = new HashMap<>();
+    private long[] idByOrdinal = new long[0];
+    private int nextOrdinal;
+    private final BitSet present = new BitSet();
+    private final Map<TargetField, Map<String, BitSet>> bitmaps = new EnumMap<>(TargetField.class);
+    // Latest values received by event, newer than the database rows
+    private final Map<Long, Boolean> liveOnline = new HashMap<>();
+    private final Map<Long, String> liveAppVersion = new HashMap<>();
+
+    @PostConstruct
+    public void load() {
+        rebuild();
+        log.info("Terminal bitmap index loaded: {} terminals", present.cardinality());
+    }
+
+    /**
+     * Rebuild with compact ordinals, picking up rows written outside the application
+     */
+    @Scheduled(fixedDelayString = "${app.terminal.registry.reload-interval-ms:600000}",
+            initialDelayString = "${app.terminal.registry.reload-interval-ms:600000}")
+    public void rebuild() {
+        List<TerminalTargetingRow> rows = terminalRepository.findTargetingRows();
+        lock.writeLock().lock();
+        try {
+            ordinalById.clear();
+            idByOrdinal = new long[Math.max(16, rows.size())];
+            nextOrdinal = 0;
+            present.clear();
+            bitmaps.clear();
+            for (TerminalTargetingRow row : rows) {
+                index(row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalChanged(TerminalChangedEvent event) {
+        Optional<TerminalTargetingRow> row = event.isDeleted()
+                ? Optional.empty()
+                : terminalRepository.findTargetingRow(event.getTerminalId());
+        lock.writeLock().lock();
+        try {
+            unindex(event.getTerminalId());
+            // Read after the commit: the row's app version is the current one
+            liveAppVersion.remove(event.getTerminalId());
+            if (event.isDeleted()) {
+                liveOnline.remove(event.getTerminalId());
+            }
+            row.ifPresent(this::index);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onAppVersionChanged(TerminalAppVersionChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            liveAppVersion.put(event.getTerminalId(), event.getAppVersion());
+            Integer ordinal = ordinalById.get(event.getTerminalId());
+            if (ordinal != null) {
+                clear(TargetField.APP_VERSION, ordinal);
+                set(TargetField.APP_VERSION, event.getAppVersion(), ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalsImported(TerminalsImportedEvent event) {
+        rebuild();
+    }
+
+    @EventListener
+    public void onStatusChanged(TerminalStatusChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            liveOnline.put(event.getTerminalId(), event.isOnline());
+            Integer ordinal = ordinalById.get(event.getTerminalId());
+            if (ordinal != null) {
+                clear(TargetField.ONLINE, ordinal);
+                set(TargetField.ONLINE, String.valueOf(event.isOnline()), ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of the terminals matching an expression
+     *
+     * @throws IllegalArgumentException if the expression is malformed
+     */
+    public List<Long> evaluate(TargetExpressionDto expression) {
+        validate(expression, 0, new int[1]);
+        lock.readLock().lock();
+        try {
+            BitSet matches = eval(expression);
+            matches.and(present);
+            List<Long> ids = new ArrayList<>(matches.cardinality());
+            for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+                ids.add(idByOrdinal[ordinal]);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of terminals per value of every field, for building expressions in the UI
+     */
+    public Map<TargetField, Map<String, Integer>> getDimensions() {
+        lock.readLock().lock();
+        try {
+            Map<TargetField, Map<String, Integer>> dimensions = new EnumMap<>(TargetField.class);
+            bitmaps.forEach((field, byValue) -> {
+                Map<String, Integer> counts = new TreeMap<>();
+                byValue.forEach((value, bitmap) -> counts.put(value, bitmap.cardinality()));
+                dimensions.put(field, counts);
+            });
+            return dimensions;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private BitSet eval(TargetExpressionDto node) {
+        if (node.getField() != null) {
+            return evalField(node);
+        }
+        String op = node.getOp().toUpperCase(Locale.ROOT);
+        List<TargetExpressionDto> operands = node.getOperands();
+        BitSet result;
+        switch (op) {
+            case "AND" -> {
+                result = eval(operands.get(0));
+                for (int i = 1; i < operands.size() && !result.isEmpty(); i++) {
+                    result.and(eval(operands.get(i)));
+                }
+            }
+            case "OR" -> {
+                result = new BitSet();
+                for (TargetExpressionDto operand : operands) {
+                    result.or(eval(operand));
+                }
+            }
+            default -> { // NOT, checked by validate()
+                result = (BitSet) present.clone();
+                result.andNot(eval(operands.get(0)));
+            }
+        }
+        return result;
+    }
+
+    private BitSet evalField(TargetExpressionDto node) {
+        Map<String, BitSet> byValue = bitmaps.getOrDefault(node.getField(), Map.of());
+        BitSet result = new BitSet();
+        if (node.getField() == TargetField.FLOOR && (node.getFrom() != null || node.getTo() != null)) {
+            int from = node.getFrom() != null ? node.getFrom() : Integer.MIN_VALUE;
+            int to = node.getTo() != null ? node.getTo() : Integer.MAX_VALUE;
+            byValue.forEach((value, bitmap) -> {
+                int floor = Integer.parseInt(value);
+                if (floor >= from && floor <= to) {
+                    result.or(bitmap);
+                }
+            });
+        }
+        if (node.getValues() != null) {
+            for (String value : node.getValues()) {
+                BitSet bitmap = byValue.get(normalize(node.getField(), value));
+                if (bitmap != null) {
+                    result.or(bitmap);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void validate(TargetExpressionDto node, int depth, int[] nodes) {
+        if (node == null) {
+            throw new IllegalArgumentException("Empty targeting expression");
+        }
+        if (depth > MAX_DEPTH || ++nodes[0] > MAX_NODES) {
+            throw new IllegalArgumentException("Targeting expression too large");
+        }
+        if (node.getField() != null) {
+            boolean range = node.getFrom() != null || node.getTo() != null;
+            if (range && node.getField() != TargetField.FLOOR) {
+                throw new IllegalArgumentException("Ranges are only supported on FLOOR");
+            }
+            if (!range && (node.getValues() == null || node.getValues().isEmpty())) {
+                throw new IllegalArgumentException("No value given for " + node.getField());
+            }
+            return;
+        }
+        String op = node.getOp() != null ? node.getOp().toUpperCase(Locale.ROOT) : "";
+        List<TargetExpressionDto> operands = node.getOperands();
+        if (!Arrays.asList("AND", "OR", "NOT").contains(op)) {
+            throw new IllegalArgumentException("Unknown operator: " + node.getOp() + " (AND, OR, NOT, or a field test)");
+        }
+        if (operands == null || operands.isEmpty() || ("NOT".equals(op) && operands.size() != 1)) {
+            throw new IllegalArgumentException(op + " needs " + ("NOT".equals(op) ? "one operand" : "operands"));
+        }
+        for (TargetExpressionDto operand : operands) {
+            validate(operand, depth + 1, nodes);
+        }
+    }
+
+    // --- index maintenance, under the write lock ---
+
+    private void index(TerminalTargetingRow row) {
+        int ordinal = nextOrdinal++;
+        if (ordinal == idByOrdinal.length) {
+            idByOrdinal = Arrays.copyOf(idByOrdinal, Math.max(16, ordinal * 2));
+        }
+        idByOrdinal[ordinal] = row.getId();
+        ordinalById.put(row.getId(), ordinal);
+        present.set(ordinal);
+
+        set(TargetField.ACTIVE, String.valueOf(Boolean.TRUE.equals(row.getActive())), ordinal);
+        boolean online = liveOnline.getOrDefault(row.getId(), Boolean.TRUE.equals(row.getIsOnline()));
+        set(TargetField.ONLINE, String.valueOf(online), ordinal);
+        if (row.getDeviceType() != null) set(TargetField.DEVICE_TYPE, row.getDeviceType().name(), ordinal);
+        if (row.getFloorNumber() != null) set(TargetField.FLOOR, String.valueOf(row.getFloorNumber()), ordinal);
+        if (row.getRoomId() != null) set(TargetField.ROOM, String.valueOf(row.getRoomId()), ordinal);
+        if (row.getRoomType() != null) set(TargetField.ROOM_TYPE, row.getRoomType().name(), ordinal);
+        if (row.getLocationType() != null) set(TargetField.LOCATION_TYPE, row.getLocationType().name(), ordinal);
+        String appVersion = liveAppVersion.getOrDefault(row.getId(), row.getAppVersion());
+        if (appVersion != null) set(TargetField.APP_VERSION, appVersion, ordinal);
+    }
+
+    /**
+     * Drop a terminal from every bitmap; its ordinal is not reused until the next rebuild
+     */
+    private void unindex(Long terminalId) {
+        Integer ordinal = ordinalById.remove(terminalId);
+        if (ordinal == null) {
+            return;
+        }
+        present.clear(ordinal);
+        for (TargetField field : TargetField.values()) {
+            clear(field, ordinal);
+        }
+    }
+
+    private void set(TargetField field, String value, int ordinal) {
+        bitmaps.computeIfAbsent(field, f -> new HashMap<>())
+                .computeIfAbsent(value, v -> new BitSet())
+                .set(ordinal);
+    }
+
+    private void clear(TargetField field, int ordinal) {
+        Map<String, BitSet> byValue = bitmaps.get(field);
+        if (byValue == null) {
+            return;
+        }
+        Iterator<BitSet> it = byValue.values().iterator();
+        while (it.hasNext()) {
+            BitSet bitmap = it.next();
+            bitmap.clear(ordinal);
+            if (bitmap.isEmpty()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static String normalize(TargetField field, String value) {
+        if (value == null) {
+            return "";
+        }
+        return switch (field) {
+            case ACTIVE, ONLINE -> value.trim().toLowerCase(Locale.ROOT);
+            case APP_VERSION, FLOOR, ROOM -> value.trim();
+            default -> value.trim().toUpperCase(Locale.ROOT);
+        };
+    }
+}
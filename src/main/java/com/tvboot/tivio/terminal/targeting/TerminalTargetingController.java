@@ -0,0 +1,82 @@
+package com.tvboot.tivio.terminal.targeting;
+
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import com.tvboot.tivio.terminal.targeting.dto.TargetExpressionDto;
+import com.tvboot.tivio.terminal.targeting.dto.TargetingResultDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/terminals/targeting")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class TerminalTargetingController {
+
+    private static final int MAX_IDS = 10000;
+
+    private final TerminalBitmapIndex bitmapIndex;
+
+    /**
+     * Preview the terminals an expression targets
+     */
+    @PostMapping("/evaluate")
+    public ResponseEntity<TvBootHttpResponse> evaluate(@RequestBody TargetExpressionDto expression,
+                                                       @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            long start = System.nanoTime();
+            List<Long> terminalIds = bitmapIndex.evaluate(expression);
+            long micros = (System.nanoTime() - start) / 1000;
+
+            TargetingResultDto result = TargetingResultDto.builder()
+                    .count(terminalIds.size())
+                    .terminalIds(terminalIds.subList(0, Math.min(terminalIds.size(), Math.min(Math.max(limit, 0), MAX_IDS))))
+                    .evaluationMicros(micros)
+                    .build();
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Targeting expression matches " + result.getCount() + " terminals")
+                    .build()
+                    .addData("result", result)
+                    .addCount(result.getCount());
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error evaluating targeting expression", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to evaluate targeting expression",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Indexed values of every field with their terminal count
+     */
+    @GetMapping("/dimensions")
+    public ResponseEntity<TvBootHttpResponse> getDimensions() {
+        try {
+            Map<TargetField, Map<String, Integer>> dimensions = bitmapIndex.getDimensions();
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Targeting dimensions retrieved successfully")
+                    .build()
+                    .addData("dimensions", dimensions);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error retrieving targeting dimensions", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve targeting dimensions",
+                    e.getMessage()
+            );
+        }
+    }
+}
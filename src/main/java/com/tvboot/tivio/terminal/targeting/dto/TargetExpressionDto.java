@@ -0,0 +1,35 @@
+package com.tvboot.tivio.terminal.targeting.dto;
+
+import com.tvboot.tivio.terminal.targeting.TargetField;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Targeting expression tree. A node is either an operator ({@code op} AND, OR or NOT
+ * over {@code operands}) or a test on one field matching any of {@code values}, or
+ * the {@code from}/{@code to} range for FLOOR. For example, online smart TVs on
+ * floors 3 to 5 in suites:
+ * <pre>
+ * {"op":"AND","operands":[
+ *   {"field":"ONLINE","values":["true"]},
+ *   {"field":"DEVICE_TYPE","values":["SMART_TV"]},
+ *   {"field":"FLOOR","from":3,"to":5},
+ *   {"field":"ROOM_TYPE","values":["JUNIOR_SUITE","DELUXE_SUITE","SENIOR_SUITE","PRESIDENTIAL_SUITE"]}]}
+ * </pre>
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TargetExpressionDto {
+    private String op;
+    private List<TargetExpressionDto> operands;
+    private TargetField field;
+    private List<String> values;
+    private Integer from;
+    private Integer to;
+}
@@ -0,0 +1,18 @@
+package com.tvboot.tivio.terminal.targeting.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TargetingResultDto {
+    private int count;
+    private List<Long> terminalIds;    // truncated to the requested limit
+    private long evaluationMicros;
+}
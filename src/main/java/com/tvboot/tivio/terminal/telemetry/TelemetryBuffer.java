@@ -0,0 +1,67 @@
+package com.tvboot.tivio.terminal.telemetry;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounded multi-producer queue between the HTTP threads and the telemetry writer.
+ * <p>
+ * Room for a whole batch is reserved with a CAS on the size before the records are
+ * enqueued, so a batch is either fully accepted or refused, producers never block,
+ * and the capacity is never exceeded.
+ */
+class TelemetryBuffer {
+
+    private final Queue<TelemetryRecord> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final int capacity;
+
+    TelemetryBuffer(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return false, without enqueuing anything, if the batch does not fit
+     */
+    boolean offerAll(List<TelemetryRecord> records) {
+        int count = records.size();
+        int current;
+        do {
+            current = size.get();
+            if (current + count > capacity) {
+                return false;
+            }
+        } while (!size.compareAndSet(current, current + count));
+
+        queue.addAll(records);
+        return true;
+    }
+
+    /**
+     * Move up to {@code max} records into {@code target}
+     *
+     * @return the number of records moved
+     */
+    int drainTo(List<TelemetryRecord> target, int max) {
+        int drained = 0;
+        TelemetryRecord record;
+        while (drained < max && (record = queue.poll()) != null) {
+            target.add(record);
+            drained++;
+        }
+        if (drained > 0) {
+            size.addAndGet(-drained);
+        }
+        return drained;
+    }
+
+    int size() {
+        return size.get();
+    }
+
+    int capacity() {
+        return capacity;
+    }
+}
@@ -0,0 +1,348 @@
+package com.tvboot.tivio.terminal.telemetry;
+
+import com.tvboot.tivio.terminal.TerminalHeartbeatBuffer;
+import com.tvboot.tivio.terminal.telemetry.dto.TelemetryBatchDto;
+import com.tvboot.tivio.terminal.telemetry.dto.TelemetrySampleDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Telemetry pipeline: HTTP threads validate a batch and put it in a bounded
+ * {@link TelemetryBuffer}; a single writer thread drains it and inserts large JDBC
+ * batches into the daily partitions of {@code terminal_telemetry}.
+ * <p>
+ * Nothing on the request path touches the database. When the buffer is full the batch
+ * is refused and the terminal is told when to come back, instead of queueing without
+ * bound or blocking request threads.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TelemetryIngestionService {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long MAX_CLOCK_SKEW_MILLIS = TimeUnit.MINUTES.toMillis(2);
+    private static final long MAX_SAMPLE_AGE_MILLIS = TimeUnit.HOURS.toMillis(24);
+    private static final int MAX_ERRORS_PER_SAMPLE = 20;
+    private static final int MAX_ERROR_LENGTH = 500;
+    // PostgreSQL refuses NUL in text; the other control characters are noise in a log line
+    private static final Pattern CONTROL_CHARACTERS = Pattern.compile("[\\p{Cntrl}&&[^\\t]]");
+    private static final int PARTITIONS_AHEAD = 2;
+    // Wi-Fi RSSI in dBm; anything outside is a client bug and would overflow the SMALLINT column
+    private static final int MIN_RSSI = -127;
+    private static final int MAX_RSSI = 0;
+
+    private final TelemetryRepository telemetryRepository;
+    private final TerminalHeartbeatBuffer heartbeatBuffer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.terminal.telemetry.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.terminal.telemetry.buffer-capacity:200000}")
+    private int bufferCapacity;
+
+    @Value("${app.terminal.telemetry.batch-size:5000}")
+    private int batchSize;
+
+    @Value("${app.terminal.telemetry.flush-interval-ms:1000}")
+    private long flushIntervalMs;
+
+    @Value("${app.terminal.telemetry.max-samples-per-batch:120}")
+    private int maxSamplesPerBatch;
+
+    @Value("${app.terminal.telemetry.min-interval-seconds:30}")
+    private long minIntervalSeconds;
+
+    @Value("${app.terminal.telemetry.retention-days:14}")
+    private int retentionDays;
+
+    private TelemetryBuffer buffer;
+
+    // terminalId -> time of the last accepted upload (epoch millis)
+    private final Map<Long, Long> lastUploads = new ConcurrentHashMap<>();
+
+    private Counter writtenCounter;
+    private Counter droppedCounter;
+    private Counter rejectedCounter;
+
+    private volatile boolean running;
+    private volatile Thread writer;
+
+    public enum Outcome { ACCEPTED, RATE_LIMITED, OVERLOADED }
+
+    @Getter
+    @AllArgsConstructor
+    public static class IngestResult {
+        private final Outcome outcome;
+        private final int accepted;
+        private final long retryAfterSeconds;
+    }
+
+    @PostConstruct
+    void init() {
+        buffer = new TelemetryBuffer(bufferCapacity);
+        Gauge.builder("tvboot.telemetry.buffer.size", buffer, TelemetryBuffer::size)
+                .description("Telemetry samples waiting to be written")
+                .register(meterRegistry);
+        writtenCounter = Counter.builder("tvboot.telemetry.samples.written.total")
+                .description("Telemetry samples written to the database")
+                .register(meterRegistry);
+        droppedCounter = Counter.builder("tvboot.telemetry.samples.dropped.total")
+                .description("Telemetry samples lost on a failed write")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("tvboot.telemetry.batches.rejected.total")
+                .description("Telemetry batches refused because the buffer was full")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        maintainPartitions();
+        running = true;
+        writer = Thread.ofPlatform().name("telemetry-writer").daemon().start(this::writeLoop);
+        log.info("Telemetry writer started (buffer {}, batches of {})", bufferCapacity, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        // The loop drains what is left before exiting
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Telemetry writer stopped ({} samples left unwritten)", buffer.size());
+    }
+
+    /**
+     * Validate and enqueue the samples uploaded by a terminal
+     *
+     * @throws IllegalArgumentException if the batch is empty or too large
+     * @throws EntityNotFoundException  if the terminal does not exist anymore
+     */
+    public IngestResult ingest(Long terminalId, TelemetryBatchDto batch) {
+        if (!enabled) {
+            throw new IllegalStateException("Telemetry ingestion is disabled");
+        }
+        List<TelemetrySampleDto> samples = batch != null ? batch.getSamples() : null;
+        if (samples == null || samples.isEmpty()) {
+            throw new IllegalArgumentException("No telemetry samples");
+        }
+        if (samples.size() > maxSamplesPerBatch) {
+            throw new IllegalArgumentException("Too many samples in one batch: " + samples.size()
+                    + " (max " + maxSamplesPerBatch + ")");
+        }
+
+        long now = System.currentTimeMillis();
+        long minIntervalMillis = TimeUnit.SECONDS.toMillis(minIntervalSeconds);
+        long[] waitMillis = {0};
+        lastUploads.compute(terminalId, (id, last) -> {
+            if (last != null && now - last < minIntervalMillis) {
+                waitMillis[0] = minIntervalMillis - (now - last);
+                return last;
+            }
+            return now;
+        });
+        if (waitMillis[0] > 0) {
+            return new IngestResult(Outcome.RATE_LIMITED, 0, Math.max(1, TimeUnit.MILLISECONDS.toSeconds(waitMillis[0])));
+        }
+
+        if (!heartbeatBuffer.record(terminalId)) {
+            lastUploads.remove(terminalId);
+            throw new EntityNotFoundException("Terminal not found with id: " + terminalId);
+        }
+
+        LocalDateTime receivedAt = toLocalDateTime(now);
+        List<TelemetryRecord> records = new ArrayList<>(samples.size());
+        for (TelemetrySampleDto sample : samples) {
+            if (sample != null) {
+                records.add(toRecord(terminalId, sample, now, receivedAt));
+            }
+        }
+
+        if (!buffer.offerAll(records)) {
+            // Let the terminal retry as soon as there is room
+            lastUploads.remove(terminalId, now);
+            rejectedCounter.increment();
+            return new IngestResult(Outcome.OVERLOADED, 0, retryAfterSeconds());
+        }
+        return new IngestResult(Outcome.ACCEPTED, records.size(), 0);
+    }
+
+    /**
+     * Keep partitions ready for the next days and drop the ones past the retention window
+     */
+    @Scheduled(cron = "0 10 0 * * *")
+    public void maintainPartitions() {
+        if (!enabled) {
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        try {
+            // Yesterday too: late samples of the previous day are still accepted
+            for (LocalDate day = today.minusDays(1); !day.isAfter(today.plusDays(PARTITIONS_AHEAD)); day = day.plusDays(1)) {
+                telemetryRepository.createPartition(day);
+            }
+            int dropped = telemetryRepository.dropPartitionsBefore(today.minusDays(retentionDays));
+            if (dropped > 0) {
+                log.info("Dropped {} telemetry partitions older than {} days", dropped, retentionDays);
+            }
+        } catch (DataAccessException e) {
+            log.error("Telemetry partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    public List<TelemetrySampleDto> getRecentSamples(Long terminalId, int hours, int limit) {
+        return telemetryRepository.findSince(terminalId, LocalDateTime.now().minusHours(hours), limit);
+    }
+
+    private void writeLoop() {
+        List<TelemetryRecord> batch = new ArrayList<>(batchSize);
+        long lastWrite = System.currentTimeMillis();
+
+        while (running || buffer.size() > 0) {
+            // Wait for a full batch, or for the flush interval on a quiet fleet
+            if (running && buffer.size() < batchSize
+                    && System.currentTimeMillis() - lastWrite < flushIntervalMs) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+                continue;
+            }
+            lastWrite = System.currentTimeMillis();
+            if (buffer.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<TelemetryRecord> batch) {
+        try {
+            telemetryRepository.insertBatch(batch);
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            // Most likely a missing partition (maintenance failed): create it and retry once
+            log.warn("Telemetry write of {} samples failed, retrying: {}", batch.size(), e.getMessage());
+            maintainPartitions();
+            try {
+                telemetryRepository.insertBatch(batch);
+                writtenCounter.increment(batch.size());
+            } catch (Exception retryError) {
+                log.warn("Telemetry batch retry failed, writing the {} samples one by one: {}",
+                        batch.size(), retryError.getMessage());
+                writeOneByOne(batch);
+            }
+        }
+    }
+
+    /**
+     * Last resort: a row the database refuses only loses itself, not the rest of the batch
+     */
+    private void writeOneByOne(List<TelemetryRecord> batch) {
+        int dropped = 0;
+        String lastError = null;
+        for (TelemetryRecord record : batch) {
+            try {
+                telemetryRepository.insertBatch(List.of(record));
+                writtenCounter.increment();
+            } catch (Exception e) {
+                dropped++;
+                lastError = e.getMessage();
+            }
+        }
+        if (dropped > 0) {
+            droppedCounter.increment(dropped);
+            log.error("Dropping {} telemetry samples: {}", dropped, lastError);
+        }
+    }
+
+    private TelemetryRecord toRecord(Long terminalId, TelemetrySampleDto sample, long now, LocalDateTime receivedAt) {
+        // Terminal clocks drift or reset: keep the reported time only when it is plausible
+        Long timestamp = sample.getTimestamp();
+        LocalDateTime recordedAt = timestamp != null
+                && timestamp <= now + MAX_CLOCK_SKEW_MILLIS
+                && timestamp >= now - MAX_SAMPLE_AGE_MILLIS
+                ? toLocalDateTime(timestamp)
+                : receivedAt;
+
+        List<String> errors = sample.getErrors() != null ? sample.getErrors() : List.of();
+        StringBuilder joined = new StringBuilder();
+        for (int i = 0; i < errors.size() && i < MAX_ERRORS_PER_SAMPLE; i++) {
+            String error = errors.get(i);
+            error = error != null ? CONTROL_CHARACTERS.matcher(error).replaceAll("") : null;
+            if (error == null || error.isBlank()) {
+                continue;
+            }
+            if (!joined.isEmpty()) {
+                joined.append('\n');
+            }
+            joined.append(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        }
+
+        return new TelemetryRecord(
+                terminalId,
+                recordedAt,
+                receivedAt,
+                finiteOrNull(sample.getCpuPercent()),
+                finiteOrNull(sample.getMemoryPercent()),
+                finiteOrNull(sample.getTemperature()),
+                plausibleRssiOrNull(sample.getRssi()),
+                sample.getChannelId(),
+                errors.size(),
+                joined.isEmpty() ? null : joined.toString());
+    }
+
+    private long retryAfterSeconds() {
+        // Jitter spreads the retries of a whole fleet refused at the same moment
+        long base = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(flushIntervalMs) * 5);
+        return base + ThreadLocalRandom.current().nextLong(base * 2 + 1);
+    }
+
+    private static Float finiteOrNull(Float value) {
+        return value != null && Float.isFinite(value) ? value : null;
+    }
+
+    private static Integer plausibleRssiOrNull(Integer value) {
+        return value != null && value >= MIN_RSSI && value <= MAX_RSSI ? value : null;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,24 @@
+package com.tvboot.tivio.terminal.telemetry;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A validated sample waiting in {@link TelemetryBuffer} for its bulk insert
+ */
+@Getter
+@AllArgsConstructor
+class TelemetryRecord {
+    private final long terminalId;
+    private final LocalDateTime recordedAt;
+    private final LocalDateTime receivedAt;
+    private final Float cpuPercent;
+    private final Float memoryPercent;
+    private final Float temperature;
+    private final Integer rssi;
+    private final Long channelId;
+    private final int errorCount;
+    private final String errors;
+}
@@ -0,0 +1,126 @@
+package com.tvboot.tivio.terminal.telemetry;
+
+import com.tvboot.tivio.terminal.telemetry.dto.TelemetrySampleDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Plain JDBC access to {@code terminal_telemetry}, a table range-partitioned by day:
+ * inserts go through JDBC batches and retention is a {@code DROP TABLE} of whole
+ * partitions instead of a large DELETE.
+ */
+@Repository
+@RequiredArgsConstructor
+public class TelemetryRepository {
+
+    static final String TABLE = "terminal_telemetry";
+    private static final String PARTITION_PREFIX = TABLE + "_p";
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    private static final String INSERT_SQL = """
+            INSERT INTO terminal_telemetry
+                (terminal_id, recorded_at, received_at, cpu_percent, memory_percent,
+                 temperature, rssi, channel_id, error_count, errors)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Transactional
+    public void insertBatch(List<TelemetryRecord> records) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, records, JDBC_BATCH_SIZE, (ps, record) -> {
+            ps.setLong(1, record.getTerminalId());
+            ps.setTimestamp(2, Timestamp.valueOf(record.getRecordedAt()));
+            ps.setTimestamp(3, Timestamp.valueOf(record.getReceivedAt()));
+            ps.setObject(4, record.getCpuPercent(), Types.REAL);
+            ps.setObject(5, record.getMemoryPercent(), Types.REAL);
+            ps.setObject(6, record.getTemperature(), Types.REAL);
+            ps.setObject(7, record.getRssi(), Types.SMALLINT);
+            ps.setObject(8, record.getChannelId(), Types.BIGINT);
+            ps.setInt(9, record.getErrorCount());
+            ps.setString(10, record.getErrors());
+        });
+    }
+
+    @Transactional(readOnly = true)
+    public List<TelemetrySampleDto> findSince(Long terminalId, LocalDateTime since, int limit) {
+        return jdbcTemplate.query("""
+                        SELECT recorded_at, cpu_percent, memory_percent, temperature, rssi, channel_id, errors
+                        FROM terminal_telemetry
+                        WHERE terminal_id = ? AND recorded_at >= ?
+                        ORDER BY recorded_at DESC
+                        LIMIT ?
+                        """,
+                (rs, rowNum) -> {
+                    String errors = rs.getString("errors");
+                    return TelemetrySampleDto.builder()
+                            .timestamp(rs.getTimestamp("recorded_at").toLocalDateTime()
+                                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                            .cpuPercent(rs.getObject("cpu_percent", Float.class))
+                            .memoryPercent(rs.getObject("memory_percent", Float.class))
+                            .temperature(rs.getObject("temperature", Float.class))
+                            .rssi(rs.getObject("rssi", Integer.class))
+                            .channelId(rs.getObject("channel_id", Long.class))
+                            .errors(errors != null ? Arrays.asList(errors.split("\n")) : null)
+                            .build();
+                },
+                terminalId, Timestamp.valueOf(since), limit);
+    }
+
+    /**
+     * Create the partition holding {@code day} if it does not exist yet
+     */
+    @Transactional
+    public void createPartition(LocalDate day) {
+        // Identifiers and bounds are derived from a LocalDate, never from user input
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + PARTITION_PREFIX + day.format(PARTITION_SUFFIX)
+                + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + day + "') TO ('" + day.plusDays(1) + "')");
+    }
+
+    /**
+     * Drop the daily partitions entirely before {@code firstKeptDay}
+     *
+     * @return the number of partitions dropped
+     */
+    @Transactional
+    public int dropPartitionsBefore(LocalDate firstKeptDay) {
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits i
+                JOIN pg_class child ON child.oid = i.inhrelid
+                JOIN pg_class parent ON parent.oid = i.inhparent
+                WHERE parent.relname = ?
+                """, String.class, TABLE);
+
+        int dropped = 0;
+        for (String partition : partitions) {
+            if (!partition.startsWith(PARTITION_PREFIX)) {
+                continue;
+            }
+            try {
+                LocalDate day = LocalDate.parse(partition.substring(PARTITION_PREFIX.length()), PARTITION_SUFFIX);
+                if (day.isBefore(firstKeptDay)) {
+                    jdbcTemplate.execute("DROP TABLE IF EXISTS " + partition);
+                    dropped++;
+                }
+            } catch (DateTimeParseException e) {
+                // not a daily partition (default partition, manual table...)
+            }
+        }
+        return dropped;
+    }
+}
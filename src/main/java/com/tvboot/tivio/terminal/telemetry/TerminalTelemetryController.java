@@ -0,0 +1,139 @@
+package com.tvboot.tivio.terminal.telemetry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import com.tvboot.tivio.terminal.auth.JwtTokenProvider;
+import com.tvboot.tivio.terminal.telemetry.TelemetryIngestionService.IngestResult;
+import com.tvboot.tivio.terminal.telemetry.TelemetryIngestionService.Outcome;
+import com.tvboot.tivio.terminal.telemetry.dto.TelemetryBatchDto;
+import com.tvboot.tivio.terminal.telemetry.dto.TelemetrySampleDto;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+@RestController
+@RequestMapping("/terminals")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class TerminalTelemetryController {
+
+    private static final int MAX_PAYLOAD_BYTES = 1024 * 1024;   // after decompression
+    private static final int MAX_QUERY_HOURS = 24 * 7;
+    private static final int MAX_QUERY_SAMPLES = 5000;
+
+    private final TelemetryIngestionService ingestionService;
+    private final JwtTokenProvider tokenProvider;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Batched telemetry upload from a terminal, JSON optionally gzip-compressed
+     * ({@code Content-Encoding: gzip}). Answers 202 once buffered, or 429/503 with a
+     * Retry-After header when the terminal must come back later.
+     */
+    @PostMapping("/telemetry")
+    public ResponseEntity<TvBootHttpResponse> ingest(HttpServletRequest request) {
+        Long terminalId = tokenProvider.resolveTerminalId(request);
+        if (terminalId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(TvBootHttpResponse.unauthorized("Terminal token required").build());
+        }
+
+        try {
+            byte[] payload = readPayload(request);
+            if (payload == null) {
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE)
+                        .body(TvBootHttpResponse.error(HttpStatus.PAYLOAD_TOO_LARGE,
+                                "Telemetry payload exceeds " + MAX_PAYLOAD_BYTES + " bytes").build());
+            }
+            TelemetryBatchDto batch = objectMapper.readValue(payload, TelemetryBatchDto.class);
+
+            IngestResult result = ingestionService.ingest(terminalId, batch);
+            if (result.getOutcome() != Outcome.ACCEPTED) {
+                HttpStatus status = result.getOutcome() == Outcome.RATE_LIMITED
+                        ? HttpStatus.TOO_MANY_REQUESTS
+                        : HttpStatus.SERVICE_UNAVAILABLE;
+                return ResponseEntity.status(status)
+                        .header(HttpHeaders.RETRY_AFTER, String.valueOf(result.getRetryAfterSeconds()))
+                        .body(TvBootHttpResponse.error(status, "Telemetry not accepted, retry later").build());
+            }
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Telemetry accepted")
+                    .build()
+                    .addCount(result.getAccepted());
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        } catch (JsonProcessingException e) {
+            return TvBootHttpResponse.badRequestResponse("Malformed telemetry payload: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (EntityNotFoundException e) {
+            return TvBootHttpResponse.notFoundResponse(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(TvBootHttpResponse.error(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage()).build());
+        } catch (IOException e) {
+            return TvBootHttpResponse.badRequestResponse("Unreadable telemetry payload: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error ingesting telemetry for terminal {}", terminalId, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to ingest telemetry",
+                    e.getMessage()
+            );
+        }
+    }
+
+    @GetMapping("/{id}/telemetry")
+    public ResponseEntity<TvBootHttpResponse> getTelemetry(@PathVariable Long id,
+                                                           @RequestParam(defaultValue = "24") int hours,
+                                                           @RequestParam(defaultValue = "1440") int limit) {
+        try {
+            List<TelemetrySampleDto> samples = ingestionService.getRecentSamples(id,
+                    Math.min(Math.max(hours, 1), MAX_QUERY_HOURS),
+                    Math.min(Math.max(limit, 1), MAX_QUERY_SAMPLES));
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Terminal telemetry retrieved successfully")
+                    .build()
+                    .addData("samples", samples)
+                    .addCount(samples.size());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error retrieving telemetry for terminal {}", id, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve terminal telemetry",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Request body, decompressed if needed
+     *
+     * @return null if larger than {@link #MAX_PAYLOAD_BYTES} once decompressed
+     */
+    private byte[] readPayload(HttpServletRequest request) throws IOException {
+        InputStream in = request.getInputStream();
+        if ("gzip".equalsIgnoreCase(request.getHeader(HttpHeaders.CONTENT_ENCODING))) {
+            in = new GZIPInputStream(in, 8192);
+        }
+        try (InputStream body = in) {
+            // Read one byte past the limit to detect oversized (or zip bomb) payloads
+            byte[] payload = body.readNBytes(MAX_PAYLOAD_BYTES + 1);
+            return payload.length > MAX_PAYLOAD_BYTES ? null : payload;
+        }
+    }
+}
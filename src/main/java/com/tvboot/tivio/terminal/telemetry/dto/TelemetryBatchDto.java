@@ -0,0 +1,19 @@
+package com.tvboot.tivio.terminal.telemetry.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Samples accumulated by a terminal since its last upload
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetryBatchDto {
+    private List<TelemetrySampleDto> samples;
+}
@@ -0,0 +1,25 @@
+package com.tvboot.tivio.terminal.telemetry.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One measurement taken by a terminal (typically every minute)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetrySampleDto {
+    private Long timestamp;        // epoch millis on the terminal clock
+    private Float cpuPercent;
+    private Float memoryPercent;
+    private Float temperature;     // degrees Celsius
+    private Integer rssi;          // dBm, Wi-Fi terminals only
+    private Long channelId;
+    private List<String> errors;   // application errors since the previous sample
+}
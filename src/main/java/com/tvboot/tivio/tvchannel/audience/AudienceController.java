@@ -0,0 +1,115 @@
+package com.tvboot.tivio.tvchannel.audience;
+
+import com.tvboot.tivio.common.dto.respone.TvBootHttpResponse;
+import com.tvboot.tivio.terminal.auth.JwtTokenProvider;
+import com.tvboot.tivio.tvchannel.audience.dto.AudiencePointDto;
+import com.tvboot.tivio.tvchannel.audience.dto.ChannelChangeRequest;
+import com.tvboot.tivio.tvchannel.audience.dto.LiveAudienceDto;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/tvchannels/audience")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = "*")
+public class AudienceController {
+
+    private static final int MAX_LIVE_CHANNELS = 100;
+
+    private final AudienceService audienceService;
+    private final JwtTokenProvider tokenProvider;
+
+    /**
+     * Channel change reported by a terminal (terminal token required)
+     */
+    @PostMapping("/events")
+    public ResponseEntity<TvBootHttpResponse> channelChanged(@RequestBody ChannelChangeRequest request,
+                                                             HttpServletRequest httpRequest) {
+        Long terminalId = tokenProvider.resolveTerminalId(httpRequest);
+        if (terminalId == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .body(TvBootHttpResponse.unauthorized("Terminal token required").build());
+        }
+
+        try {
+            audienceService.recordChannelChange(terminalId, request.getChannelId());
+            return ResponseEntity.noContent().build();
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (EntityNotFoundException e) {
+            return TvBootHttpResponse.notFoundResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error recording channel change for terminal {}", terminalId, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to record channel change",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Most watched channels right now
+     */
+    @GetMapping("/live")
+    public ResponseEntity<TvBootHttpResponse> getLiveAudience(@RequestParam(defaultValue = "10") int limit) {
+        try {
+            List<LiveAudienceDto> channels = audienceService.getLiveTopChannels(
+                    Math.min(Math.max(limit, 1), MAX_LIVE_CHANNELS));
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Live audience retrieved successfully")
+                    .build()
+                    .addChannels(channels)
+                    .addData("viewers", audienceService.getLiveViewerCount())
+                    .addCount(channels.size());
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            log.error("Error retrieving live audience", e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve live audience",
+                    e.getMessage()
+            );
+        }
+    }
+
+    /**
+     * Hourly or daily audience curve of a channel, of all channels when no channel is given
+     */
+    @GetMapping("/history")
+    public ResponseEntity<TvBootHttpResponse> getAudienceHistory(
+            @RequestParam(required = false) Long channelId,
+            @RequestParam(defaultValue = "HOUR") AudienceGranularity granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        try {
+            List<AudiencePointDto> points = audienceService.getHistory(channelId, granularity, from, to);
+
+            TvBootHttpResponse response = TvBootHttpResponse.success()
+                    .message("Audience history retrieved successfully")
+                    .build()
+                    .addData("points", points)
+                    .addCount(points.size());
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return TvBootHttpResponse.badRequestResponse(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error retrieving audience history for channel {}", channelId, e);
+            return TvBootHttpResponse.internalServerErrorResponse(
+                    "Failed to retrieve audience history",
+                    e.getMessage()
+            );
+        }
+    }
+}
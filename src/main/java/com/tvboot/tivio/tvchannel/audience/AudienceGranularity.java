@@ -0,0 +1,6 @@
+package com.tvboot.tivio.tvchannel.audience;
+
+public enum AudienceGranularity {
+    HOUR,
+    DAY
+}
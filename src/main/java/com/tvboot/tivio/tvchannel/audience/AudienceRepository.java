@@ -0,0 +1,122 @@
+package com.tvboot.tivio.tvchannel.audience;
+
+import com.tvboot.tivio.tvchannel.audience.dto.AudiencePointDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JDBC access to the audience history tables. Channel id {@link #ALL_CHANNELS} holds
+ * the audience of the whole fleet, so its peak is a real peak rather than a sum of
+ * per-channel peaks.
+ */
+@Repository
+@RequiredArgsConstructor
+public class AudienceRepository {
+
+    public static final long ALL_CHANNELS = 0L;
+
+    private static final RowMapper<AudiencePointDto> POINT_MAPPER = (rs, rowNum) -> AudiencePointDto.builder()
+            .period(rs.getTimestamp("period").toLocalDateTime())
+            .viewerMinutes(rs.getLong("viewer_minutes"))
+            .peakViewers(rs.getInt("peak_viewers"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add one minute snapshot of the live counters to the hour it belongs to
+     */
+    @Transactional
+    public void addMinute(LocalDateTime hour, Map<Long, Long> viewersByChannel) {
+        List<Object[]> rows = new ArrayList<>(viewersByChannel.size());
+        Timestamp hourTimestamp = Timestamp.valueOf(hour);
+        viewersByChannel.forEach((channelId, viewers) ->
+                rows.add(new Object[]{channelId, hourTimestamp, viewers, viewers.intValue()}));
+
+        jdbcTemplate.batchUpdate("""
+                INSERT INTO channel_audience_hourly (channel_id, hour, viewer_minutes, peak_viewers)
+                VALUES (?, ?, ?, ?)
+                ON CONFLICT (channel_id, hour) DO UPDATE
+                SET viewer_minutes = channel_audience_hourly.viewer_minutes + EXCLUDED.viewer_minutes,
+                    peak_viewers = GREATEST(channel_audience_hourly.peak_viewers, EXCLUDED.peak_viewers)
+                """, rows);
+    }
+
+    /**
+     * Recompute the daily rows of [firstDay, lastDay] from the hourly ones
+     *
+     * @return the number of daily rows written
+     */
+    @Transactional
+    public int rollupDays(LocalDate firstDay, LocalDate lastDay) {
+        return jdbcTemplate.update("""
+                        INSERT INTO channel_audience_daily (channel_id, day, viewer_minutes, peak_viewers)
+                        SELECT channel_id, CAST(hour AS date), SUM(viewer_minutes), MAX(peak_viewers)
+                        FROM channel_audience_hourly
+                        WHERE hour >= ? AND hour < ?
+                        GROUP BY channel_id, CAST(hour AS date)
+                        ON CONFLICT (channel_id, day) DO UPDATE
+                        SET viewer_minutes = EXCLUDED.viewer_minutes,
+                            peak_viewers = EXCLUDED.peak_viewers
+                        """,
+                Timestamp.valueOf(firstDay.atStartOfDay()), Timestamp.valueOf(lastDay.plusDays(1).atStartOfDay()));
+    }
+
+    @Transactional
+    public int deleteHoursBefore(LocalDateTime firstKeptHour) {
+        return jdbcTemplate.update("DELETE FROM channel_audience_hourly WHERE hour < ?",
+                Timestamp.valueOf(firstKeptHour));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AudiencePointDto> findHourly(long channelId, LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query("""
+                        SELECT hour AS period, viewer_minutes, peak_viewers
+                        FROM channel_audience_hourly
+                        WHERE channel_id = ? AND hour >= ? AND hour < ?
+                        ORDER BY hour
+                        """,
+                POINT_MAPPER, channelId, Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    @Transactional(readOnly = true)
+    public List<AudiencePointDto> findDaily(long channelId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query("""
+                        SELECT CAST(day AS timestamp) AS period, viewer_minutes, peak_viewers
+                        FROM channel_audience_daily
+                        WHERE channel_id = ? AND day >= ? AND day < ?
+                        ORDER BY day
+                        """,
+                POINT_MAPPER, channelId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    /**
+     * Id, number and name of every channel, for labelling the live ranking
+     */
+    @Transactional(readOnly = true)
+    public List<ChannelLabel> findChannelLabels() {
+        return jdbcTemplate.query("SELECT id, channel_number, name FROM tv_channels",
+                (rs, rowNum) -> new ChannelLabel(rs.getLong("id"), rs.getInt("channel_number"), rs.getString("name")));
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ChannelLabel {
+        private final long id;
+        private final int channelNumber;
+        private final String name;
+    }
+}
@@ -0,0 +1,213 @@
+package com.tvboot.tivio.tvchannel.audience;
+
+import com.tvboot.tivio.terminal.TerminalChangedEvent;
+import com.tvboot.tivio.terminal.TerminalHeartbeatBuffer;
+import com.tvboot.tivio.terminal.TerminalStatusChangedEvent;
+import com.tvboot.tivio.tvchannel.audience.AudienceRepository.ChannelLabel;
+import com.tvboot.tivio.tvchannel.audience.dto.AudiencePointDto;
+import com.tvboot.tivio.tvchannel.audience.dto.LiveAudienceDto;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Channel audience: live viewer counts from {@link AudienceTracker}, a snapshot every
+ * minute accumulated into {@code channel_audience_hourly}, and a rollup of the hours
+ * into {@code channel_audience_daily}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AudienceService {
+
+    private static final long LABEL_RELOAD_MIN_INTERVAL_MS = 30000;
+    private static final long MAX_HOURLY_RANGE_DAYS = 31;
+    private static final long MAX_DAILY_RANGE_DAYS = 366;
+
+    private final AudienceTracker tracker;
+    private final AudienceRepository audienceRepository;
+    private final TerminalHeartbeatBuffer heartbeatBuffer;
+
+    @Value("${app.audience.hourly-retention-days:90}")
+    private int hourlyRetentionDays;
+
+    private volatile Map<Long, ChannelLabel> channels = Map.of();
+    private volatile long channelsLoadedAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${app.audience.channel-reload-interval-ms:300000}",
+            initialDelayString = "${app.audience.channel-reload-interval-ms:300000}")
+    public void reloadChannels() {
+        Map<Long, ChannelLabel> loaded = new HashMap<>();
+        for (ChannelLabel label : audienceRepository.findChannelLabels()) {
+            loaded.put(label.getId(), label);
+        }
+        channels = loaded;
+        channelsLoadedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * A terminal tuned to a channel, or stopped watching live TV when channelId is null
+     *
+     * @throws IllegalArgumentException if the channel does not exist
+     * @throws EntityNotFoundException  if the terminal does not exist
+     */
+    public void recordChannelChange(Long terminalId, Long channelId) {
+        if (channelId != null && !isKnownChannel(channelId)) {
+            throw new IllegalArgumentException("Unknown channel: " + channelId);
+        }
+        // A terminal zapping is alive
+        if (!heartbeatBuffer.record(terminalId)) {
+            throw new EntityNotFoundException("Terminal not found with id: " + terminalId);
+        }
+        tracker.watch(terminalId, channelId);
+    }
+
+    @EventListener
+    public void onStatusChanged(TerminalStatusChangedEvent event) {
+        if (!event.isOnline()) {
+            tracker.leave(event.getTerminalId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTerminalChanged(TerminalChangedEvent event) {
+        if (event.isDeleted()) {
+            tracker.leave(event.getTerminalId());
+        }
+    }
+
+    /**
+     * Add the current viewer counts to the hourly history
+     */
+    @Scheduled(cron = "0 * * * * *")
+    public void snapshotMinute() {
+        Map<Long, Long> viewers = tracker.snapshot();
+        long total = viewers.values().stream().mapToLong(Long::longValue).sum();
+        viewers.put(AudienceRepository.ALL_CHANNELS, total);
+
+        try {
+            audienceRepository.addMinute(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS), viewers);
+        } catch (DataAccessException e) {
+            log.error("Unable to record audience snapshot: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Refresh the daily rows of yesterday and today from the hourly history
+     */
+    @Scheduled(cron = "0 2 * * * *")
+    public void rollupDays() {
+        LocalDate today = LocalDate.now();
+        int rows = audienceRepository.rollupDays(today.minusDays(1), today);
+        log.debug("Audience rollup: {} daily rows refreshed", rows);
+    }
+
+    @Scheduled(cron = "0 40 3 * * *")
+    public void purge() {
+        int deleted = audienceRepository.deleteHoursBefore(
+                LocalDate.now().minusDays(hourlyRetentionDays).atStartOfDay());
+        if (deleted > 0) {
+            log.info("Purged {} hourly audience rows older than {} days", deleted, hourlyRetentionDays);
+        }
+    }
+
+    /**
+     * Most watched channels right now
+     */
+    public List<LiveAudienceDto> getLiveTopChannels(int limit) {
+        Map<Long, Long> viewers = tracker.snapshot();
+        long total = viewers.values().stream().mapToLong(Long::longValue).sum();
+        Map<Long, ChannelLabel> labels = channels;
+
+        return viewers.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .map(entry -> {
+                    ChannelLabel label = labels.get(entry.getKey());
+                    return LiveAudienceDto.builder()
+                            .channelId(entry.getKey())
+                            .channelNumber(label != null ? label.getChannelNumber() : null)
+                            .channelName(label != null ? label.getName() : null)
+                            .viewers(entry.getValue())
+                            .share(Math.round(entry.getValue() * 1000.0 / total) / 10.0)
+                            .build();
+                })
+                .toList();
+    }
+
+    public long getLiveViewerCount() {
+        return tracker.getViewerCount();
+    }
+
+    /**
+     * Audience curve of a channel, or of the whole fleet when channelId is null
+     *
+     * @throws IllegalArgumentException if the range is empty or too long
+     */
+    public List<AudiencePointDto> getHistory(Long channelId, AudienceGranularity granularity,
+                                             LocalDateTime from, LocalDateTime to) {
+        long channel = channelId != null ? channelId : AudienceRepository.ALL_CHANNELS;
+        LocalDateTime now = LocalDateTime.now();
+        if (to == null) {
+            to = now;
+        }
+        if (from == null) {
+            from = granularity == AudienceGranularity.DAY ? to.minusDays(30) : to.minusHours(24);
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("'from' must be before 'to'");
+        }
+        long maxDays = granularity == AudienceGranularity.DAY ? MAX_DAILY_RANGE_DAYS : MAX_HOURLY_RANGE_DAYS;
+        if (Duration.between(from, to).toDays() > maxDays) {
+            throw new IllegalArgumentException("Range too long for " + granularity + " granularity (max "
+                    + maxDays + " days)");
+        }
+
+        List<AudiencePointDto> points;
+        Duration period;
+        if (granularity == AudienceGranularity.DAY) {
+            points = audienceRepository.findDaily(channel, from.toLocalDate(), to.toLocalDate().plusDays(1));
+            period = Duration.ofDays(1);
+        } else {
+            points = audienceRepository.findHourly(channel, from.truncatedTo(ChronoUnit.HOURS), to);
+            period = Duration.ofHours(1);
+        }
+
+        for (AudiencePointDto point : points) {
+            // The current period is only partly elapsed
+            long minutes = Math.min(period.toMinutes(),
+                    Math.max(1, Duration.between(point.getPeriod(), now).toMinutes()));
+            point.setAverageViewers(Math.round(point.getViewerMinutes() * 10.0 / minutes) / 10.0);
+        }
+        return points;
+    }
+
+    private boolean isKnownChannel(Long channelId) {
+        if (channels.containsKey(channelId)) {
+            return true;
+        }
+        // A channel created since the last load: reload, but not on every unknown id
+        if (System.currentTimeMillis() - channelsLoadedAt > LABEL_RELOAD_MIN_INTERVAL_MS) {
+            reloadChannels();
+            return channels.containsKey(channelId);
+        }
+        return false;
+    }
+}
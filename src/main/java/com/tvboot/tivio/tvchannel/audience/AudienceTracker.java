@@ -0,0 +1,74 @@
+package com.tvboot.tivio.tvchannel.audience;
+
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live viewer count per channel, maintained from channel-change events.
+ * <p>
+ * The counters are {@link LongAdder}s: increments from many request threads land on
+ * separate cells instead of contending on one value, and are only summed when a
+ * snapshot is taken. The channel each terminal is watching is kept alongside so a
+ * change moves exactly one viewer from the old channel to the new one.
+ */
+@Component
+public class AudienceTracker {
+
+    // terminalId -> channel being watched
+    private final Map<Long, Long> channelByTerminal = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> viewersByChannel = new ConcurrentHashMap<>();
+
+    /**
+     * The terminal now watches {@code channelId}, or nothing when null (standby, menu...)
+     */
+    public void watch(long terminalId, Long channelId) {
+        // compute() serializes the events of one terminal, so the counters never drift
+        channelByTerminal.compute(terminalId, (id, previous) -> {
+            if (Objects.equals(previous, channelId)) {
+                return previous;
+            }
+            if (previous != null) {
+                viewers(previous).decrement();
+            }
+            if (channelId != null) {
+                viewers(channelId).increment();
+            }
+            return channelId;
+        });
+    }
+
+    public void leave(long terminalId) {
+        watch(terminalId, null);
+    }
+
+    public Long getChannel(long terminalId) {
+        return channelByTerminal.get(terminalId);
+    }
+
+    /**
+     * Current viewers per channel, channels without viewers left out
+     */
+    public Map<Long, Long> snapshot() {
+        Map<Long, Long> snapshot = new HashMap<>();
+        viewersByChannel.forEach((channelId, viewers) -> {
+            long count = viewers.sum();
+            if (count > 0) {
+                snapshot.put(channelId, count);
+            }
+        });
+        return snapshot;
+    }
+
+    public int getViewerCount() {
+        return channelByTerminal.size();
+    }
+
+    private LongAdder viewers(Long channelId) {
+        return viewersByChannel.computeIfAbsent(channelId, id -> new LongAdder());
+    }
+}
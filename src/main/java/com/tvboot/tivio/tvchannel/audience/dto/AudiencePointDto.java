@@ -0,0 +1,22 @@
+package com.tvboot.tivio.tvchannel.audience.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Audience of one hour or one day
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AudiencePointDto {
+    private LocalDateTime period;
+    private long viewerMinutes;
+    private double averageViewers;
+    private int peakViewers;
+}
@@ -0,0 +1,18 @@
+package com.tvboot.tivio.tvchannel.audience.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sent by a terminal when it tunes to a channel; a null channel means the terminal
+ * stopped watching live TV (standby, VOD, menus)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChannelChangeRequest {
+    private Long channelId;
+}
@@ -0,0 +1,18 @@
+package com.tvboot.tivio.tvchannel.audience.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LiveAudienceDto {
+    private Long channelId;
+    private Integer channelNumber;
+    private String channelName;
+    private long viewers;
+    private double share;   // percent of the terminals currently watching a channel
+}
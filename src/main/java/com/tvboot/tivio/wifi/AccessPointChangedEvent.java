@@ -0,0 +1,13 @@
+package com.tvboot.tivio.wifi;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * The access point of a terminal was created, edited or deleted
+ */
+@Getter
+@AllArgsConstructor
+public class AccessPointChangedEvent {
+    private final Long terminalId;
+}
@@ -1,8 +1,21 @@
 package com.tvboot.tivio.wifi;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface AccessPointRepository extends JpaRepository<AccessPoint, Long> {
     Optional<AccessPoint> findByTerminalId(Long terminalId);
+
+    // Access points a guest can join, with their terminal (and so their room)
+    @Query("SELECT ap FROM AccessPoint ap JOIN FETCH ap.terminal t " +
+            "WHERE t.room.id = :roomId AND ap.enabled = true AND ap.available = true ORDER BY t.id")
+    List<AccessPoint> findUsableByRoomId(@Param("roomId") Long roomId);
+
+    @Query("SELECT ap FROM AccessPoint ap JOIN FETCH ap.terminal t " +
+            "WHERE t.room IS NOT NULL AND ap.enabled = true AND ap.available = true ORDER BY t.id")
+    List<AccessPoint> findUsableInRooms();
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.tvboot.tivio.wifi.dto.AccessPointDTO;
 import com.tvboot.tivio.wifi.dto.AccessPointUpdateRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -23,6 +24,7 @@ public class WifiController {
 
     private final WifiQrCodeService qrCodeService;
     private final AccessPointRepository accessPointRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @GetMapping("/{terminalId}")
     public ResponseEntity<AccessPointDTO> getAccessPoint(@PathVariable Long terminalId) {
@@ -62,6 +64,7 @@ public class WifiController {
                 .build();
 
         AccessPoint saved = accessPointRepository.save(accessPoint);
+        eventPublisher.publishEvent(new AccessPointChangedEvent(request.getTerminalId()));
 
         AccessPointDTO dto = AccessPointDTO.builder()
                 .id(saved.getId())
@@ -106,6 +109,7 @@ public class WifiController {
         }
 
         AccessPoint updated = accessPointRepository.save(accessPoint);
+        eventPublisher.publishEvent(new AccessPointChangedEvent(terminalId));
 
         AccessPointDTO dto = AccessPointDTO.builder()
                 .id(updated.getId())
@@ -191,6 +195,7 @@ public ResponseEntity<byte[]> getWifiQrCode(
                 .orElseThrow(() -> new RuntimeException("Access point not found for terminal: " + terminalId));
 
         accessPointRepository.delete(accessPoint);
+        eventPublisher.publishEvent(new AccessPointChangedEvent(terminalId));
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
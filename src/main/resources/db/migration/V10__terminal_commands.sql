@@ -0,0 +1,31 @@
+-- Remote commands queued for terminals (reboot, channel switch, message...)
+CREATE TABLE IF NOT EXISTS terminal_commands
+(
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    terminal_id     BIGINT                      NOT NULL,
+    batch_id        VARCHAR(36)                 NOT NULL,
+    command_type    VARCHAR(30)                 NOT NULL,
+    payload         TEXT,
+    status          VARCHAR(20)                 NOT NULL,
+    attempts        INTEGER                     NOT NULL DEFAULT 0,
+    error           VARCHAR(255),
+    created_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    sent_at         TIMESTAMP WITHOUT TIME ZONE,
+    acknowledged_at TIMESTAMP WITHOUT TIME ZONE,
+    expires_at      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_terminal_commands PRIMARY KEY (id),
+    CONSTRAINT fk_terminal_commands_terminal FOREIGN KEY (terminal_id)
+        REFERENCES terminals (id) ON DELETE CASCADE
+);
+
+-- Delivery on connection and timeout processing only look at open commands
+CREATE INDEX IF NOT EXISTS idx_terminal_commands_open
+    ON terminal_commands (terminal_id)
+    WHERE status IN ('PENDING', 'SENT');
+
+CREATE INDEX IF NOT EXISTS idx_terminal_commands_open_expiry
+    ON terminal_commands (expires_at)
+    WHERE status IN ('PENDING', 'SENT');
+
+CREATE INDEX IF NOT EXISTS idx_terminal_commands_batch
+    ON terminal_commands (batch_id);
@@ -0,0 +1,12 @@
+-- Online seconds per terminal per day, accumulated from heartbeat intervals
+CREATE TABLE IF NOT EXISTS terminal_uptime_daily
+(
+    terminal_id    BIGINT  NOT NULL,
+    day            DATE    NOT NULL,
+    online_seconds INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT pk_terminal_uptime_daily PRIMARY KEY (terminal_id, day),
+    CONSTRAINT fk_terminal_uptime_daily_terminal FOREIGN KEY (terminal_id)
+        REFERENCES terminals (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_terminal_uptime_daily_day ON terminal_uptime_daily (day);
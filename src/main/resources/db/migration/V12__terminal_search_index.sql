@@ -0,0 +1,26 @@
+-- Indexed terminal search (admin list, NOC lookups)
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- One canonical MAC form (AA:BB:CC:DD:EE:FF) so that exact lookups hit the unique index
+UPDATE terminals
+SET mac_address = upper(regexp_replace(mac_address, '([0-9A-Fa-f]{2})[:-]?(?=[0-9A-Fa-f])', '\1:', 'g'))
+WHERE mac_address ~ '^([0-9A-Fa-f]{2}[:-]?){5}[0-9A-Fa-f]{2}$';
+
+-- Normalized text of every searchable field, matched with LIKE '%term%' through the trigram index
+ALTER TABLE terminals
+    ADD COLUMN search_text TEXT GENERATED ALWAYS AS (
+        lower(terminal_code || ' ' ||
+              coalesce(brand, '') || ' ' ||
+              coalesce(model, '') || ' ' ||
+              coalesce(location_identifier, '') || ' ' ||
+              coalesce(ip_address, '') || ' ' ||
+              coalesce(mac_address, ''))
+    ) STORED;
+
+CREATE INDEX idx_terminals_search_text ON terminals USING GIN (search_text gin_trgm_ops);
+
+-- Prefix search on the terminal code for terms too short for trigrams
+CREATE INDEX idx_terminals_code_prefix ON terminals (lower(terminal_code) text_pattern_ops);
+
+-- Exact match on IP address (the MAC address already has its unique index)
+CREATE INDEX idx_terminals_ip_address ON terminals (ip_address);
@@ -0,0 +1,20 @@
+-- Telemetry reported by terminals (CPU, memory, temperature, RSSI, channel, app errors).
+-- Range-partitioned by day: partitions are created ahead and dropped past the retention
+-- window by TelemetryIngestionService.
+CREATE TABLE IF NOT EXISTS terminal_telemetry
+(
+    terminal_id    BIGINT    NOT NULL,
+    recorded_at    TIMESTAMP NOT NULL,
+    received_at    TIMESTAMP NOT NULL,
+    cpu_percent    REAL,
+    memory_percent REAL,
+    temperature    REAL,
+    rssi           SMALLINT,
+    channel_id     BIGINT,
+    error_count    INTEGER   NOT NULL DEFAULT 0,
+    errors         TEXT
+) PARTITION BY RANGE (recorded_at);
+
+-- Created on every partition
+CREATE INDEX IF NOT EXISTS idx_terminal_telemetry_terminal_recorded
+    ON terminal_telemetry (terminal_id, recorded_at);
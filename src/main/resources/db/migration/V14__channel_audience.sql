@@ -0,0 +1,24 @@
+-- Channel audience history. Hourly rows accumulate the per-minute snapshots of the live
+-- viewer counters; daily rows are rolled up from the hourly ones. No foreign key on
+-- the channel: the history of a deleted channel is kept.
+CREATE TABLE IF NOT EXISTS channel_audience_hourly
+(
+    channel_id     BIGINT    NOT NULL,
+    hour           TIMESTAMP NOT NULL,
+    viewer_minutes BIGINT    NOT NULL DEFAULT 0,
+    peak_viewers   INTEGER   NOT NULL DEFAULT 0,
+    CONSTRAINT pk_channel_audience_hourly PRIMARY KEY (channel_id, hour)
+);
+
+CREATE INDEX IF NOT EXISTS idx_channel_audience_hourly_hour ON channel_audience_hourly (hour);
+
+CREATE TABLE IF NOT EXISTS channel_audience_daily
+(
+    channel_id     BIGINT  NOT NULL,
+    day            DATE    NOT NULL,
+    viewer_minutes BIGINT  NOT NULL DEFAULT 0,
+    peak_viewers   INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT pk_channel_audience_daily PRIMARY KEY (channel_id, day)
+);
+
+CREATE INDEX IF NOT EXISTS idx_channel_audience_daily_day ON channel_audience_daily (day);
@@ -0,0 +1,39 @@
+-- Terminal addresses as inet, so subnets can be queried (ip_address <<= '10.1.2.0/24')
+
+-- The generated search column depends on ip_address: rebuild it around the type change
+DROP INDEX IF EXISTS idx_terminals_search_text;
+ALTER TABLE terminals DROP COLUMN IF EXISTS search_text;
+DROP INDEX IF EXISTS idx_terminals_ip_address;
+
+-- Older rows hold the raw X-Forwarded-For value ('unknown', '', ' 10.0.0.5'):
+-- trimmed, and dropped when still not an address, instead of failing the cast
+CREATE FUNCTION pg_temp.try_inet(value TEXT) RETURNS INET AS
+$$
+BEGIN
+    RETURN CAST(nullif(btrim(value), '') AS inet);
+EXCEPTION
+    WHEN invalid_text_representation THEN
+        RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+ALTER TABLE terminals
+    ALTER COLUMN ip_address TYPE INET USING pg_temp.try_inet(ip_address);
+
+ALTER TABLE terminals
+    ADD COLUMN search_text TEXT GENERATED ALWAYS AS (
+        lower(terminal_code || ' ' ||
+              coalesce(brand, '') || ' ' ||
+              coalesce(model, '') || ' ' ||
+              coalesce(location_identifier, '') || ' ' ||
+              coalesce(host(ip_address), '') || ' ' ||
+              coalesce(mac_address, ''))
+    ) STORED;
+
+CREATE INDEX idx_terminals_search_text ON terminals USING GIN (search_text gin_trgm_ops);
+
+-- Containment queries by subnet
+CREATE INDEX idx_terminals_ip_address ON terminals USING GIST (ip_address inet_ops);
+
+-- Exact lookups compare the text form (the entity reads host(ip_address))
+CREATE INDEX idx_terminals_ip_host ON terminals (host(ip_address));
@@ -0,0 +1,36 @@
+-- TV app / firmware packages, one file per (version, platform)
+CREATE TABLE IF NOT EXISTS app_packages
+(
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    app_version VARCHAR(20)                 NOT NULL,
+    platform    VARCHAR(20)                 NOT NULL,
+    file_name   VARCHAR(255)                NOT NULL,
+    file_size   BIGINT                      NOT NULL,
+    sha256      VARCHAR(64)                 NOT NULL,
+    notes       TEXT,
+    created_at  TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_app_packages PRIMARY KEY (id),
+    CONSTRAINT uk_app_packages_version_platform UNIQUE (app_version, platform)
+);
+
+-- Staged rollout of a package: waves are fleet percentages ("5,25,50,100"), the
+-- current wave selects the share of the platform's terminals offered the update
+CREATE TABLE IF NOT EXISTS package_rollouts
+(
+    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    package_id   BIGINT                      NOT NULL,
+    waves        VARCHAR(100)                NOT NULL,
+    current_wave INTEGER                     NOT NULL DEFAULT 0,
+    status       VARCHAR(20)                 NOT NULL,
+    created_at   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    updated_at   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    completed_at TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_package_rollouts PRIMARY KEY (id),
+    CONSTRAINT fk_package_rollouts_package FOREIGN KEY (package_id)
+        REFERENCES app_packages (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_package_rollouts_package ON package_rollouts (package_id);
+
+-- Rollout progress counts the terminals of a platform by reported version
+CREATE INDEX IF NOT EXISTS idx_terminals_platform_app_version ON terminals (platform, app_version);
@@ -0,0 +1,15 @@
+-- Full-text search over the programme guide (title, genre, description)
+-- 'simple' configuration: the guide mixes Arabic, French, English and German titles,
+-- so no language-specific stemming is applied.
+ALTER TABLE epg_entries
+    ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+        setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('simple', coalesce(genre, '')), 'B') ||
+        setweight(to_tsvector('simple', coalesce(description, '')), 'C')
+    ) STORED;
+
+CREATE INDEX idx_epg_entries_search_vector ON epg_entries USING GIN (search_vector);
+
+-- Time window lookups (now/next, search window, per-channel day)
+CREATE INDEX idx_epg_entries_channel_start ON epg_entries (channel_id, start_time);
+CREATE INDEX idx_epg_entries_end_time ON epg_entries (end_time);
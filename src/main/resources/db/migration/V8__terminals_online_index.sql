@@ -0,0 +1,5 @@
+-- Offline sweep: UPDATE ... WHERE is_online AND last_seen < :threshold
+-- Only online terminals are indexed, so the sweep cost does not grow with offline ones
+CREATE INDEX IF NOT EXISTS idx_terminals_online_last_seen
+    ON terminals (last_seen)
+    WHERE is_online;
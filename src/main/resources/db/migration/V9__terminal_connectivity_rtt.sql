@@ -0,0 +1,4 @@
+-- Result of the last fleet connectivity sweep (NULL RTT: unreachable)
+ALTER TABLE terminals
+    ADD COLUMN IF NOT EXISTS last_rtt_ms INTEGER,
+    ADD COLUMN IF NOT EXISTS last_connectivity_check TIMESTAMP WITHOUT TIME ZONE;